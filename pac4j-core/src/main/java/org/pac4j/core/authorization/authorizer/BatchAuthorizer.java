@@ -0,0 +1,34 @@
+package org.pac4j.core.authorization.authorizer;
+
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.profile.UserProfile;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * An authorizer which can check several web contexts at once (for the batch authorization of a result set).
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public interface BatchAuthorizer extends Authorizer {
+
+    /**
+     * Checks the authorizations of the user profiles for the given web contexts.
+     *
+     * @param contexts the web contexts
+     * @param sessionStore the session store
+     * @param profiles the user profiles
+     * @param authorized the web contexts to check (set bits): the bits of the unauthorized ones must be cleared
+     */
+    default void filterAuthorized(final List<WebContext> contexts, final SessionStore sessionStore, final List<UserProfile> profiles,
+                                  final BitSet authorized) {
+        for (var i = authorized.nextSetBit(0); i >= 0; i = authorized.nextSetBit(i + 1)) {
+            if (!isAuthorized(contexts.get(i), sessionStore, profiles)) {
+                authorized.clear(i);
+            }
+        }
+    }
+}
@@ -13,7 +13,7 @@ import java.util.Set;
  * @author Jerome Leleu
  * @since 1.8.1
  */
-public class CheckProfileTypeAuthorizer extends AbstractRequireAnyAuthorizer<Class> {
+public class CheckProfileTypeAuthorizer extends AbstractRequireAnyAuthorizer<Class> implements ProfileOnlyAuthorizer {
 
     public CheckProfileTypeAuthorizer() { }
 
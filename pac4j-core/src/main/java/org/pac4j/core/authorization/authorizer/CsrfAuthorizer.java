@@ -44,8 +44,7 @@ public class CsrfAuthorizer implements Authorizer {
 
     @Override
     public boolean isAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles) {
-        final var checkRequest = checkAllRequests || isPost(context) || isPut(context) || isPatch(context) || isDelete(context);
-        if (checkRequest) {
+        if (shouldCheckRequest(context)) {
             final var parameterToken = context.getRequestParameter(parameterName).orElse(null);
             final var headerToken = context.getRequestHeader(headerName).orElse(null);
             LOGGER.debug("parameterToken: {}", parameterToken);
@@ -77,6 +76,10 @@ public class CsrfAuthorizer implements Authorizer {
         return true;
     }
 
+    protected boolean shouldCheckRequest(final WebContext context) {
+        return checkAllRequests || isPost(context) || isPut(context) || isPatch(context) || isDelete(context);
+    }
+
     protected boolean hashEquals(final String a, final String b) {
         if (a == null || b == null) {
             return false;
@@ -0,0 +1,66 @@
+package org.pac4j.core.authorization.authorizer;
+
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.matching.matcher.csrf.HmacCsrfTokenGenerator;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.util.CommonHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Authorizer that checks the stateless CSRF tokens generated by the {@link HmacCsrfTokenGenerator}:
+ * nothing is read from or written into the session.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public class HmacCsrfAuthorizer extends CsrfAuthorizer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HmacCsrfAuthorizer.class);
+
+    private HmacCsrfTokenGenerator csrfTokenGenerator;
+
+    public HmacCsrfAuthorizer() {}
+
+    public HmacCsrfAuthorizer(final HmacCsrfTokenGenerator csrfTokenGenerator) {
+        this.csrfTokenGenerator = csrfTokenGenerator;
+    }
+
+    public HmacCsrfAuthorizer(final HmacCsrfTokenGenerator csrfTokenGenerator, final String parameterName, final String headerName) {
+        super(parameterName, headerName);
+        this.csrfTokenGenerator = csrfTokenGenerator;
+    }
+
+    @Override
+    public boolean isAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles) {
+        CommonHelper.assertNotNull("csrfTokenGenerator", csrfTokenGenerator);
+        if (shouldCheckRequest(context)) {
+            final var parameterToken = context.getRequestParameter(getParameterName()).orElse(null);
+            final var headerToken = context.getRequestHeader(getHeaderName()).orElse(null);
+            LOGGER.debug("parameterToken: {}", parameterToken);
+            LOGGER.debug("headerToken: {}", headerToken);
+            // both tokens are always checked
+            final var isGoodParameterToken = csrfTokenGenerator.isValid(context, sessionStore, parameterToken);
+            final var isGoodHeaderToken = csrfTokenGenerator.isValid(context, sessionStore, headerToken);
+            return isGoodParameterToken | isGoodHeaderToken;
+        }
+        return true;
+    }
+
+    public HmacCsrfTokenGenerator getCsrfTokenGenerator() {
+        return csrfTokenGenerator;
+    }
+
+    public void setCsrfTokenGenerator(final HmacCsrfTokenGenerator csrfTokenGenerator) {
+        this.csrfTokenGenerator = csrfTokenGenerator;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "csrfTokenGenerator", csrfTokenGenerator, "parameterName", getParameterName(),
+            "headerName", getHeaderName(), "checkAllRequests", isCheckAllRequests());
+    }
+}
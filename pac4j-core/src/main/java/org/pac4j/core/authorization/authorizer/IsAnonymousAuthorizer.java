@@ -13,7 +13,7 @@ import java.util.List;
  * @author Jerome Leleu
  * @since 1.9.0
  */
-public class IsAnonymousAuthorizer extends AbstractCheckAuthenticationAuthorizer {
+public class IsAnonymousAuthorizer extends AbstractCheckAuthenticationAuthorizer implements ProfileOnlyAuthorizer {
 
     public IsAnonymousAuthorizer() {}
 
@@ -14,7 +14,7 @@ import java.util.List;
  * @author Jerome Leleu
  * @since 1.9.0
  */
-public class IsAuthenticatedAuthorizer extends AbstractCheckAuthenticationAuthorizer {
+public class IsAuthenticatedAuthorizer extends AbstractCheckAuthenticationAuthorizer implements ProfileOnlyAuthorizer {
 
     public IsAuthenticatedAuthorizer() {}
 
@@ -13,7 +13,7 @@ import java.util.List;
  * @author Jerome Leleu
  * @since 1.9.0
  */
-public class IsFullyAuthenticatedAuthorizer extends AbstractCheckAuthenticationAuthorizer {
+public class IsFullyAuthenticatedAuthorizer extends AbstractCheckAuthenticationAuthorizer implements ProfileOnlyAuthorizer {
 
     public IsFullyAuthenticatedAuthorizer() {}
 
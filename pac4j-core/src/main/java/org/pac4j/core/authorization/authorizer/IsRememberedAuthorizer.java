@@ -13,7 +13,7 @@ import java.util.List;
  * @author Jerome Leleu
  * @since 1.9.0
  */
-public class IsRememberedAuthorizer extends AbstractCheckAuthenticationAuthorizer {
+public class IsRememberedAuthorizer extends AbstractCheckAuthenticationAuthorizer implements ProfileOnlyAuthorizer {
 
     public IsRememberedAuthorizer() {}
 
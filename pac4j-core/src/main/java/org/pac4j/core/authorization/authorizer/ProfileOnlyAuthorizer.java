@@ -0,0 +1,14 @@
+package org.pac4j.core.authorization.authorizer;
+
+/**
+ * Marker interface for the authorizers whose decision only depends on the user profiles (and not on the web context
+ * or session): their decisions can be cached by the {@link org.pac4j.core.authorization.checker.AuthorizationDecisionCache}
+ * and shared across the web contexts of a batch authorization.
+ *
+ * All the other authorizers are evaluated for each web context.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public interface ProfileOnlyAuthorizer extends Authorizer {
+}
@@ -13,7 +13,7 @@ import java.util.Set;
  * @author Jerome Leleu
  * @since 1.8.0
  */
-public class RequireAllPermissionsAuthorizer extends AbstractRequireAllAuthorizer<String> {
+public class RequireAllPermissionsAuthorizer extends AbstractRequireAllAuthorizer<String> implements ProfileOnlyAuthorizer {
 
     public RequireAllPermissionsAuthorizer() { }
 
@@ -17,7 +17,7 @@ import java.util.Collection;
  * @author Misagh Moayyed
  * @since 1.9.2
  */
-public class RequireAnyAttributeAuthorizer extends AbstractRequireAnyAuthorizer<String> {
+public class RequireAnyAttributeAuthorizer extends AbstractRequireAnyAuthorizer<String> implements ProfileOnlyAuthorizer {
     private final String valueToMatch;
 
     public RequireAnyAttributeAuthorizer() {
@@ -13,7 +13,7 @@ import java.util.Set;
  * @author Jerome Leleu
  * @since 1.8.0
  */
-public class RequireAnyPermissionAuthorizer extends AbstractRequireAnyAuthorizer<String> {
+public class RequireAnyPermissionAuthorizer extends AbstractRequireAnyAuthorizer<String> implements ProfileOnlyAuthorizer {
 
     public RequireAnyPermissionAuthorizer() { }
 
@@ -6,6 +6,7 @@ import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.profile.UserProfile;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 
@@ -31,4 +32,26 @@ public interface AuthorizationChecker {
      */
     boolean isAuthorized(WebContext context, SessionStore sessionStore, List<UserProfile> profiles, String authorizerNames,
                          Map<String, Authorizer> authorizersMap, List<Client> clients);
+
+    /**
+     * Check whether the user is authorized for each of the given web contexts (for example the items of a result set).
+     *
+     * @param contexts the web contexts
+     * @param sessionStore the session store
+     * @param profiles the profile
+     * @param authorizerNames the authorizers
+     * @param authorizersMap the map of authorizers
+     * @param clients the clients
+     * @return the bitmap of the authorized web contexts
+     */
+    default BitSet areAuthorized(final List<WebContext> contexts, final SessionStore sessionStore, final List<UserProfile> profiles,
+                                final String authorizerNames, final Map<String, Authorizer> authorizersMap, final List<Client> clients) {
+        final var results = new BitSet(contexts.size());
+        for (var i = 0; i < contexts.size(); i++) {
+            if (isAuthorized(contexts.get(i), sessionStore, profiles, authorizerNames, authorizersMap, clients)) {
+                results.set(i);
+            }
+        }
+        return results;
+    }
 }
@@ -0,0 +1,261 @@
+package org.pac4j.core.authorization.checker;
+
+import org.pac4j.core.authorization.authorizer.Authorizer;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.store.GuavaStore;
+import org.pac4j.core.store.Store;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cache of the authorization decisions, keyed by the profile identifiers, a fingerprint of the profiles and the authorizer.
+ *
+ * When a profile is saved again with a different content, its fingerprint (a SHA-256 digest of its content) changes and
+ * the previous decisions are dropped. The decisions for several profiles are only valid as long as the entries of each
+ * profile are not invalidated.
+ * Only the decisions of the {@link org.pac4j.core.authorization.authorizer.ProfileOnlyAuthorizer} are cached.
+ *
+ * Add the <code>guava</code> dependency to use the default store.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public class AuthorizationDecisionCache extends InitializableObject {
+
+    private int cacheSize = 10000;
+
+    private int timeout = 5;
+
+    private TimeUnit timeUnit = TimeUnit.MINUTES;
+
+    private Store<String, Decisions> store;
+
+    public AuthorizationDecisionCache() {}
+
+    public AuthorizationDecisionCache(final int cacheSize, final int timeout, final TimeUnit timeUnit) {
+        this.cacheSize = cacheSize;
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+    }
+
+    public AuthorizationDecisionCache(final Store<String, Decisions> store) {
+        this.store = store;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        if (this.store == null) {
+            this.store = new GuavaStore<>(cacheSize, timeout, timeUnit);
+        }
+    }
+
+    /**
+     * Get the cached decision of an authorizer for the given profiles.
+     *
+     * @param profiles the user profiles
+     * @param authorizer the authorizer
+     * @return the cached decision (optional)
+     */
+    public Optional<Boolean> get(final List<UserProfile> profiles, final Authorizer authorizer) {
+        init();
+
+        final var decisions = store.get(computeKey(profiles));
+        if (decisions.isPresent() && decisions.get().getFingerprint().equals(computeFingerprint(profiles))
+            && (profiles.size() == 1 || computeGenerations(profiles, false).equals(decisions.get().getGenerations()))) {
+            return Optional.ofNullable(decisions.get().getResults().get(authorizer));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Cache the decision of an authorizer for the given profiles.
+     *
+     * @param profiles the user profiles
+     * @param authorizer the authorizer
+     * @param decision the decision
+     */
+    public void put(final List<UserProfile> profiles, final Authorizer authorizer, final boolean decision) {
+        init();
+
+        final var key = computeKey(profiles);
+        final List<String> generations = profiles.size() == 1 ? null : computeGenerations(profiles, true);
+        final var decisions = findDecisions(key, computeFingerprint(profiles), generations);
+        decisions.getResults().put(authorizer, decision);
+        // set after the update for the stores which do not keep references
+        store.set(key, decisions);
+    }
+
+    protected Decisions findDecisions(final String key, final String fingerprint, final List<String> generations) {
+        final var decisions = store.get(key).orElse(null);
+        if (decisions == null || !decisions.getFingerprint().equals(fingerprint)
+            || generations != null && !generations.equals(decisions.getGenerations())) {
+            return new Decisions(fingerprint, generations);
+        }
+        return decisions;
+    }
+
+    /**
+     * The generations of the entries of each profile: they change when a profile is invalidated.
+     *
+     * @param profiles the user profiles
+     * @param create whether the missing entries must be created
+     * @return the generations (<code>null</code> for a missing entry)
+     */
+    protected List<String> computeGenerations(final List<UserProfile> profiles, final boolean create) {
+        final List<String> generations = new ArrayList<>(profiles.size());
+        for (final var profile : profiles) {
+            final var key = profile.getTypedId();
+            final var fingerprint = computeFingerprint(List.of(profile));
+            var decisions = store.get(key).orElse(null);
+            if (create && (decisions == null || !decisions.getFingerprint().equals(fingerprint))) {
+                decisions = new Decisions(fingerprint, null);
+                store.set(key, decisions);
+            }
+            generations.add(decisions != null ? decisions.getGeneration() : null);
+        }
+        return generations;
+    }
+
+    /**
+     * Remove all the cached decisions of a profile (including the ones with other profiles).
+     *
+     * @param profile the user profile
+     */
+    public void invalidate(final UserProfile profile) {
+        init();
+
+        store.remove(profile.getTypedId());
+    }
+
+    protected String computeKey(final List<UserProfile> profiles) {
+        if (profiles.size() == 1) {
+            return profiles.get(0).getTypedId();
+        }
+        final var sb = new StringBuilder();
+        for (final var profile : profiles) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(profile.getTypedId());
+        }
+        return sb.toString();
+    }
+
+    protected String computeFingerprint(final List<UserProfile> profiles) {
+        final var sb = new StringBuilder();
+        for (final var profile : profiles) {
+            sb.append(computeFingerprintContent(profile)).append('\n');
+        }
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    /**
+     * Compute the content of a profile to fingerprint: override it to rely on a version attribute for example.
+     *
+     * @param profile the user profile
+     * @return the content to fingerprint
+     */
+    protected String computeFingerprintContent(final UserProfile profile) {
+        return String.valueOf(List.of(profile.getClass().getName(), String.valueOf(profile.getClientName()),
+            String.valueOf(profile.getLinkedId()), profile.isRemembered(), new TreeSet<>(profile.getRoles()),
+            new TreeSet<>(profile.getPermissions()), new TreeMap<>(profile.getAttributes())));
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(final int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(final int timeout) {
+        this.timeout = timeout;
+    }
+
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+
+    public void setTimeUnit(final TimeUnit timeUnit) {
+        this.timeUnit = timeUnit;
+    }
+
+    public Store<String, Decisions> getStore() {
+        return store;
+    }
+
+    public void setStore(final Store<String, Decisions> store) {
+        this.store = store;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "cacheSize", cacheSize, "timeout", timeout, "timeUnit", timeUnit,
+            "store", store);
+    }
+
+    /**
+     * The cached decisions for a given fingerprint of the profiles.
+     */
+    public static class Decisions {
+
+        private final String fingerprint;
+
+        private final String generation;
+
+        private final List<String> generations;
+
+        private final Map<Authorizer, Boolean> results = new ConcurrentHashMap<>();
+
+        public Decisions(final String fingerprint, final List<String> generations) {
+            this(fingerprint, UUID.randomUUID().toString(), generations);
+        }
+
+        public Decisions(final String fingerprint, final String generation, final List<String> generations) {
+            this.fingerprint = fingerprint;
+            this.generation = generation;
+            this.generations = generations;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public String getGeneration() {
+            return generation;
+        }
+
+        public List<String> getGenerations() {
+            return generations;
+        }
+
+        public Map<Authorizer, Boolean> getResults() {
+            return results;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package org.pac4j.core.authorization.checker;
+
+import org.pac4j.core.authorization.authorizer.AbstractCheckAuthenticationAuthorizer;
+import org.pac4j.core.authorization.authorizer.Authorizer;
+import org.pac4j.core.authorization.authorizer.DefaultAuthorizers;
+import org.pac4j.core.authorization.authorizer.ProfileOnlyAuthorizer;
+import org.pac4j.core.exception.TechnicalException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Compiles a boolean expression of authorizer names into a {@link CompiledAuthorizerExpression}.
+ *
+ * The syntax supports the <code>!</code> (not), <code>&amp;</code> or <code>,</code> (and), <code>|</code> (or) operators
+ * and parentheses, like: <code>isAuthenticated &amp; (admin | (editor &amp; !readonly))</code>.
+ *
+ * The operands of a conjunction or a disjunction are reordered to evaluate the cheapest ones first, only if they can all
+ * be reordered (see {@link #canReorder(Authorizer)}): otherwise, the authorizer raising an HTTP action could change.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public class AuthorizerExpressionCompiler {
+
+    private static final String BUILTIN_PACKAGE = "org.pac4j.";
+
+    /**
+     * Whether the authorizers value is an expression (and not a simple list of authorizer names).
+     *
+     * @param value the authorizers value
+     * @return whether it is an expression
+     */
+    public static boolean isExpression(final String value) {
+        for (var i = 0; i < value.length(); i++) {
+            final var c = value.charAt(i);
+            if (c == '&' || c == '|' || c == '!' || c == '(') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compile the expression.
+     *
+     * @param expression the expression
+     * @param authorizerResolver how to find an authorizer by its name
+     * @return the compiled expression
+     */
+    public CompiledAuthorizerExpression compile(final String expression, final Function<String, Authorizer> authorizerResolver) {
+        final var parser = new Parser(expression, authorizerResolver);
+        final var root = parser.parseOr();
+        parser.skipSpaces();
+        if (parser.pos < expression.length()) {
+            throw new TechnicalException("Unexpected character at position " + parser.pos + " in authorizers expression: "
+                + expression);
+        }
+        reorder(root);
+
+        final var emitter = new Emitter();
+        emitter.emit(root);
+        return new CompiledAuthorizerExpression(expression, emitter.toOpcodes(), emitter.toOperands(),
+            emitter.authorizers.toArray(new Authorizer[0]));
+    }
+
+    /**
+     * Estimate the cost of evaluating an authorizer: the pac4j authorizers are considered cheap in-memory checks.
+     *
+     * @param authorizer the authorizer
+     * @return the estimated cost
+     */
+    protected int computeCost(final Authorizer authorizer) {
+        if (authorizer.getClass().getName().startsWith(BUILTIN_PACKAGE)) {
+            return 1;
+        }
+        return 10;
+    }
+
+    /**
+     * Whether an authorizer can be evaluated in any order: only the {@link ProfileOnlyAuthorizer} which cannot raise
+     * an HTTP action (the {@link AbstractCheckAuthenticationAuthorizer} may redirect).
+     *
+     * @param authorizer the authorizer
+     * @return whether it can be reordered
+     */
+    protected boolean canReorder(final Authorizer authorizer) {
+        return authorizer instanceof ProfileOnlyAuthorizer && !(authorizer instanceof AbstractCheckAuthenticationAuthorizer);
+    }
+
+    private void reorder(final Node node) {
+        for (final var child : node.children) {
+            reorder(child);
+        }
+        if (node.type == NodeType.LEAF) {
+            node.cost = node.authorizer == null ? 0 : computeCost(node.authorizer);
+            node.fixedOrder = node.authorizer != null && !canReorder(node.authorizer);
+        } else {
+            for (final var child : node.children) {
+                node.cost += child.cost;
+                node.fixedOrder |= child.fixedOrder;
+            }
+            if (node.type != NodeType.NOT && !node.fixedOrder) {
+                // stable sort: same cost operands keep their declaration order
+                node.children.sort(Comparator.comparingInt(n -> n.cost));
+            }
+        }
+    }
+
+    private enum NodeType { LEAF, NOT, AND, OR }
+
+    private static final class Node {
+
+        private final NodeType type;
+
+        private final List<Node> children = new ArrayList<>();
+
+        private Authorizer authorizer;
+
+        private int cost;
+
+        private boolean fixedOrder;
+
+        private Node(final NodeType type) {
+            this.type = type;
+        }
+    }
+
+    private static final class Parser {
+
+        private final String expression;
+
+        private final Function<String, Authorizer> authorizerResolver;
+
+        private int pos;
+
+        private Parser(final String expression, final Function<String, Authorizer> authorizerResolver) {
+            this.expression = expression;
+            this.authorizerResolver = authorizerResolver;
+        }
+
+        private Node parseOr() {
+            return parseNary(NodeType.OR);
+        }
+
+        private Node parseNary(final NodeType type) {
+            final var first = type == NodeType.OR ? parseNary(NodeType.AND) : parseUnary();
+            Node node = null;
+            while (nextIsOperator(type)) {
+                pos++;
+                if (node == null) {
+                    node = new Node(type);
+                    addFlattened(node, first);
+                }
+                addFlattened(node, type == NodeType.OR ? parseNary(NodeType.AND) : parseUnary());
+            }
+            return node != null ? node : first;
+        }
+
+        private void addFlattened(final Node node, final Node child) {
+            if (child.type == node.type) {
+                node.children.addAll(child.children);
+            } else {
+                node.children.add(child);
+            }
+        }
+
+        private boolean nextIsOperator(final NodeType type) {
+            skipSpaces();
+            if (pos >= expression.length()) {
+                return false;
+            }
+            final var c = expression.charAt(pos);
+            return type == NodeType.OR ? c == '|' : c == '&' || c == ',';
+        }
+
+        private Node parseUnary() {
+            skipSpaces();
+            if (pos < expression.length() && expression.charAt(pos) == '!') {
+                pos++;
+                final var node = new Node(NodeType.NOT);
+                node.children.add(parseUnary());
+                return node;
+            }
+            return parsePrimary();
+        }
+
+        private Node parsePrimary() {
+            skipSpaces();
+            if (pos < expression.length() && expression.charAt(pos) == '(') {
+                pos++;
+                final var node = parseOr();
+                skipSpaces();
+                if (pos >= expression.length() || expression.charAt(pos) != ')') {
+                    throw new TechnicalException("Missing closing parenthesis in authorizers expression: " + expression);
+                }
+                pos++;
+                return node;
+            }
+            final var start = pos;
+            while (pos < expression.length() && "&|!(), \t".indexOf(expression.charAt(pos)) < 0) {
+                pos++;
+            }
+            if (start == pos) {
+                throw new TechnicalException("Missing authorizer name at position " + pos + " in authorizers expression: "
+                    + expression);
+            }
+            final var name = expression.substring(start, pos);
+            final var node = new Node(NodeType.LEAF);
+            if (!DefaultAuthorizers.NONE.equalsIgnoreCase(name)) {
+                node.authorizer = authorizerResolver.apply(name);
+                if (node.authorizer == null) {
+                    throw new TechnicalException("The authorizer '" + name + "' must be defined in the security configuration");
+                }
+            }
+            return node;
+        }
+
+        private void skipSpaces() {
+            while (pos < expression.length() && Character.isWhitespace(expression.charAt(pos))) {
+                pos++;
+            }
+        }
+    }
+
+    private static final class Emitter {
+
+        private final List<Integer> opcodes = new ArrayList<>();
+
+        private final List<Integer> operands = new ArrayList<>();
+
+        private final List<Authorizer> authorizers = new ArrayList<>();
+
+        private void emit(final Node node) {
+            switch (node.type) {
+                case LEAF:
+                    if (node.authorizer == null) {
+                        add(CompiledAuthorizerExpression.TRUE, 0);
+                    } else {
+                        var index = authorizers.indexOf(node.authorizer);
+                        if (index < 0) {
+                            index = authorizers.size();
+                            authorizers.add(node.authorizer);
+                        }
+                        add(CompiledAuthorizerExpression.EVAL, index);
+                    }
+                    break;
+                case NOT:
+                    emit(node.children.get(0));
+                    add(CompiledAuthorizerExpression.NOT, 0);
+                    break;
+                default:
+                    final var jump = node.type == NodeType.AND
+                        ? CompiledAuthorizerExpression.JUMP_IF_FALSE : CompiledAuthorizerExpression.JUMP_IF_TRUE;
+                    final List<Integer> jumps = new ArrayList<>();
+                    final var nb = node.children.size();
+                    for (var i = 0; i < nb; i++) {
+                        emit(node.children.get(i));
+                        if (i < nb - 1) {
+                            jumps.add(opcodes.size());
+                            add(jump, -1);
+                        }
+                    }
+                    // short-circuit: jump after the last operand, the register already holds the result
+                    for (final int position : jumps) {
+                        operands.set(position, opcodes.size());
+                    }
+                    break;
+            }
+        }
+
+        private void add(final int opcode, final int operand) {
+            opcodes.add(opcode);
+            operands.add(operand);
+        }
+
+        private int[] toOpcodes() {
+            return opcodes.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private int[] toOperands() {
+            return operands.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
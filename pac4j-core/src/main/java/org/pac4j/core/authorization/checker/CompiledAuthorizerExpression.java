@@ -0,0 +1,105 @@
+package org.pac4j.core.authorization.checker;
+
+import org.pac4j.core.authorization.authorizer.Authorizer;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A boolean expression of authorizers compiled into a flat program with short-circuit jumps.
+ *
+ * The program works on a single boolean register: each instruction evaluates an authorizer, negates the register
+ * or jumps to a target instruction depending on the register value.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public class CompiledAuthorizerExpression implements Authorizer {
+
+    static final int EVAL = 0;
+
+    static final int NOT = 1;
+
+    static final int JUMP_IF_FALSE = 2;
+
+    static final int JUMP_IF_TRUE = 3;
+
+    static final int TRUE = 4;
+
+    private final String expression;
+
+    private final int[] opcodes;
+
+    private final int[] operands;
+
+    private final Authorizer[] authorizers;
+
+    CompiledAuthorizerExpression(final String expression, final int[] opcodes, final int[] operands,
+                                 final Authorizer[] authorizers) {
+        this.expression = expression;
+        this.opcodes = opcodes;
+        this.operands = operands;
+        this.authorizers = authorizers;
+    }
+
+    @Override
+    public boolean isAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles) {
+        return evaluate(authorizer -> authorizer.isAuthorized(context, sessionStore, profiles));
+    }
+
+    /**
+     * Run the program.
+     *
+     * @param authorizerEvaluator how to evaluate a single authorizer
+     * @return the value of the expression
+     */
+    public boolean evaluate(final Predicate<Authorizer> authorizerEvaluator) {
+        var register = true;
+        var pc = 0;
+        final var length = opcodes.length;
+        while (pc < length) {
+            switch (opcodes[pc]) {
+                case EVAL:
+                    register = authorizerEvaluator.test(authorizers[operands[pc]]);
+                    pc++;
+                    break;
+                case NOT:
+                    register = !register;
+                    pc++;
+                    break;
+                case JUMP_IF_FALSE:
+                    pc = register ? pc + 1 : operands[pc];
+                    break;
+                case JUMP_IF_TRUE:
+                    pc = register ? operands[pc] : pc + 1;
+                    break;
+                default:
+                    register = true;
+                    pc++;
+                    break;
+            }
+        }
+        return register;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    int[] getOpcodes() {
+        return opcodes;
+    }
+
+    Authorizer[] getAuthorizers() {
+        return authorizers;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "expression", expression);
+    }
+}
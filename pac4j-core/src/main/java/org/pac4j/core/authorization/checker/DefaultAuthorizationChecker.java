@@ -31,6 +31,30 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
     protected static final IsFullyAuthenticatedAuthorizer IS_FULLY_AUTHENTICATED_AUTHORIZER = new IsFullyAuthenticatedAuthorizer();
     protected static final IsRememberedAuthorizer IS_REMEMBERED_AUTHORIZER = new IsRememberedAuthorizer();
 
+    private AuthorizationDecisionCache decisionCache;
+
+    private AuthorizerExpressionCompiler expressionCompiler = new AuthorizerExpressionCompiler();
+
+    /* max number of compiled expressions, the least recently used ones are dropped */
+    private static final int MAX_COMPILED_EXPRESSIONS = 1000;
+
+    /* compiled expressions by expression, in access order */
+    private final Map<String, CompiledEntry> compiledExpressions = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CompiledEntry> eldest) {
+                return size() > MAX_COMPILED_EXPRESSIONS;
+            }
+        });
+
+    public DefaultAuthorizationChecker() {}
+
+    public DefaultAuthorizationChecker(final AuthorizationDecisionCache decisionCache) {
+        this.decisionCache = decisionCache;
+    }
+
     @Override
     public boolean isAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles,
                                 final String authorizersValue, final Map<String, Authorizer> authorizersMap, final List<Client> clients) {
@@ -39,6 +63,65 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
         return isAuthorized(context, sessionStore, profiles, authorizers);
     }
 
+    @Override
+    public BitSet areAuthorized(final List<WebContext> contexts, final SessionStore sessionStore, final List<UserProfile> profiles,
+                               final String authorizersValue, final Map<String, Authorizer> authorizersMap, final List<Client> clients) {
+        final var results = new BitSet(contexts.size());
+        if (contexts.isEmpty()) {
+            return results;
+        }
+        assertTrue(isNotEmpty(profiles), "profiles must not be null or empty");
+        final List<List<Authorizer>> authorizersByContext = new ArrayList<>(contexts.size());
+        for (final var context : contexts) {
+            authorizersByContext.add(computeAuthorizers(context, profiles, authorizersValue, authorizersMap, clients));
+        }
+        results.set(0, contexts.size());
+        // the decisions of the profile only authorizers are shared across the web contexts
+        final Map<Authorizer, Boolean> profileDecisions = new IdentityHashMap<>();
+        if (haveSameAuthorizers(authorizersByContext)) {
+            for (final var authorizer : authorizersByContext.get(0)) {
+                if (results.isEmpty()) {
+                    break;
+                }
+                if (authorizer instanceof BatchAuthorizer) {
+                    ((BatchAuthorizer) authorizer).filterAuthorized(contexts, sessionStore, profiles, results);
+                } else {
+                    for (var i = results.nextSetBit(0); i >= 0; i = results.nextSetBit(i + 1)) {
+                        if (!checkAuthorizer(contexts.get(i), sessionStore, profiles, authorizer, profileDecisions)) {
+                            results.clear(i);
+                        }
+                    }
+                }
+                LOGGER.debug("Checking authorizer: {} -> {} authorized", authorizer, results.cardinality());
+            }
+        } else {
+            for (var i = 0; i < contexts.size(); i++) {
+                for (final var authorizer : authorizersByContext.get(i)) {
+                    if (!checkAuthorizer(contexts.get(i), sessionStore, profiles, authorizer, profileDecisions)) {
+                        results.clear(i);
+                        break;
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    protected boolean haveSameAuthorizers(final List<List<Authorizer>> authorizersByContext) {
+        final var first = authorizersByContext.get(0);
+        for (final var authorizers : authorizersByContext) {
+            if (authorizers.size() != first.size()) {
+                return false;
+            }
+            for (var i = 0; i < first.size(); i++) {
+                if (authorizers.get(i) != first.get(i)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     protected List<Authorizer> computeAuthorizers(final WebContext context, final List<UserProfile> profiles, final String authorizersValue,
                                                   final Map<String, Authorizer> authorizersMap, final List<Client> clients) {
         final List<Authorizer> authorizers;
@@ -71,6 +154,10 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
     protected List<Authorizer> computeAuthorizersFromNames(final String authorizerNames, final Map<String, Authorizer> authorizersMap) {
         assertNotNull("authorizersMap", authorizersMap);
         final List<Authorizer> authorizers = new ArrayList<>();
+        if (AuthorizerExpressionCompiler.isExpression(authorizerNames)) {
+            authorizers.add(compileExpression(authorizerNames.trim(), authorizersMap));
+            return authorizers;
+        }
         final var names = authorizerNames.split(Pac4jConstants.ELEMENT_SEPARATOR);
         final var nb = names.length;
         for (var i = 0; i < nb; i++) {
@@ -85,6 +172,22 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
         return authorizers;
     }
 
+    protected CompiledAuthorizerExpression compileExpression(final String expression, final Map<String, Authorizer> authorizersMap) {
+        // the compiled expression is only reused while its names still resolve to the same authorizers
+        final var entry = compiledExpressions.get(expression);
+        if (entry != null && entry.isResolvedFrom(authorizersMap)) {
+            return entry.compiled;
+        }
+        final Map<String, Authorizer> resolved = new LinkedHashMap<>();
+        final var compiled = expressionCompiler.compile(expression, name -> {
+            final var authorizer = retrieveAuthorizer(name, authorizersMap);
+            resolved.put(name, authorizer);
+            return authorizer;
+        });
+        compiledExpressions.put(expression, new CompiledEntry(compiled, resolved));
+        return compiled;
+    }
+
     protected Authorizer retrieveAuthorizer(final String authorizerName, final Map<String, Authorizer> authorizersMap) {
         Authorizer authorizer = null;
         for (final var entry : authorizersMap.entrySet()) {
@@ -125,7 +228,7 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
         if (isNotEmpty(authorizers)) {
             // check authorizations using authorizers: all must be satisfied
             for (var authorizer : authorizers) {
-                final var isAuthorized = authorizer.isAuthorized(context, sessionStore, profiles);
+                final var isAuthorized = checkAuthorizer(context, sessionStore, profiles, authorizer);
                 LOGGER.debug("Checking authorizer: {} -> {}", authorizer, isAuthorized);
                 if (!isAuthorized) {
                     return false;
@@ -134,4 +237,81 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
         }
         return true;
     }
+
+    protected boolean checkAuthorizer(final WebContext context, final SessionStore sessionStore,
+                                      final List<UserProfile> profiles, final Authorizer authorizer) {
+        if (authorizer instanceof CompiledAuthorizerExpression) {
+            return ((CompiledAuthorizerExpression) authorizer).evaluate(a -> checkAuthorizer(context, sessionStore, profiles, a));
+        }
+        if (decisionCache == null || !(authorizer instanceof ProfileOnlyAuthorizer)) {
+            return authorizer.isAuthorized(context, sessionStore, profiles);
+        }
+        final var cachedDecision = decisionCache.get(profiles, authorizer);
+        if (cachedDecision.isPresent()) {
+            LOGGER.debug("Cached decision for authorizer: {}", authorizer);
+            return cachedDecision.get();
+        }
+        final var isAuthorized = authorizer.isAuthorized(context, sessionStore, profiles);
+        decisionCache.put(profiles, authorizer, isAuthorized);
+        return isAuthorized;
+    }
+
+    protected boolean checkAuthorizer(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles,
+                                      final Authorizer authorizer, final Map<Authorizer, Boolean> profileDecisions) {
+        if (authorizer instanceof CompiledAuthorizerExpression) {
+            return ((CompiledAuthorizerExpression) authorizer)
+                .evaluate(a -> checkAuthorizer(context, sessionStore, profiles, a, profileDecisions));
+        }
+        if (!(authorizer instanceof ProfileOnlyAuthorizer)) {
+            return checkAuthorizer(context, sessionStore, profiles, authorizer);
+        }
+        // the authorizers which only depend on the user profiles are evaluated once per batch
+        var decision = profileDecisions.get(authorizer);
+        if (decision == null) {
+            decision = checkAuthorizer(context, sessionStore, profiles, authorizer);
+            profileDecisions.put(authorizer, decision);
+        }
+        return decision;
+    }
+
+    public AuthorizationDecisionCache getDecisionCache() {
+        return decisionCache;
+    }
+
+    public void setDecisionCache(final AuthorizationDecisionCache decisionCache) {
+        this.decisionCache = decisionCache;
+    }
+
+    public AuthorizerExpressionCompiler getExpressionCompiler() {
+        return expressionCompiler;
+    }
+
+    public void setExpressionCompiler(final AuthorizerExpressionCompiler expressionCompiler) {
+        this.expressionCompiler = expressionCompiler;
+        this.compiledExpressions.clear();
+    }
+
+    /**
+     * A compiled expression and the authorizers its names were resolved to.
+     */
+    private final class CompiledEntry {
+
+        private final CompiledAuthorizerExpression compiled;
+
+        private final Map<String, Authorizer> resolved;
+
+        private CompiledEntry(final CompiledAuthorizerExpression compiled, final Map<String, Authorizer> resolved) {
+            this.compiled = compiled;
+            this.resolved = resolved;
+        }
+
+        private boolean isResolvedFrom(final Map<String, Authorizer> authorizersMap) {
+            for (final var entry : resolved.entrySet()) {
+                if (retrieveAuthorizer(entry.getKey(), authorizersMap) != entry.getValue()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
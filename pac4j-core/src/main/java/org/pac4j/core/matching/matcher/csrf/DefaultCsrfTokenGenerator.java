@@ -3,6 +3,8 @@ package org.pac4j.core.matching.matcher.csrf;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.generator.SecureRandomTokenGenerator;
+import org.pac4j.core.util.generator.TokenGenerator;
 import org.pac4j.core.context.WebContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,9 +24,11 @@ public class DefaultCsrfTokenGenerator implements CsrfTokenGenerator {
     // 4 hours
     private int ttlInSeconds = 4*60*60;
 
+    private TokenGenerator tokenGenerator = SecureRandomTokenGenerator.INSTANCE;
+
     @Override
     public String get(final WebContext context, final SessionStore sessionStore) {
-        final var token = CommonHelper.randomString(32);
+        final var token = tokenGenerator.generate(32);
         LOGGER.debug("generated CSRF token: {} for current URL: {}", token, context.getFullRequestURL());
         final var expirationDate = new Date().getTime() + ttlInSeconds * 1000;
 
@@ -48,4 +52,13 @@ public class DefaultCsrfTokenGenerator implements CsrfTokenGenerator {
     public void setTtlInSeconds(final int ttlInSeconds) {
         this.ttlInSeconds = ttlInSeconds;
     }
+
+    public TokenGenerator getTokenGenerator() {
+        return tokenGenerator;
+    }
+
+    public void setTokenGenerator(final TokenGenerator tokenGenerator) {
+        CommonHelper.assertNotNull("tokenGenerator", tokenGenerator);
+        this.tokenGenerator = tokenGenerator;
+    }
 }
@@ -0,0 +1,166 @@
+package org.pac4j.core.matching.matcher.csrf;
+
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.generator.SecureRandomTokenGenerator;
+import org.pac4j.core.util.generator.TokenGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Stateless CSRF token generator: the token is signed with an HMAC bound to the session identifier
+ * and holds its own expiration date, so nothing is written in the session (to be used with the {@link
+ * org.pac4j.core.authorization.authorizer.HmacCsrfAuthorizer}).
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public class HmacCsrfTokenGenerator extends InitializableObject implements CsrfTokenGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HmacCsrfTokenGenerator.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final int EXPIRATION_SIZE = 8;
+
+    private static final int NONCE_SIZE = 16;
+
+    private static final int MAC_SIZE = 32;
+
+    private static final int TOKEN_SIZE = EXPIRATION_SIZE + NONCE_SIZE + MAC_SIZE;
+
+    private String secret;
+
+    // 4 hours
+    private int ttlInSeconds = 4*60*60;
+
+    private TokenGenerator tokenGenerator = SecureRandomTokenGenerator.INSTANCE;
+
+    private ThreadLocal<Mac> macs;
+
+    public HmacCsrfTokenGenerator() {}
+
+    public HmacCsrfTokenGenerator(final String secret) {
+        this.secret = secret;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotBlank("secret", secret);
+        CommonHelper.assertTrue(secret.length() >= MAC_SIZE, "secret must be at least " + MAC_SIZE + " characters long");
+
+        final var key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        macs = ThreadLocal.withInitial(() -> {
+            try {
+                final var mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (final GeneralSecurityException e) {
+                throw new TechnicalException(e);
+            }
+        });
+    }
+
+    @Override
+    public String get(final WebContext context, final SessionStore sessionStore) {
+        init();
+
+        final var sessionId = sessionStore.getSessionId(context, true).orElse(Pac4jConstants.EMPTY_STRING);
+        final var expirationDate = new Date().getTime() + ttlInSeconds * 1000L;
+        final var nonce = new byte[NONCE_SIZE];
+        tokenGenerator.nextBytes(nonce);
+
+        final var buffer = ByteBuffer.allocate(TOKEN_SIZE);
+        buffer.putLong(expirationDate);
+        buffer.put(nonce);
+        buffer.put(computeMac(sessionId, buffer.array(), EXPIRATION_SIZE + NONCE_SIZE));
+        final var token = Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+        LOGGER.debug("generated CSRF token: {} for current URL: {}", token, context.getFullRequestURL());
+        return token;
+    }
+
+    /**
+     * Check the token: signed for the current session and not expired.
+     *
+     * @param context the current web context
+     * @param sessionStore the session store
+     * @param token the CSRF token
+     * @return whether the token is valid
+     */
+    public boolean isValid(final WebContext context, final SessionStore sessionStore, final String token) {
+        init();
+
+        if (token == null) {
+            return false;
+        }
+        final byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (final IllegalArgumentException e) {
+            LOGGER.debug("Cannot decode CSRF token: {}", token);
+            return false;
+        }
+        if (bytes.length != TOKEN_SIZE) {
+            return false;
+        }
+        final var sessionId = sessionStore.getSessionId(context, false);
+        // all checks are always performed and the signatures are compared in constant time
+        final var expected = computeMac(sessionId.orElse(Pac4jConstants.EMPTY_STRING), bytes, EXPIRATION_SIZE + NONCE_SIZE);
+        final var actual = new byte[MAC_SIZE];
+        System.arraycopy(bytes, EXPIRATION_SIZE + NONCE_SIZE, actual, 0, MAC_SIZE);
+        final var isGoodSignature = MessageDigest.isEqual(expected, actual);
+        final var isDateExpired = ByteBuffer.wrap(bytes).getLong() < new Date().getTime();
+        return sessionId.isPresent() & isGoodSignature & !isDateExpired;
+    }
+
+    protected byte[] computeMac(final String sessionId, final byte[] payload, final int length) {
+        final var mac = macs.get();
+        mac.update(sessionId.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        mac.update(payload, 0, length);
+        return mac.doFinal();
+    }
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(final String secret) {
+        this.secret = secret;
+    }
+
+    public int getTtlInSeconds() {
+        return ttlInSeconds;
+    }
+
+    public void setTtlInSeconds(final int ttlInSeconds) {
+        this.ttlInSeconds = ttlInSeconds;
+    }
+
+    public TokenGenerator getTokenGenerator() {
+        return tokenGenerator;
+    }
+
+    public void setTokenGenerator(final TokenGenerator tokenGenerator) {
+        CommonHelper.assertNotNull("tokenGenerator", tokenGenerator);
+        this.tokenGenerator = tokenGenerator;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "secret", "[protected]", "ttlInSeconds", ttlInSeconds);
+    }
+}
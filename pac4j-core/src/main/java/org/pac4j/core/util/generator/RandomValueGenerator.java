@@ -14,6 +14,8 @@ public class RandomValueGenerator implements ValueGenerator {
 
     private int size;
 
+    private TokenGenerator tokenGenerator = SecureRandomTokenGenerator.INSTANCE;
+
     public RandomValueGenerator() {
         setSize(10);
     }
@@ -24,7 +26,7 @@ public class RandomValueGenerator implements ValueGenerator {
 
     @Override
     public String generateValue(final WebContext webContext, final SessionStore sessionStore) {
-        return CommonHelper.randomString(size);
+        return tokenGenerator.generate(size);
     }
 
     public int getSize() {
@@ -35,4 +37,13 @@ public class RandomValueGenerator implements ValueGenerator {
         CommonHelper.assertTrue(size > 0, "size must be greater than 0");
         this.size = size;
     }
+
+    public TokenGenerator getTokenGenerator() {
+        return tokenGenerator;
+    }
+
+    public void setTokenGenerator(final TokenGenerator tokenGenerator) {
+        CommonHelper.assertNotNull("tokenGenerator", tokenGenerator);
+        this.tokenGenerator = tokenGenerator;
+    }
 }
@@ -0,0 +1,88 @@
+package org.pac4j.core.util.generator;
+
+import org.pac4j.core.util.CommonHelper;
+
+import java.security.SecureRandom;
+
+/**
+ * Token generator based on a {@link SecureRandom} per thread whose bytes are pre-fetched in a buffer,
+ * to avoid the contention on a shared {@link SecureRandom} (like with {@link java.util.UUID#randomUUID()}).
+ *
+ * Each character of a token is directly encoded from one random byte (6 bits) in the base64url alphabet.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public class SecureRandomTokenGenerator implements TokenGenerator {
+
+    public static final SecureRandomTokenGenerator INSTANCE = new SecureRandomTokenGenerator();
+
+    private static final char[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    private final int bufferSize;
+
+    private final ThreadLocal<RandomBuffer> buffers;
+
+    public SecureRandomTokenGenerator() {
+        this(512);
+    }
+
+    public SecureRandomTokenGenerator(final int bufferSize) {
+        CommonHelper.assertTrue(bufferSize > 0, "bufferSize must be greater than 0");
+        this.bufferSize = bufferSize;
+        this.buffers = ThreadLocal.withInitial(() -> new RandomBuffer(bufferSize));
+    }
+
+    @Override
+    public String generate(final int length) {
+        final var chars = new char[length];
+        final var buffer = buffers.get();
+        for (var i = 0; i < length; i++) {
+            // 256 is a multiple of 64: no bias
+            chars[i] = ALPHABET[buffer.nextByte() & 0x3F];
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public void nextBytes(final byte[] bytes) {
+        final var buffer = buffers.get();
+        for (var i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.nextByte();
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "bufferSize", bufferSize);
+    }
+
+    private static final class RandomBuffer {
+
+        private final SecureRandom random = new SecureRandom();
+
+        private final byte[] bytes;
+
+        private int position;
+
+        private RandomBuffer(final int size) {
+            this.bytes = new byte[size];
+            this.position = size;
+        }
+
+        private byte nextByte() {
+            if (position == bytes.length) {
+                random.nextBytes(bytes);
+                position = 0;
+            }
+            final var b = bytes[position];
+            // the consumed bytes are not kept in memory
+            bytes[position++] = 0;
+            return b;
+        }
+    }
+}
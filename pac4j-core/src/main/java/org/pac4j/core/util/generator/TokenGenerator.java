@@ -0,0 +1,25 @@
+package org.pac4j.core.util.generator;
+
+/**
+ * Generator of secure random tokens (for states, nonces, CSRF tokens, identifiers...).
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public interface TokenGenerator {
+
+    /**
+     * Generate a random token made of URL-safe characters (base64url alphabet).
+     *
+     * @param length the length of the token
+     * @return the token
+     */
+    String generate(int length);
+
+    /**
+     * Fill the array with random bytes.
+     *
+     * @param bytes the bytes to fill
+     */
+    void nextBytes(byte[] bytes);
+}
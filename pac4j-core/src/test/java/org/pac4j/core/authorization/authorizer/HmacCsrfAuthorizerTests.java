@@ -0,0 +1,56 @@
+package org.pac4j.core.authorization.authorizer;
+
+import org.junit.Test;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.matching.matcher.csrf.HmacCsrfTokenGenerator;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.HashMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link HmacCsrfAuthorizer}.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class HmacCsrfAuthorizerTests implements TestsConstants {
+
+    private final HmacCsrfTokenGenerator generator = new HmacCsrfTokenGenerator("12345678901234567890123456789012");
+
+    private final HmacCsrfAuthorizer authorizer = new HmacCsrfAuthorizer(generator);
+
+    @Test
+    public void testParameterOk() {
+        final var attributes = new HashMap<String, Object>();
+        final var sessionStore = new MockSessionStore(attributes);
+        final var token = generator.get(MockWebContext.create(), sessionStore);
+        final var context = MockWebContext.create().setRequestMethod("POST").addRequestParameter(Pac4jConstants.CSRF_TOKEN, token);
+        assertTrue(authorizer.isAuthorized(context, sessionStore, null));
+        assertTrue(attributes.isEmpty());
+    }
+
+    @Test
+    public void testHeaderOk() {
+        final var sessionStore = new MockSessionStore();
+        final var token = generator.get(MockWebContext.create(), sessionStore);
+        final var context = MockWebContext.create().setRequestMethod("POST").addRequestHeader(Pac4jConstants.CSRF_TOKEN, token);
+        assertTrue(authorizer.isAuthorized(context, sessionStore, null));
+    }
+
+    @Test
+    public void testBadToken() {
+        final var sessionStore = new MockSessionStore();
+        generator.get(MockWebContext.create(), sessionStore);
+        final var context = MockWebContext.create().setRequestMethod("POST").addRequestParameter(Pac4jConstants.CSRF_TOKEN, VALUE);
+        assertFalse(authorizer.isAuthorized(context, sessionStore, null));
+    }
+
+    @Test
+    public void testGetRequestNotChecked() {
+        assertTrue(authorizer.isAuthorized(MockWebContext.create(), new MockSessionStore(), null));
+    }
+}
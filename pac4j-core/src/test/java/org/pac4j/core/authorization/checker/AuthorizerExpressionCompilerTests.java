@@ -0,0 +1,148 @@
+package org.pac4j.core.authorization.checker;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.authorization.authorizer.Authorizer;
+import org.pac4j.core.authorization.authorizer.CsrfAuthorizer;
+import org.pac4j.core.authorization.authorizer.IsAuthenticatedAuthorizer;
+import org.pac4j.core.authorization.authorizer.RequireAnyRoleAuthorizer;
+import org.pac4j.core.authorization.authorizer.ProfileOnlyAuthorizer;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.AnonymousProfile;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link AuthorizerExpressionCompiler}.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class AuthorizerExpressionCompilerTests implements TestsConstants {
+
+    private final AuthorizerExpressionCompiler compiler = new AuthorizerExpressionCompiler() {
+        @Override
+        protected int computeCost(final Authorizer authorizer) {
+            return authorizer instanceof RoleAuthorizer ? 10 : 1;
+        }
+    };
+
+    private final List<String> evaluated = new ArrayList<>();
+
+    private final Map<String, Authorizer> authorizers = new HashMap<>();
+
+    private final class RoleAuthorizer implements ProfileOnlyAuthorizer {
+        private final String role;
+
+        private RoleAuthorizer(final String role) {
+            this.role = role;
+        }
+
+        @Override
+        public boolean isAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles) {
+            evaluated.add(role);
+            return profiles.get(0).getRoles().contains(role);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        for (final var name : Arrays.asList("admin", "editor", "readonly")) {
+            authorizers.put(name, new RoleAuthorizer(name));
+        }
+    }
+
+    private boolean evaluate(final String expression, final String... roles) {
+        final var profile = new CommonProfile();
+        profile.setId(ID);
+        profile.addRoles(Arrays.asList(roles));
+        final var compiled = compiler.compile(expression, authorizers::get);
+        return compiled.isAuthorized(MockWebContext.create(), new MockSessionStore(), Collections.singletonList(profile));
+    }
+
+    @Test
+    public void testIsExpression() {
+        assertTrue(AuthorizerExpressionCompiler.isExpression("a & b"));
+        assertTrue(AuthorizerExpressionCompiler.isExpression("a|b"));
+        assertTrue(AuthorizerExpressionCompiler.isExpression("!a"));
+        assertFalse(AuthorizerExpressionCompiler.isExpression("a, b"));
+    }
+
+    @Test
+    public void testPrecedence() {
+        assertTrue(evaluate("admin | editor & !readonly", "admin", "readonly"));
+        assertFalse(evaluate("(admin | editor) & !readonly", "admin", "readonly"));
+        assertTrue(evaluate("admin | (editor & !readonly)", "editor"));
+        assertFalse(evaluate("admin | (editor & !readonly)", "editor", "readonly"));
+        assertTrue(evaluate("!!admin, editor", "admin", "editor"));
+    }
+
+    @Test
+    public void testShortCircuit() {
+        assertFalse(evaluate("admin & editor & readonly"));
+        assertEquals(Arrays.asList("admin"), evaluated);
+        evaluated.clear();
+        assertTrue(evaluate("admin | editor | readonly", "admin"));
+        assertEquals(Arrays.asList("admin"), evaluated);
+    }
+
+    @Test
+    public void testNone() {
+        assertTrue(evaluate("none | admin"));
+        assertFalse(evaluate("!none"));
+    }
+
+    @Test
+    public void testCheapFirst() {
+        authorizers.put("user", new RequireAnyRoleAuthorizer("user"));
+        final var compiled = compiler.compile("admin & user", authorizers::get);
+        assertTrue(compiled.getAuthorizers()[0] instanceof RequireAnyRoleAuthorizer);
+    }
+
+    @Test
+    public void testNoReorderingWithRedirectingAuthorizer() {
+        final var isAuthenticated = new IsAuthenticatedAuthorizer(PAC4J_URL);
+        authorizers.put("isAuthenticated", isAuthenticated);
+        final var compiled = compiler.compile("admin & isAuthenticated", authorizers::get);
+        assertTrue(compiled.getAuthorizers()[0] instanceof RoleAuthorizer);
+        // the declaration order is kept: no redirection as the first operand is false
+        assertFalse(compiled.isAuthorized(MockWebContext.create(), new MockSessionStore(),
+            Collections.singletonList(new AnonymousProfile())));
+        assertEquals(Arrays.asList("admin"), evaluated);
+    }
+
+    @Test
+    public void testNoReorderingWithRequestAuthorizer() {
+        authorizers.put("csrf", new CsrfAuthorizer());
+        final var compiled = compiler.compile("admin & csrf", authorizers::get);
+        assertTrue(compiled.getAuthorizers()[0] instanceof RoleAuthorizer);
+    }
+
+    @Test
+    public void testUnknownAuthorizer() {
+        TestsHelper.expectException(() -> evaluate("admin & unknown"), TechnicalException.class,
+            "The authorizer 'unknown' must be defined in the security configuration");
+    }
+
+    @Test
+    public void testMissingParenthesis() {
+        TestsHelper.expectException(() -> evaluate("(admin | editor"), TechnicalException.class,
+            "Missing closing parenthesis in authorizers expression: (admin | editor");
+    }
+
+    @Test
+    public void testMissingOperand() {
+        TestsHelper.expectException(() -> evaluate("admin &"), TechnicalException.class,
+            "Missing authorizer name at position 7 in authorizers expression: admin &");
+    }
+}
@@ -3,7 +3,10 @@ package org.pac4j.core.authorization.checker;
 import org.junit.Before;
 import org.junit.Test;
 import org.pac4j.core.authorization.authorizer.Authorizer;
+import org.pac4j.core.authorization.authorizer.BatchAuthorizer;
+import org.pac4j.core.authorization.authorizer.CheckHttpMethodAuthorizer;
 import org.pac4j.core.authorization.authorizer.DefaultAuthorizers;
+import org.pac4j.core.authorization.authorizer.ProfileOnlyAuthorizer;
 import org.pac4j.core.authorization.authorizer.RequireAnyRoleAuthorizer;
 import org.pac4j.core.client.Client;
 import org.pac4j.core.client.MockDirectClient;
@@ -19,6 +22,7 @@ import org.pac4j.core.matching.matcher.csrf.DefaultCsrfTokenGenerator;
 import org.pac4j.core.profile.AnonymousProfile;
 import org.pac4j.core.profile.BasicUserProfile;
 import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.store.AbstractStore;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
@@ -55,6 +59,26 @@ public final class DefaultAuthorizationCheckerTests implements TestsConstants {
         }
     }
 
+    private static class CountingAuthorizer implements ProfileOnlyAuthorizer {
+        int nbCalls;
+
+        @Override
+        public boolean isAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles) {
+            nbCalls++;
+            return profiles.get(0).getRoles().contains(ROLE);
+        }
+    }
+
+    private static final class CountingUnmarkedAuthorizer implements Authorizer {
+        int nbCalls;
+
+        @Override
+        public boolean isAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles) {
+            nbCalls++;
+            return profiles.get(0).getRoles().contains(ROLE);
+        }
+    }
+
     @Test
     public void testBlankAuthorizerNameAProfile() {
         assertTrue(checker.isAuthorized(MockWebContext.create(), new MockSessionStore(), profiles,
@@ -330,4 +354,310 @@ public final class DefaultAuthorizationCheckerTests implements TestsConstants {
             checker.computeAuthorizers(MockWebContext.create(), new ArrayList<>(), null,
                 authorizers, new ArrayList<>()));
     }
+
+    @Test
+    public void testDecisionCache() {
+        final var cachingChecker = new DefaultAuthorizationChecker(new AuthorizationDecisionCache());
+        final var authorizer = new CountingAuthorizer();
+        final Map<String, Authorizer> authorizers = new HashMap<>();
+        authorizers.put(NAME, authorizer);
+        profile.setId(ID);
+        profile.addRole(ROLE);
+        assertTrue(cachingChecker.isAuthorized(MockWebContext.create(), new MockSessionStore(), profiles, NAME, authorizers,
+            new ArrayList<>()));
+        assertTrue(cachingChecker.isAuthorized(MockWebContext.create(), new MockSessionStore(), profiles, NAME, authorizers,
+            new ArrayList<>()));
+        assertEquals(1, authorizer.nbCalls);
+    }
+
+    @Test
+    public void testDecisionCacheProfileChanged() {
+        final var cachingChecker = new DefaultAuthorizationChecker(new AuthorizationDecisionCache());
+        final var authorizer = new CountingAuthorizer();
+        final Map<String, Authorizer> authorizers = new HashMap<>();
+        authorizers.put(NAME, authorizer);
+        profile.setId(ID);
+        assertFalse(cachingChecker.isAuthorized(MockWebContext.create(), new MockSessionStore(), profiles, NAME, authorizers,
+            new ArrayList<>()));
+        profile.addRole(ROLE);
+        assertTrue(cachingChecker.isAuthorized(MockWebContext.create(), new MockSessionStore(), profiles, NAME, authorizers,
+            new ArrayList<>()));
+        assertEquals(2, authorizer.nbCalls);
+    }
+
+    @Test
+    public void testDecisionCacheInvalidated() {
+        final var cache = new AuthorizationDecisionCache();
+        final var cachingChecker = new DefaultAuthorizationChecker(cache);
+        final var authorizer = new CountingAuthorizer();
+        final Map<String, Authorizer> authorizers = new HashMap<>();
+        authorizers.put(NAME, authorizer);
+        profile.setId(ID);
+        assertFalse(cachingChecker.isAuthorized(MockWebContext.create(), new MockSessionStore(), profiles, NAME, authorizers,
+            new ArrayList<>()));
+        cache.invalidate(profile);
+        assertFalse(cachingChecker.isAuthorized(MockWebContext.create(), new MockSessionStore(), profiles, NAME, authorizers,
+            new ArrayList<>()));
+        assertEquals(2, authorizer.nbCalls);
+    }
+
+    @Test
+    public void testDecisionCacheUnmarkedAuthorizer() {
+        final var cachingChecker = new DefaultAuthorizationChecker(new AuthorizationDecisionCache());
+        final var authorizer = new CountingUnmarkedAuthorizer();
+        final Map<String, Authorizer> authorizers = new HashMap<>();
+        authorizers.put(NAME, authorizer);
+        profile.setId(ID);
+        profile.addRole(ROLE);
+        assertTrue(cachingChecker.isAuthorized(MockWebContext.create(), new MockSessionStore(), profiles, NAME, authorizers,
+            new ArrayList<>()));
+        assertTrue(cachingChecker.isAuthorized(MockWebContext.create(), new MockSessionStore(), profiles, NAME, authorizers,
+            new ArrayList<>()));
+        assertEquals(2, authorizer.nbCalls);
+    }
+
+    @Test
+    public void testDecisionCacheMultiProfilesInvalidated() {
+        final var cache = new AuthorizationDecisionCache();
+        final var cachingChecker = new DefaultAuthorizationChecker(cache);
+        final var authorizer = new CountingAuthorizer();
+        final Map<String, Authorizer> authorizers = new HashMap<>();
+        authorizers.put(NAME, authorizer);
+        profile.setId(ID);
+        final var profile2 = new BasicUserProfile();
+        profile2.setId(VALUE);
+        profiles.add(profile2);
+        for (var i = 0; i < 2; i++) {
+            assertFalse(cachingChecker.isAuthorized(MockWebContext.create(), new MockSessionStore(), profiles, NAME, authorizers,
+                new ArrayList<>()));
+        }
+        assertEquals(1, authorizer.nbCalls);
+        cache.invalidate(profile2);
+        assertFalse(cachingChecker.isAuthorized(MockWebContext.create(), new MockSessionStore(), profiles, NAME, authorizers,
+            new ArrayList<>()));
+        assertEquals(2, authorizer.nbCalls);
+    }
+
+    @Test
+    public void testDecisionCacheByValueStore() {
+        final var store = new AbstractStore<String, AuthorizationDecisionCache.Decisions>() {
+            private final Map<String, AuthorizationDecisionCache.Decisions> values = new HashMap<>();
+
+            @Override
+            protected Optional<AuthorizationDecisionCache.Decisions> internalGet(final String key) {
+                return Optional.ofNullable(copy(values.get(key)));
+            }
+
+            @Override
+            protected void internalSet(final String key, final AuthorizationDecisionCache.Decisions value) {
+                values.put(key, copy(value));
+            }
+
+            @Override
+            protected void internalRemove(final String key) {
+                values.remove(key);
+            }
+
+            private AuthorizationDecisionCache.Decisions copy(final AuthorizationDecisionCache.Decisions decisions) {
+                if (decisions == null) {
+                    return null;
+                }
+                final var copy = new AuthorizationDecisionCache.Decisions(decisions.getFingerprint(), decisions.getGeneration(),
+                    decisions.getGenerations());
+                copy.getResults().putAll(decisions.getResults());
+                return copy;
+            }
+        };
+        final var cachingChecker = new DefaultAuthorizationChecker(new AuthorizationDecisionCache(store));
+        final var authorizer = new CountingAuthorizer();
+        final Map<String, Authorizer> authorizers = new HashMap<>();
+        authorizers.put(NAME, authorizer);
+        profile.setId(ID);
+        profile.addRole(ROLE);
+        for (var i = 0; i < 2; i++) {
+            assertTrue(cachingChecker.isAuthorized(MockWebContext.create(), new MockSessionStore(), profiles, NAME, authorizers,
+                new ArrayList<>()));
+        }
+        assertEquals(1, authorizer.nbCalls);
+    }
+
+    @Test
+    public void testDecisionCacheFingerprint() {
+        final var cache = new AuthorizationDecisionCache();
+        profile.setId(ID);
+        profile.addAttribute(KEY, "Aa");
+        final var fingerprint = cache.computeFingerprint(profiles);
+        final var other = new BasicUserProfile();
+        other.setId(ID);
+        // same String hash code
+        other.addAttribute(KEY, "BB");
+        assertNotEquals(fingerprint, cache.computeFingerprint(List.of(other)));
+        assertEquals(fingerprint, cache.computeFingerprint(profiles));
+    }
+
+    @Test
+    public void testAuthorizersExpression() {
+        final Map<String, Authorizer> authorizers = new HashMap<>();
+        authorizers.put(NAME, new CountingAuthorizer());
+        profile.setId(ID);
+        profile.addRole(ROLE);
+        assertTrue(checker.isAuthorized(MockWebContext.create(), new MockSessionStore(), profiles,
+            DefaultAuthorizers.IS_ANONYMOUS + " | (" + NAME + " & !" + DefaultAuthorizers.IS_REMEMBERED + ")", authorizers,
+            new ArrayList<>()));
+        profile.setRemembered(true);
+        assertFalse(checker.isAuthorized(MockWebContext.create(), new MockSessionStore(), profiles,
+            DefaultAuthorizers.IS_ANONYMOUS + " | (" + NAME + " & !" + DefaultAuthorizers.IS_REMEMBERED + ")", authorizers,
+            new ArrayList<>()));
+    }
+
+    @Test
+    public void testAuthorizersExpressionCompiledOnce() {
+        final Map<String, Authorizer> authorizers = new HashMap<>();
+        authorizers.put(NAME, new CountingAuthorizer());
+        final var first = checker.computeAuthorizersFromNames(NAME + " | " + DefaultAuthorizers.IS_REMEMBERED, authorizers);
+        final var second = checker.computeAuthorizersFromNames(NAME + " | " + DefaultAuthorizers.IS_REMEMBERED, authorizers);
+        assertSame(first.get(0), second.get(0));
+    }
+
+    @Test
+    public void testAuthorizersExpressionPerAuthorizersMap() {
+        final Map<String, Authorizer> authorizers1 = new HashMap<>();
+        authorizers1.put(NAME, new CountingAuthorizer());
+        final Map<String, Authorizer> authorizers2 = new HashMap<>();
+        authorizers2.put(NAME, new CountingAuthorizer());
+        final var expression = NAME + " | " + DefaultAuthorizers.IS_REMEMBERED;
+        final var first = checker.computeAuthorizersFromNames(expression, authorizers1);
+        final var second = checker.computeAuthorizersFromNames(expression, authorizers2);
+        assertNotSame(first.get(0), second.get(0));
+        assertSame(authorizers1.get(NAME), ((CompiledAuthorizerExpression) checker.computeAuthorizersFromNames(expression,
+            authorizers1).get(0)).getAuthorizers()[0]);
+        assertSame(authorizers2.get(NAME), ((CompiledAuthorizerExpression) second.get(0)).getAuthorizers()[0]);
+    }
+
+    @Test
+    public void testAuthorizersExpressionAfterAuthorizersMapChange() {
+        final Map<String, Authorizer> authorizers = new HashMap<>();
+        authorizers.put(NAME, new CountingAuthorizer());
+        final var expression = NAME + " | " + DefaultAuthorizers.IS_REMEMBERED;
+        final var first = checker.computeAuthorizersFromNames(expression, authorizers);
+
+        final var newAuthorizer = new CountingAuthorizer();
+        authorizers.put(NAME, newAuthorizer);
+        final var second = checker.computeAuthorizersFromNames(expression, authorizers);
+        assertNotSame(first.get(0), second.get(0));
+        assertSame(newAuthorizer, ((CompiledAuthorizerExpression) second.get(0)).getAuthorizers()[0]);
+        assertSame(second.get(0), checker.computeAuthorizersFromNames(expression, authorizers).get(0));
+    }
+
+    @Test
+    public void testAuthorizersExpressionsLeastRecentlyUsedDropped() {
+        final Map<String, Authorizer> authorizers = new HashMap<>();
+        authorizers.put(NAME, new CountingAuthorizer());
+        final var expression = NAME + " | " + DefaultAuthorizers.IS_REMEMBERED;
+        final var first = checker.computeAuthorizersFromNames(expression, authorizers);
+        for (var i = 0; i < 1000; i++) {
+            checker.computeAuthorizersFromNames(NAME + " ".repeat(i + 2) + "| " + DefaultAuthorizers.IS_REMEMBERED, authorizers);
+            if (i % 100 == 0) {
+                assertSame(first.get(0), checker.computeAuthorizersFromNames(expression, authorizers).get(0));
+            }
+        }
+        assertSame(first.get(0), checker.computeAuthorizersFromNames(expression, authorizers).get(0));
+    }
+
+    @Test
+    public void testBatch() {
+        final var authorizer = new CountingAuthorizer();
+        final Map<String, Authorizer> authorizers = new HashMap<>();
+        authorizers.put(NAME, authorizer);
+        authorizers.put(VALUE, new CheckHttpMethodAuthorizer(HttpConstants.HTTP_METHOD.GET));
+        profile.setId(ID);
+        profile.addRole(ROLE);
+        final List<WebContext> contexts = Arrays.asList(MockWebContext.create(), MockWebContext.create().setRequestMethod("POST"),
+            MockWebContext.create());
+        final var results = checker.areAuthorized(contexts, new MockSessionStore(), profiles, NAME + "," + VALUE, authorizers,
+            new ArrayList<>());
+        assertEquals(2, results.cardinality());
+        assertTrue(results.get(0));
+        assertFalse(results.get(1));
+        assertTrue(results.get(2));
+        assertEquals(1, authorizer.nbCalls);
+    }
+
+    @Test
+    public void testBatchExpression() {
+        final var authorizer = new CountingAuthorizer();
+        final Map<String, Authorizer> authorizers = new HashMap<>();
+        authorizers.put(NAME, authorizer);
+        authorizers.put(VALUE, new CheckHttpMethodAuthorizer(HttpConstants.HTTP_METHOD.POST));
+        profile.setId(ID);
+        final List<WebContext> contexts = Arrays.asList(MockWebContext.create(), MockWebContext.create().setRequestMethod("POST"));
+        final var results = checker.areAuthorized(contexts, new MockSessionStore(), profiles, NAME + " | " + VALUE, authorizers,
+            new ArrayList<>());
+        assertFalse(results.get(0));
+        assertTrue(results.get(1));
+        assertEquals(1, authorizer.nbCalls);
+    }
+
+    @Test
+    public void testBatchAuthorizer() {
+        final Map<String, Authorizer> authorizers = new HashMap<>();
+        authorizers.put(NAME, (BatchAuthorizer) (context, sessionStore, profiles) -> context.getRequestParameter(KEY).isPresent());
+        final List<WebContext> contexts = Arrays.asList(MockWebContext.create().addRequestParameter(KEY, VALUE),
+            MockWebContext.create());
+        final var results = checker.areAuthorized(contexts, new MockSessionStore(), profiles, NAME, authorizers, new ArrayList<>());
+        assertTrue(results.get(0));
+        assertFalse(results.get(1));
+    }
+
+    @Test
+    public void testBatchNoContext() {
+        assertTrue(checker.areAuthorized(new ArrayList<>(), new MockSessionStore(), profiles, null, new HashMap<>(),
+            new ArrayList<>()).isEmpty());
+    }
+
+    @Test
+    public void testBatchUnmarkedRequestAuthorizer() {
+        final Map<String, Authorizer> authorizers = new HashMap<>();
+        authorizers.put(NAME, (context, sessionStore, profiles) -> context.getRequestHeader(KEY).isPresent());
+        final List<WebContext> contexts = Arrays.asList(MockWebContext.create(), MockWebContext.create().addRequestHeader(KEY, VALUE),
+            MockWebContext.create());
+        final var results = checker.areAuthorized(contexts, new MockSessionStore(), profiles, NAME, authorizers, new ArrayList<>());
+        assertFalse(results.get(0));
+        assertTrue(results.get(1));
+        assertFalse(results.get(2));
+        final var expressionResults = checker.areAuthorized(contexts, new MockSessionStore(), profiles,
+            DefaultAuthorizers.IS_AUTHENTICATED + " & " + NAME, authorizers, new ArrayList<>());
+        assertEquals(results, expressionResults);
+    }
+
+    @Test
+    public void testBatchDefaultAuthorizersPerContext() {
+        final List<Client> clients = Arrays.asList(new MockIndirectClient("test"));
+        final List<WebContext> contexts = Arrays.asList(MockWebContext.create().setRequestMethod("POST"), MockWebContext.create());
+        final var results = checker.areAuthorized(contexts, new MockSessionStore(), profiles, null, new HashMap<>(), clients);
+        assertFalse(results.get(0));
+        assertTrue(results.get(1));
+    }
+
+    @Test
+    public void testBatchDifferentAuthorizersPerContext() {
+        final var contextChecker = new DefaultAuthorizationChecker() {
+            @Override
+            protected List<Authorizer> computeDefaultAuthorizers(final WebContext context, final List<UserProfile> profiles,
+                                                                 final List<Client> clients, final Map<String, Authorizer> authorizersMap) {
+                final List<Authorizer> authorizers = new ArrayList<>();
+                if (context.getRequestParameter(KEY).isPresent()) {
+                    authorizers.add(IS_ANONYMOUS_AUTHORIZER);
+                }
+                return authorizers;
+            }
+        };
+        profile.setId(ID);
+        final List<WebContext> contexts = Arrays.asList(MockWebContext.create().addRequestParameter(KEY, VALUE),
+            MockWebContext.create());
+        final var results = contextChecker.areAuthorized(contexts, new MockSessionStore(), profiles, null, new HashMap<>(),
+            new ArrayList<>());
+        assertFalse(results.get(0));
+        assertTrue(results.get(1));
+    }
 }
@@ -0,0 +1,91 @@
+package org.pac4j.core.matching.matcher.csrf;
+
+import org.junit.Test;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsHelper;
+
+import java.util.HashMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link HmacCsrfTokenGenerator}.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class HmacCsrfTokenGeneratorTests {
+
+    private static final String SECRET = "12345678901234567890123456789012";
+
+    private final HmacCsrfTokenGenerator generator = new HmacCsrfTokenGenerator(SECRET);
+
+    @Test
+    public void testNoSessionWrite() {
+        final WebContext context = MockWebContext.create();
+        final var attributes = new HashMap<String, Object>();
+        final var sessionStore = new MockSessionStore(attributes);
+        final var token = generator.get(context, sessionStore);
+        assertNotNull(token);
+        assertTrue(attributes.isEmpty());
+        assertTrue(generator.isValid(context, sessionStore, token));
+        assertNotEquals(token, generator.get(context, sessionStore));
+    }
+
+    @Test
+    public void testOtherSession() {
+        final WebContext context = MockWebContext.create();
+        final var token = generator.get(context, new MockSessionStore());
+        final var otherSessionStore = new MockSessionStore() {
+            @Override
+            protected void generateIdIfNecessary() {
+                id = "other";
+            }
+        };
+        otherSessionStore.getSessionId(context, true);
+        assertFalse(generator.isValid(context, otherSessionStore, token));
+    }
+
+    @Test
+    public void testNoSession() {
+        final WebContext context = MockWebContext.create();
+        final var token = generator.get(context, new MockSessionStore());
+        assertFalse(generator.isValid(context, new MockSessionStore(), token));
+    }
+
+    @Test
+    public void testOtherSecret() {
+        final WebContext context = MockWebContext.create();
+        final var sessionStore = new MockSessionStore();
+        final var token = generator.get(context, sessionStore);
+        assertFalse(new HmacCsrfTokenGenerator(SECRET.toUpperCase() + "x").isValid(context, sessionStore, token));
+    }
+
+    @Test
+    public void testExpired() {
+        final WebContext context = MockWebContext.create();
+        final var sessionStore = new MockSessionStore();
+        generator.setTtlInSeconds(-1);
+        final var token = generator.get(context, sessionStore);
+        assertFalse(generator.isValid(context, sessionStore, token));
+    }
+
+    @Test
+    public void testBadTokens() {
+        final WebContext context = MockWebContext.create();
+        final var sessionStore = new MockSessionStore();
+        generator.get(context, sessionStore);
+        assertFalse(generator.isValid(context, sessionStore, null));
+        assertFalse(generator.isValid(context, sessionStore, "$$$"));
+        assertFalse(generator.isValid(context, sessionStore, "abcd"));
+    }
+
+    @Test
+    public void testShortSecret() {
+        TestsHelper.expectException(() -> new HmacCsrfTokenGenerator("short").get(MockWebContext.create(), new MockSessionStore()),
+            TechnicalException.class, "secret must be at least 32 characters long");
+    }
+}
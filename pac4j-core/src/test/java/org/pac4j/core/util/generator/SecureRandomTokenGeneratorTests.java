@@ -0,0 +1,48 @@
+package org.pac4j.core.util.generator;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link SecureRandomTokenGenerator}.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class SecureRandomTokenGeneratorTests {
+
+    private final SecureRandomTokenGenerator generator = new SecureRandomTokenGenerator(16);
+
+    @Test
+    public void testLengthAndAlphabet() {
+        for (var i = 0; i < 128; i++) {
+            final var token = generator.generate(i);
+            assertEquals(i, token.length());
+            assertTrue(token.matches("[A-Za-z0-9_-]*"));
+        }
+    }
+
+    @Test
+    public void testUnique() {
+        final var tokens = new HashSet<String>();
+        for (var i = 0; i < 1000; i++) {
+            assertTrue(tokens.add(generator.generate(32)));
+        }
+    }
+
+    @Test
+    public void testNextBytesAcrossBuffers() {
+        final var bytes = new byte[40];
+        generator.nextBytes(bytes);
+        var nonZero = 0;
+        for (final var b : bytes) {
+            if (b != 0) {
+                nonZero++;
+            }
+        }
+        assertTrue(nonZero > 0);
+    }
+}
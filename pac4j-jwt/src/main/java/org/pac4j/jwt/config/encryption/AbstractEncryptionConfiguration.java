@@ -8,6 +8,7 @@ import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.InitializableObject;
 
 import java.text.ParseException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Abstract encryption configuration.
@@ -21,6 +22,14 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
 
     protected EncryptionMethod method;
 
+    protected String keyId;
+
+    private volatile JWEEncrypter encrypter;
+
+    private volatile JWEDecrypter decrypter;
+
+    private final AtomicLong keyGeneration = new AtomicLong();
+
     @Override
     public String encrypt(final JWT jwt) {
         init();
@@ -28,12 +37,12 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
         if (jwt instanceof SignedJWT) {
             // Create JWE object with signed JWT as payload
             final var jweObject = new JWEObject(
-                    new JWEHeader.Builder(this.algorithm, this.method).contentType("JWT").build(),
+                    new JWEHeader.Builder(this.algorithm, this.method).contentType("JWT").keyID(keyId).build(),
                     new Payload((SignedJWT) jwt));
 
             try {
                 // Perform encryption
-                jweObject.encrypt(buildEncrypter());
+                jweObject.encrypt(getEncrypter());
             } catch (final JOSEException e) {
                 throw new TechnicalException(e);
             }
@@ -42,14 +51,14 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
             return jweObject.serialize();
         } else {
             // create header
-            final var header = new JWEHeader(this.algorithm, this.method);
+            final var header = new JWEHeader.Builder(this.algorithm, this.method).keyID(keyId).build();
 
             try {
                 // encrypted jwt
                 var encryptedJwt = new EncryptedJWT(header, jwt.getJWTClaimsSet());
 
                 // Perform encryption
-                encryptedJwt.encrypt(buildEncrypter());
+                encryptedJwt.encrypt(getEncrypter());
 
                 // serialize
                 return encryptedJwt.serialize();
@@ -60,33 +69,66 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
     }
 
     /**
-     * Build the appropriate encrypter.
+     * Build the appropriate encrypter (only called once as the Nimbus encrypters are thread-safe and reused).
      *
      * @return the appropriate encrypter
      */
     protected abstract JWEEncrypter buildEncrypter();
 
+    protected JWEEncrypter getEncrypter() {
+        var currentEncrypter = encrypter;
+        if (currentEncrypter == null) {
+            currentEncrypter = buildEncrypter();
+            encrypter = currentEncrypter;
+        }
+        return currentEncrypter;
+    }
+
     @Override
     public void decrypt(final EncryptedJWT encryptedJWT) throws JOSEException {
         init();
 
         // decrypt
-        encryptedJWT.decrypt(buildDecrypter());
+        encryptedJWT.decrypt(getDecrypter());
     }
 
     /**
-     * Build the appropriate decrypter.
+     * Build the appropriate decrypter (only called once as the Nimbus decrypters are thread-safe and reused).
      *
      * @return the appropriate decrypter
      */
     protected abstract JWEDecrypter buildDecrypter();
 
+    protected JWEDecrypter getDecrypter() {
+        var currentDecrypter = decrypter;
+        if (currentDecrypter == null) {
+            currentDecrypter = buildDecrypter();
+            decrypter = currentDecrypter;
+        }
+        return currentDecrypter;
+    }
+
+    /**
+     * Discard the encrypter and the decrypter when the keys or the algorithm change.
+     */
+    protected void resetEncrypterAndDecrypter() {
+        encrypter = null;
+        decrypter = null;
+        keyGeneration.incrementAndGet();
+    }
+
+    @Override
+    public long getKeyGeneration() {
+        return keyGeneration.get();
+    }
+
     public JWEAlgorithm getAlgorithm() {
         return algorithm;
     }
 
     public void setAlgorithm(final JWEAlgorithm algorithm) {
         this.algorithm = algorithm;
+        resetEncrypterAndDecrypter();
     }
 
     public EncryptionMethod getMethod() {
@@ -95,5 +137,16 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
 
     public void setMethod(final EncryptionMethod method) {
         this.method = method;
+        resetEncrypterAndDecrypter();
+    }
+
+    @Override
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public void setKeyId(final String keyId) {
+        this.keyId = keyId;
+        keyGeneration.incrementAndGet();
     }
 }
@@ -84,6 +84,7 @@ public class ECEncryptionConfiguration extends AbstractEncryptionConfiguration {
         CommonHelper.assertNotNull("keyPair", keyPair);
         this.privateKey = (ECPrivateKey) keyPair.getPrivate();
         this.publicKey = (ECPublicKey) keyPair.getPublic();
+        resetEncrypterAndDecrypter();
     }
 
     public ECPublicKey getPublicKey() {
@@ -92,6 +93,7 @@ public class ECEncryptionConfiguration extends AbstractEncryptionConfiguration {
 
     public void setPublicKey(final ECPublicKey publicKey) {
         this.publicKey = publicKey;
+        resetEncrypterAndDecrypter();
     }
 
     public ECPrivateKey getPrivateKey() {
@@ -100,16 +102,19 @@ public class ECEncryptionConfiguration extends AbstractEncryptionConfiguration {
 
     public void setPrivateKey(final ECPrivateKey privateKey) {
         this.privateKey = privateKey;
+        resetEncrypterAndDecrypter();
     }
 
     public void setKeysFromJwk(final String json) {
         final var pair = JWKHelper.buildECKeyPairFromJwk(json);
         this.publicKey = (ECPublicKey) pair.getPublic();
         this.privateKey = (ECPrivateKey) pair.getPrivate();
+        resetEncrypterAndDecrypter();
     }
 
     @Override
     public String toString() {
-        return CommonHelper.toNiceString(this.getClass(), "keys", "[protected]", "algorithm", algorithm, "method", method);
+        return CommonHelper.toNiceString(this.getClass(), "keys", "[protected]", "algorithm", algorithm, "method", method,
+            "keyId", keyId);
     }
 }
@@ -38,4 +38,23 @@ public interface EncryptionConfiguration {
      * @throws JOSEException exception when decrypting the JWT
      */
     void decrypt(EncryptedJWT encryptedJWT) throws JOSEException;
+
+    /**
+     * The key identifier (<code>kid</code>) of this configuration, used to find the configuration from the JWT header.
+     *
+     * @return the key identifier (may be null)
+     */
+    default String getKeyId() {
+        return null;
+    }
+
+    /**
+     * The generation of the keys of this configuration: it changes each time the keys are replaced or removed, so that the
+     * tokens already verified with the previous keys are not trusted anymore.
+     *
+     * @return the key generation
+     */
+    default long getKeyGeneration() {
+        return 0;
+    }
 }
@@ -74,6 +74,7 @@ public class RSAEncryptionConfiguration extends AbstractEncryptionConfiguration
         CommonHelper.assertNotNull("keyPair", keyPair);
         this.privateKey = (RSAPrivateKey) keyPair.getPrivate();
         this.publicKey = (RSAPublicKey) keyPair.getPublic();
+        resetEncrypterAndDecrypter();
     }
 
     public RSAPublicKey getPublicKey() {
@@ -82,6 +83,7 @@ public class RSAEncryptionConfiguration extends AbstractEncryptionConfiguration
 
     public void setPublicKey(final RSAPublicKey publicKey) {
         this.publicKey = publicKey;
+        resetEncrypterAndDecrypter();
     }
 
     public RSAPrivateKey getPrivateKey() {
@@ -90,16 +92,19 @@ public class RSAEncryptionConfiguration extends AbstractEncryptionConfiguration
 
     public void setPrivateKey(final RSAPrivateKey privateKey) {
         this.privateKey = privateKey;
+        resetEncrypterAndDecrypter();
     }
 
     public void setKeysFromJwk(final String json) {
         final var pair = JWKHelper.buildRSAKeyPairFromJwk(json);
         this.publicKey = (RSAPublicKey) pair.getPublic();
         this.privateKey = (RSAPrivateKey) pair.getPrivate();
+        resetEncrypterAndDecrypter();
     }
 
     @Override
     public String toString() {
-        return CommonHelper.toNiceString(this.getClass(), "keys", "[protected]", "algorithm", algorithm, "method", method);
+        return CommonHelper.toNiceString(this.getClass(), "keys", "[protected]", "algorithm", algorithm, "method", method,
+            "keyId", keyId);
     }
 }
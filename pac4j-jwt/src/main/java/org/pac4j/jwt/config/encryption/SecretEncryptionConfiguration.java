@@ -102,6 +102,7 @@ public class SecretEncryptionConfiguration extends AbstractEncryptionConfigurati
 
     public void setSecret(final String secret) {
         this.secret = secret.getBytes(UTF_8);
+        resetEncrypterAndDecrypter();
     }
 
     public byte[] getSecretBytes() {
@@ -110,6 +111,7 @@ public class SecretEncryptionConfiguration extends AbstractEncryptionConfigurati
 
     public void setSecretBytes(final byte[] secretBytes) {
         this.secret = Arrays.copyOf(secretBytes,secretBytes.length);
+        resetEncrypterAndDecrypter();
     }
 
     public String getSecretBase64() {
@@ -118,10 +120,12 @@ public class SecretEncryptionConfiguration extends AbstractEncryptionConfigurati
 
     public void setSecretBase64(final String secret) {
         this.secret = new Base64(secret).decode();
+        resetEncrypterAndDecrypter();
     }
 
     @Override
     public String toString() {
-        return CommonHelper.toNiceString(this.getClass(), "secret", "[protected]", "algorithm", algorithm, "method", method);
+        return CommonHelper.toNiceString(this.getClass(), "secret", "[protected]", "algorithm", algorithm, "method", method,
+            "keyId", keyId);
     }
 }
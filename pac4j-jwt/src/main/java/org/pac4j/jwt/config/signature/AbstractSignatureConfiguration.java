@@ -3,6 +3,8 @@ package org.pac4j.jwt.config.signature;
 import com.nimbusds.jose.*;
 import org.pac4j.core.util.InitializableObject;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Abstract signature configuration.
  *
@@ -13,11 +15,87 @@ public abstract class AbstractSignatureConfiguration extends InitializableObject
 
     protected JWSAlgorithm algorithm = JWSAlgorithm.HS256;
 
+    protected String keyId;
+
+    private volatile JWSSigner signer;
+
+    private volatile JWSVerifier verifier;
+
+    private final AtomicLong keyGeneration = new AtomicLong();
+
+    /**
+     * Build the header of the signed JWT (with the key identifier if defined).
+     *
+     * @return the JWS header
+     */
+    protected JWSHeader buildHeader() {
+        return new JWSHeader.Builder(algorithm).keyID(keyId).build();
+    }
+
+    /**
+     * Build the signer (only called once as the Nimbus signers are thread-safe and reused).
+     *
+     * @return the signer
+     * @throws JOSEException exception when building the signer
+     */
+    protected abstract JWSSigner buildSigner() throws JOSEException;
+
+    /**
+     * Build the verifier (only called once as the Nimbus verifiers are thread-safe and reused).
+     *
+     * @return the verifier
+     * @throws JOSEException exception when building the verifier
+     */
+    protected abstract JWSVerifier buildVerifier() throws JOSEException;
+
+    protected JWSSigner getSigner() throws JOSEException {
+        var currentSigner = signer;
+        if (currentSigner == null) {
+            currentSigner = buildSigner();
+            signer = currentSigner;
+        }
+        return currentSigner;
+    }
+
+    protected JWSVerifier getVerifier() throws JOSEException {
+        var currentVerifier = verifier;
+        if (currentVerifier == null) {
+            currentVerifier = buildVerifier();
+            verifier = currentVerifier;
+        }
+        return currentVerifier;
+    }
+
+    /**
+     * Discard the signer and the verifier when the keys change.
+     */
+    protected void resetSignerAndVerifier() {
+        signer = null;
+        verifier = null;
+        keyGeneration.incrementAndGet();
+    }
+
+    @Override
+    public long getKeyGeneration() {
+        return keyGeneration.get();
+    }
+
     public JWSAlgorithm getAlgorithm() {
         return algorithm;
     }
 
     public void setAlgorithm(final JWSAlgorithm algorithm) {
         this.algorithm = algorithm;
+        keyGeneration.incrementAndGet();
+    }
+
+    @Override
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public void setKeyId(final String keyId) {
+        this.keyId = keyId;
+        keyGeneration.incrementAndGet();
     }
 }
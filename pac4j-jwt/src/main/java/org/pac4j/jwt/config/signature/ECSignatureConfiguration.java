@@ -60,9 +60,8 @@ public class ECSignatureConfiguration extends AbstractSignatureConfiguration {
         CommonHelper.assertNotNull("privateKey", privateKey);
 
         try {
-            final JWSSigner signer = new ECDSASigner(this.privateKey);
-            final var signedJWT = new SignedJWT(new JWSHeader(algorithm), claims);
-            signedJWT.sign(signer);
+            final var signedJWT = new SignedJWT(buildHeader(), claims);
+            signedJWT.sign(getSigner());
             return signedJWT;
         } catch (final JOSEException e) {
             throw new TechnicalException(e);
@@ -74,14 +73,24 @@ public class ECSignatureConfiguration extends AbstractSignatureConfiguration {
         init();
         CommonHelper.assertNotNull("publicKey", publicKey);
 
-        final JWSVerifier verifier = new ECDSAVerifier(this.publicKey);
-        return jwt.verify(verifier);
+        return jwt.verify(getVerifier());
+    }
+
+    @Override
+    protected JWSSigner buildSigner() throws JOSEException {
+        return new ECDSASigner(this.privateKey);
+    }
+
+    @Override
+    protected JWSVerifier buildVerifier() throws JOSEException {
+        return new ECDSAVerifier(this.publicKey);
     }
 
     public void setKeyPair(final KeyPair keyPair) {
         CommonHelper.assertNotNull("keyPair", keyPair);
         this.privateKey = (ECPrivateKey) keyPair.getPrivate();
         this.publicKey = (ECPublicKey) keyPair.getPublic();
+        resetSignerAndVerifier();
     }
 
     public ECPublicKey getPublicKey() {
@@ -90,6 +99,7 @@ public class ECSignatureConfiguration extends AbstractSignatureConfiguration {
 
     public void setPublicKey(final ECPublicKey publicKey) {
         this.publicKey = publicKey;
+        resetSignerAndVerifier();
     }
 
     public ECPrivateKey getPrivateKey() {
@@ -98,16 +108,18 @@ public class ECSignatureConfiguration extends AbstractSignatureConfiguration {
 
     public void setPrivateKey(final ECPrivateKey privateKey) {
         this.privateKey = privateKey;
+        resetSignerAndVerifier();
     }
 
     public void setKeysFromJwk(final String json) {
         final var pair = JWKHelper.buildECKeyPairFromJwk(json);
         this.publicKey = (ECPublicKey) pair.getPublic();
         this.privateKey = (ECPrivateKey) pair.getPrivate();
+        resetSignerAndVerifier();
     }
 
     @Override
     public String toString() {
-        return CommonHelper.toNiceString(this.getClass(), "keys", "[protected]", "algorithm", algorithm);
+        return CommonHelper.toNiceString(this.getClass(), "keys", "[protected]", "algorithm", algorithm, "keyId", keyId);
     }
 }
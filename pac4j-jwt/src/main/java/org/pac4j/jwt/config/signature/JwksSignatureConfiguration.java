@@ -0,0 +1,352 @@
+package org.pac4j.jwt.config.signature;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.HttpUtils;
+import org.pac4j.core.util.InitializableObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Signature configuration based on a JWK set loaded from a URL (like the JWKS endpoint of an issuer) or a file.
+ *
+ * The JWK set is loaded in the background at initialization and then refreshed periodically: only the verifications
+ * received before the first load completes wait for it (at most the connect and read timeouts), so calling {@link #init()}
+ * at startup avoids any wait. When a JWT is signed by an unknown key, its verification fails immediately but a refetch
+ * of the JWK set is triggered (at most once at the same time and not more often than the
+ * <code>minRefetchIntervalInSeconds</code>).
+ *
+ * The background tasks run on the provided executor or, by default, on a single daemon thread shared by all the
+ * configurations.
+ *
+ * Only the RSA and elliptic-curve signature keys of the JWK set are used. This configuration cannot sign JWT.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public class JwksSignatureConfiguration extends InitializableObject implements SignatureConfiguration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JwksSignatureConfiguration.class);
+
+    private static final int DEFAULT_SIZE_LIMIT = 51200;
+
+    private static final String FILE_PREFIX = "file:";
+
+    private String jwksUrl;
+
+    // 5 minutes
+    private int refreshIntervalInSeconds = 300;
+
+    private int minRefetchIntervalInSeconds = 30;
+
+    private ScheduledExecutorService executor;
+
+    private volatile ScheduledFuture<?> refreshTask;
+
+    private volatile CompletableFuture<Void> initialLoad = CompletableFuture.completedFuture(null);
+
+    /* runs the initial load unless it is already started (by the executor or by a caller) */
+    private volatile Runnable initialLoader = () -> {};
+
+    private volatile List<KeyVerifier> verifiers = Collections.emptyList();
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile long lastRefetchTime;
+
+    private final AtomicLong keyGeneration = new AtomicLong();
+
+    public JwksSignatureConfiguration() {}
+
+    public JwksSignatureConfiguration(final String jwksUrl) {
+        this.jwksUrl = jwksUrl;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotBlank("jwksUrl", jwksUrl);
+        CommonHelper.assertTrue(refreshIntervalInSeconds > 0, "refreshIntervalInSeconds must be greater than zero");
+
+        cancelRefreshTask();
+        final var scheduler = getScheduler();
+        final var load = new CompletableFuture<Void>();
+        final var started = new AtomicBoolean();
+        final Runnable loader = () -> {
+            if (started.compareAndSet(false, true)) {
+                try {
+                    refresh();
+                } finally {
+                    load.complete(null);
+                }
+            }
+        };
+        initialLoad = load;
+        initialLoader = loader;
+        refreshing.set(true);
+        try {
+            scheduler.execute(loader);
+        } catch (final RejectedExecutionException e) {
+            LOGGER.warn("Cannot schedule the initial load of the JWK set from: {}, it will be loaded on first use", jwksUrl);
+        }
+        refreshTask = scheduler.scheduleWithFixedDelay(() -> {
+            if (refreshing.compareAndSet(false, true)) {
+                refresh();
+            }
+        }, refreshIntervalInSeconds, refreshIntervalInSeconds, TimeUnit.SECONDS);
+    }
+
+    private ScheduledExecutorService getScheduler() {
+        return executor != null ? executor : SharedExecutorHolder.EXECUTOR;
+    }
+
+    private void cancelRefreshTask() {
+        final var task = refreshTask;
+        if (task != null) {
+            task.cancel(false);
+            refreshTask = null;
+        }
+    }
+
+    /**
+     * Wait for the first load of the JWK set, at most the connect and read timeouts. If it is not started yet (the
+     * shared executor is busy with other JWK sets), it is run on the caller thread.
+     */
+    protected void awaitInitialLoad() {
+        final var load = initialLoad;
+        if (!load.isDone()) {
+            initialLoader.run();
+            try {
+                load.get(HttpUtils.getConnectTimeout() + HttpUtils.getReadTimeout(), TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (final ExecutionException | TimeoutException e) {
+                LOGGER.warn("The JWK set is not loaded yet from: {}", jwksUrl);
+            }
+        }
+    }
+
+    /**
+     * Load the JWK set and replace the current verifiers (the refreshing flag must have been set by the caller).
+     */
+    protected void refresh() {
+        try {
+            final var jwkSet = loadJwkSet();
+            final List<KeyVerifier> newVerifiers = new ArrayList<>();
+            for (final var jwk : jwkSet.getKeys()) {
+                final var verifier = buildVerifier(jwk);
+                if (verifier != null) {
+                    newVerifiers.add(new KeyVerifier(jwk, verifier));
+                }
+            }
+            final var previousVerifiers = verifiers;
+            verifiers = Collections.unmodifiableList(newVerifiers);
+            if (isKeyRemoved(previousVerifiers, newVerifiers)) {
+                keyGeneration.incrementAndGet();
+            }
+            LOGGER.debug("Loaded {} signature key(s) from: {}", newVerifiers.size(), jwksUrl);
+        } catch (final IOException | ParseException | JOSEException | RuntimeException e) {
+            LOGGER.warn("Cannot load the JWK set from: {}, keeping the previous keys", jwksUrl, e);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private static boolean isKeyRemoved(final List<KeyVerifier> previousVerifiers, final List<KeyVerifier> newVerifiers) {
+        for (final var previous : previousVerifiers) {
+            var kept = false;
+            for (final var current : newVerifiers) {
+                if (previous.jwk.equals(current.jwk)) {
+                    kept = true;
+                    break;
+                }
+            }
+            if (!kept) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected JWKSet loadJwkSet() throws IOException, ParseException {
+        if (jwksUrl.startsWith("http:") || jwksUrl.startsWith("https:")) {
+            return JWKSet.load(new URL(jwksUrl), HttpUtils.getConnectTimeout(), HttpUtils.getReadTimeout(), DEFAULT_SIZE_LIMIT);
+        }
+        if (jwksUrl.startsWith(FILE_PREFIX)) {
+            return JWKSet.load(new File(jwksUrl.substring(FILE_PREFIX.length())));
+        }
+        return JWKSet.load(new File(jwksUrl));
+    }
+
+    protected JWSVerifier buildVerifier(final JWK jwk) throws JOSEException {
+        if (jwk.getKeyUse() != null && !KeyUse.SIGNATURE.equals(jwk.getKeyUse())) {
+            return null;
+        }
+        if (jwk instanceof RSAKey) {
+            return new RSASSAVerifier((RSAKey) jwk);
+        } else if (jwk instanceof ECKey) {
+            return new ECDSAVerifier((ECKey) jwk);
+        }
+        return null;
+    }
+
+    /**
+     * Trigger an asynchronous refetch of the JWK set, unless one is running or the last one is too recent.
+     */
+    protected void refetch() {
+        final var now = System.currentTimeMillis();
+        if (now - lastRefetchTime >= minRefetchIntervalInSeconds * 1000L && refreshing.compareAndSet(false, true)) {
+            lastRefetchTime = now;
+            LOGGER.debug("Unknown key: refetching the JWK set from: {}", jwksUrl);
+            try {
+                getScheduler().execute(this::refresh);
+            } catch (final RejectedExecutionException e) {
+                refreshing.set(false);
+                LOGGER.warn("Cannot schedule the refetch of the JWK set from: {}", jwksUrl);
+            }
+        }
+    }
+
+    @Override
+    public boolean supports(final JWSAlgorithm algorithm) {
+        return algorithm != null && (RSASSAVerifier.SUPPORTED_ALGORITHMS.contains(algorithm)
+            || ECDSAVerifier.SUPPORTED_ALGORITHMS.contains(algorithm));
+    }
+
+    @Override
+    public SignedJWT sign(final JWTClaimsSet claims) {
+        throw new TechnicalException("The JwksSignatureConfiguration only holds public keys and cannot sign JWT");
+    }
+
+    @Override
+    public boolean verify(final SignedJWT jwt) throws JOSEException {
+        init();
+        awaitInitialLoad();
+
+        final var header = jwt.getHeader();
+        final var keyId = header.getKeyID();
+        final var algorithm = header.getAlgorithm();
+        var found = false;
+        for (final var keyVerifier : verifiers) {
+            if ((keyId == null || keyId.equals(keyVerifier.keyId))
+                && keyVerifier.verifier.supportedJWSAlgorithms().contains(algorithm)) {
+                found = true;
+                if (jwt.verify(keyVerifier.verifier)) {
+                    return true;
+                }
+            }
+        }
+        if (!found && keyId != null) {
+            refetch();
+        }
+        return false;
+    }
+
+    /**
+     * The key generation only changes when a key is removed from the JWK set (rotation), not when a key is added.
+     *
+     * @return the key generation
+     */
+    @Override
+    public long getKeyGeneration() {
+        return keyGeneration.get();
+    }
+
+    /**
+     * Stop the periodic refresh (the executor itself is not shut down).
+     */
+    public void destroy() {
+        cancelRefreshTask();
+    }
+
+    public String getJwksUrl() {
+        return jwksUrl;
+    }
+
+    public void setJwksUrl(final String jwksUrl) {
+        this.jwksUrl = jwksUrl;
+    }
+
+    public int getRefreshIntervalInSeconds() {
+        return refreshIntervalInSeconds;
+    }
+
+    public void setRefreshIntervalInSeconds(final int refreshIntervalInSeconds) {
+        this.refreshIntervalInSeconds = refreshIntervalInSeconds;
+    }
+
+    public int getMinRefetchIntervalInSeconds() {
+        return minRefetchIntervalInSeconds;
+    }
+
+    public void setMinRefetchIntervalInSeconds(final int minRefetchIntervalInSeconds) {
+        this.minRefetchIntervalInSeconds = minRefetchIntervalInSeconds;
+    }
+
+    public ScheduledExecutorService getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(final ScheduledExecutorService executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "jwksUrl", jwksUrl, "refreshIntervalInSeconds", refreshIntervalInSeconds,
+            "minRefetchIntervalInSeconds", minRefetchIntervalInSeconds);
+    }
+
+    private static final class SharedExecutorHolder {
+
+        private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "pac4j-jwks-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static final class KeyVerifier {
+
+        private final JWK jwk;
+
+        private final String keyId;
+
+        private final JWSVerifier verifier;
+
+        private KeyVerifier(final JWK jwk, final JWSVerifier verifier) {
+            this.jwk = jwk;
+            this.keyId = jwk.getKeyID();
+            this.verifier = verifier;
+        }
+    }
+}
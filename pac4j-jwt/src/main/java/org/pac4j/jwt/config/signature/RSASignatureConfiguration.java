@@ -59,9 +59,8 @@ public class RSASignatureConfiguration extends AbstractSignatureConfiguration {
         CommonHelper.assertNotNull("privateKey", privateKey);
 
         try {
-            final JWSSigner signer = new RSASSASigner(this.privateKey);
-            final var signedJWT = new SignedJWT(new JWSHeader(algorithm), claims);
-            signedJWT.sign(signer);
+            final var signedJWT = new SignedJWT(buildHeader(), claims);
+            signedJWT.sign(getSigner());
             return signedJWT;
         } catch (final JOSEException e) {
             throw new TechnicalException(e);
@@ -73,14 +72,24 @@ public class RSASignatureConfiguration extends AbstractSignatureConfiguration {
         init();
         CommonHelper.assertNotNull("publicKey", publicKey);
 
-        final JWSVerifier verifier = new RSASSAVerifier(this.publicKey);
-        return jwt.verify(verifier);
+        return jwt.verify(getVerifier());
+    }
+
+    @Override
+    protected JWSSigner buildSigner() throws JOSEException {
+        return new RSASSASigner(this.privateKey);
+    }
+
+    @Override
+    protected JWSVerifier buildVerifier() throws JOSEException {
+        return new RSASSAVerifier(this.publicKey);
     }
 
     public void setKeyPair(final KeyPair keyPair) {
         CommonHelper.assertNotNull("keyPair", keyPair);
         this.privateKey = (RSAPrivateKey) keyPair.getPrivate();
         this.publicKey = (RSAPublicKey) keyPair.getPublic();
+        resetSignerAndVerifier();
     }
 
     public RSAPublicKey getPublicKey() {
@@ -89,6 +98,7 @@ public class RSASignatureConfiguration extends AbstractSignatureConfiguration {
 
     public void setPublicKey(final RSAPublicKey publicKey) {
         this.publicKey = publicKey;
+        resetSignerAndVerifier();
     }
 
     public RSAPrivateKey getPrivateKey() {
@@ -97,16 +107,18 @@ public class RSASignatureConfiguration extends AbstractSignatureConfiguration {
 
     public void setPrivateKey(final RSAPrivateKey privateKey) {
         this.privateKey = privateKey;
+        resetSignerAndVerifier();
     }
 
     public void setKeysFromJwk(final String json) {
         final var pair = JWKHelper.buildRSAKeyPairFromJwk(json);
         this.publicKey = (RSAPublicKey) pair.getPublic();
         this.privateKey = (RSAPrivateKey) pair.getPrivate();
+        resetSignerAndVerifier();
     }
 
     @Override
     public String toString() {
-        return CommonHelper.toNiceString(this.getClass(), "keys", "[protected]", "algorithm", algorithm);
+        return CommonHelper.toNiceString(this.getClass(), "keys", "[protected]", "algorithm", algorithm, "keyId", keyId);
     }
 }
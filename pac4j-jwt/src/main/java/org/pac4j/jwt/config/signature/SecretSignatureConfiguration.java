@@ -65,9 +65,8 @@ public class SecretSignatureConfiguration extends AbstractSignatureConfiguration
         init();
 
         try {
-            final JWSSigner signer = new MACSigner(this.secret);
-            final var signedJWT = new SignedJWT(new JWSHeader(algorithm), claims);
-            signedJWT.sign(signer);
+            final var signedJWT = new SignedJWT(buildHeader(), claims);
+            signedJWT.sign(getSigner());
             return signedJWT;
         } catch (final JOSEException e) {
             throw new TechnicalException(e);
@@ -78,8 +77,17 @@ public class SecretSignatureConfiguration extends AbstractSignatureConfiguration
     public boolean verify(final SignedJWT jwt) throws JOSEException {
         init();
 
-        final JWSVerifier verifier = new MACVerifier(this.secret);
-        return jwt.verify(verifier);
+        return jwt.verify(getVerifier());
+    }
+
+    @Override
+    protected JWSSigner buildSigner() throws JOSEException {
+        return new MACSigner(this.secret);
+    }
+
+    @Override
+    protected JWSVerifier buildVerifier() throws JOSEException {
+        return new MACVerifier(this.secret);
     }
 
     public String getSecret() {
@@ -88,6 +96,7 @@ public class SecretSignatureConfiguration extends AbstractSignatureConfiguration
 
     public void setSecret(final String secret) {
         this.secret = secret.getBytes(UTF_8);
+        resetSignerAndVerifier();
     }
 
     public byte[] getSecretBytes() {
@@ -96,6 +105,7 @@ public class SecretSignatureConfiguration extends AbstractSignatureConfiguration
 
     public void setSecretBytes(final byte[] secretBytes) {
         this.secret = Arrays.copyOf(secretBytes,secretBytes.length);
+        resetSignerAndVerifier();
     }
 
 
@@ -105,10 +115,11 @@ public class SecretSignatureConfiguration extends AbstractSignatureConfiguration
 
     public void setSecretBase64(final String secret) {
         this.secret = new Base64(secret).decode();
+        resetSignerAndVerifier();
     }
 
     @Override
     public String toString() {
-        return CommonHelper.toNiceString(this.getClass(), "secret", "[protected]", "algorithm", algorithm);
+        return CommonHelper.toNiceString(this.getClass(), "secret", "[protected]", "algorithm", algorithm, "keyId", keyId);
     }
 }
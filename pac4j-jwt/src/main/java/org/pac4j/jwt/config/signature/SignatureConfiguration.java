@@ -37,4 +37,23 @@ public interface SignatureConfiguration {
      * @throws JOSEException exception when verifying the JWT
      */
     boolean verify(SignedJWT jwt) throws JOSEException;
+
+    /**
+     * The key identifier (<code>kid</code>) of this configuration, used to find the configuration from the JWT header.
+     *
+     * @return the key identifier (may be null)
+     */
+    default String getKeyId() {
+        return null;
+    }
+
+    /**
+     * The generation of the keys of this configuration: it changes each time the keys are replaced or removed, so that the
+     * tokens already verified with the previous keys are not trusted anymore.
+     *
+     * @return the key generation
+     */
+    default long getKeyGeneration() {
+        return 0;
+    }
 }
@@ -24,7 +24,9 @@ import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.util.generator.ValueGenerator;
 import org.pac4j.jwt.config.encryption.EncryptionConfiguration;
 import org.pac4j.jwt.config.signature.SignatureConfiguration;
+import org.pac4j.jwt.profile.CompactClaimsCodec;
 import org.pac4j.jwt.profile.JwtGenerator;
+import org.pac4j.jwt.profile.JwtProfile;
 import org.pac4j.jwt.profile.JwtProfileDefinition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +37,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 import static org.pac4j.core.util.CommonHelper.assertNotBlank;
 import static org.pac4j.core.util.CommonHelper.assertNotNull;
@@ -61,6 +64,16 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
 
     private ValueGenerator identifierGenerator;
 
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private boolean deferClaims;
+
+    private CompactClaimsCodec compactClaimsCodec;
+
+    private JwtPreValidator preValidator;
+
+    private volatile ConfigurationsState configurationsState;
+
     public JwtAuthenticator() {}
 
     public JwtAuthenticator(final List<SignatureConfiguration> signatureConfigurations) {
@@ -139,6 +152,20 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
             context.setResponseHeader(HttpConstants.AUTHENTICATE_HEADER, "Bearer realm=\"" + realmName + "\"");
         }
 
+        if (preValidator != null) {
+            preValidator.check(token);
+        }
+
+        final var state = verifiedTokenCache != null ? findConfigurationsState() : null;
+        if (verifiedTokenCache != null) {
+            final var cachedProfile = verifiedTokenCache.get(token, getProfileDefinition(), state);
+            if (cachedProfile.isPresent()) {
+                logger.debug("JWT already verified -> profile retrieved from cache");
+                credentials.setUserProfile(cachedProfile.get());
+                return;
+            }
+        }
+
         try {
             // Parse the token
             var jwt = JWTParser.parse(token);
@@ -165,7 +192,7 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
                     final var header = encryptedJWT.getHeader();
                     final var algorithm = header.getAlgorithm();
                     final var method = header.getEncryptionMethod();
-                    for (final var config : encryptionConfigurations) {
+                    for (final var config : selectEncryptionConfigurations(header.getKeyID())) {
                         if (config.supports(algorithm, method)) {
                             logger.debug("Using encryption configuration: {}", config);
                             try {
@@ -192,8 +219,9 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
 
                     var verified = false;
                     var found = false;
-                    final var algorithm = signedJWT.getHeader().getAlgorithm();
-                    for (final var config : signatureConfigurations) {
+                    final var header = signedJWT.getHeader();
+                    final var algorithm = header.getAlgorithm();
+                    for (final var config : selectSignatureConfigurations(header.getKeyID())) {
                         if (config.supports(algorithm)) {
                             logger.debug("Using signature configuration: {}", config);
                             try {
@@ -218,11 +246,64 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
 
             createJwtProfile(credentials, jwt, context, sessionStore);
 
+            final var profile = credentials.getUserProfile();
+            // generated identifiers are not cached as they may be different for each request
+            if (verifiedTokenCache != null && profile != null && jwt.getJWTClaimsSet().getSubject() != null) {
+                verifiedTokenCache.put(token, jwt.getJWTClaimsSet().getExpirationTime(), profile, getProfileDefinition(), state);
+            }
+
         } catch (final ParseException e) {
             throw new CredentialsException("Cannot decrypt / verify JWT", e);
         }
     }
 
+    /**
+     * Select the signature configurations to verify a JWT: the ones declaring the key identifier of the JWT header
+     * first (if any), then all the other ones. The order is indexed by key identifier when the configurations change.
+     *
+     * @param keyId the key identifier of the JWT header (may be null)
+     * @return the signature configurations to try
+     */
+    protected List<SignatureConfiguration> selectSignatureConfigurations(final String keyId) {
+        final var state = findConfigurationsState();
+        return state.signatureConfigurationsByKeyId.getOrDefault(keyId, state.signatureConfigurations);
+    }
+
+    /**
+     * Select the encryption configurations to decrypt a JWT: the ones declaring the key identifier of the JWT header
+     * first (if any), then all the other ones. The order is indexed by key identifier when the configurations change.
+     *
+     * @param keyId the key identifier of the JWT header (may be null)
+     * @return the encryption configurations to try
+     */
+    protected List<EncryptionConfiguration> selectEncryptionConfigurations(final String keyId) {
+        final var state = findConfigurationsState();
+        return state.encryptionConfigurationsByKeyId.getOrDefault(keyId, state.encryptionConfigurations);
+    }
+
+    /* for each key identifier: the configurations declaring it first, then the other ones */
+    private static <C> Map<String, List<C>> indexByKeyId(final List<C> configurations, final Function<C, String> keyIdGetter) {
+        final Map<String, List<C>> index = new HashMap<>();
+        for (final var configuration : configurations) {
+            final var keyId = keyIdGetter.apply(configuration);
+            if (keyId != null && !index.containsKey(keyId)) {
+                final List<C> ordered = new ArrayList<>(configurations.size());
+                for (final var other : configurations) {
+                    if (keyId.equals(keyIdGetter.apply(other))) {
+                        ordered.add(other);
+                    }
+                }
+                for (final var other : configurations) {
+                    if (!keyId.equals(keyIdGetter.apply(other))) {
+                        ordered.add(other);
+                    }
+                }
+                index.put(keyId, ordered);
+            }
+        }
+        return index;
+    }
+
     @SuppressWarnings("unchecked")
     protected void createJwtProfile(final TokenCredentials credentials, final JWT jwt, final WebContext context,
                                     final SessionStore sessionStore) throws ParseException {
@@ -250,19 +331,29 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
             }
         }
 
-        final Map<String, Object> attributes = new HashMap<>(claimSet.getClaims());
-        attributes.remove(JwtClaims.SUBJECT);
-
-        final var roles = (List<String>) attributes.get(JwtGenerator.INTERNAL_ROLES);
-        attributes.remove(JwtGenerator.INTERNAL_ROLES);
-        final var permissions = (List<String>) attributes.get(JwtGenerator.INTERNAL_PERMISSIONS);
-        attributes.remove(JwtGenerator.INTERNAL_PERMISSIONS);
-        final var linkedId = (String) attributes.get(JwtGenerator.INTERNAL_LINKEDID);
-        attributes.remove(JwtGenerator.INTERNAL_LINKEDID);
+        var claims = claimSet.getClaims();
+        if (CompactClaimsCodec.isEncoded(claims)) {
+            if (compactClaimsCodec == null) {
+                throw new CredentialsException("The JWT claims are compact encoded but no compactClaimsCodec is defined");
+            }
+            claims = compactClaimsCodec.decode(claims);
+        }
+        final var roles = (List<String>) claims.get(JwtGenerator.INTERNAL_ROLES);
+        final var permissions = (List<String>) claims.get(JwtGenerator.INTERNAL_PERMISSIONS);
+        final var linkedId = (String) claims.get(JwtGenerator.INTERNAL_LINKEDID);
 
         final var profile = getProfileDefinition().newProfile(subject);
         profile.setId(ProfileHelper.sanitizeIdentifier(subject));
-        getProfileDefinition().convertAndAdd(profile, attributes, null);
+        if (deferClaims && profile instanceof JwtProfile) {
+            ((JwtProfile) profile).deferClaims(claims, getProfileDefinition());
+        } else {
+            final Map<String, Object> attributes = new HashMap<>(claims);
+            attributes.remove(JwtClaims.SUBJECT);
+            attributes.remove(JwtGenerator.INTERNAL_ROLES);
+            attributes.remove(JwtGenerator.INTERNAL_PERMISSIONS);
+            attributes.remove(JwtGenerator.INTERNAL_LINKEDID);
+            getProfileDefinition().convertAndAdd(profile, attributes, null);
+        }
 
         if (roles != null) {
             profile.addRoles(roles);
@@ -287,11 +378,13 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
     public void addSignatureConfiguration(final SignatureConfiguration signatureConfiguration) {
         assertNotNull("signatureConfiguration", signatureConfiguration);
         signatureConfigurations.add(signatureConfiguration);
+        configurationsChanged();
     }
 
     public void setSignatureConfigurations(final List<SignatureConfiguration> signatureConfigurations) {
         assertNotNull("signatureConfigurations", signatureConfigurations);
         this.signatureConfigurations = signatureConfigurations;
+        configurationsChanged();
     }
 
     public List<EncryptionConfiguration> getEncryptionConfigurations() {
@@ -305,11 +398,35 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
     public void addEncryptionConfiguration(final EncryptionConfiguration encryptionConfiguration) {
         assertNotNull("encryptionConfiguration", encryptionConfiguration);
         encryptionConfigurations.add(encryptionConfiguration);
+        configurationsChanged();
     }
 
     public void setEncryptionConfigurations(final List<EncryptionConfiguration> encryptionConfigurations) {
         assertNotNull("encryptionConfigurations", encryptionConfigurations);
         this.encryptionConfigurations = encryptionConfigurations;
+        configurationsChanged();
+    }
+
+    protected void configurationsChanged() {
+        configurationsState = null;
+        if (verifiedTokenCache != null) {
+            verifiedTokenCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Return the state of the signature and encryption configurations, rebuilt when they have changed: replaced or
+     * added (even directly in the lists) or with new keys (see the key generations).
+     *
+     * @return the state of the configurations
+     */
+    protected ConfigurationsState findConfigurationsState() {
+        var state = configurationsState;
+        if (state == null || !state.matches(signatureConfigurations, encryptionConfigurations)) {
+            state = new ConfigurationsState(signatureConfigurations, encryptionConfigurations);
+            configurationsState = state;
+        }
+        return state;
     }
 
     public String getRealmName() {
@@ -336,10 +453,101 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
         this.identifierGenerator = identifierGenerator;
     }
 
+    public boolean isDeferClaims() {
+        return deferClaims;
+    }
+
+    public void setDeferClaims(final boolean deferClaims) {
+        this.deferClaims = deferClaims;
+    }
+
+    public JwtPreValidator getPreValidator() {
+        return preValidator;
+    }
+
+    public void setPreValidator(final JwtPreValidator preValidator) {
+        this.preValidator = preValidator;
+    }
+
+    public CompactClaimsCodec getCompactClaimsCodec() {
+        return compactClaimsCodec;
+    }
+
+    public void setCompactClaimsCodec(final CompactClaimsCodec compactClaimsCodec) {
+        this.compactClaimsCodec = compactClaimsCodec;
+    }
+
+    public VerifiedTokenCache getVerifiedTokenCache() {
+        return verifiedTokenCache;
+    }
+
+    public void setVerifiedTokenCache(final VerifiedTokenCache verifiedTokenCache) {
+        this.verifiedTokenCache = verifiedTokenCache;
+    }
+
     @Override
     public String toString() {
         return toNiceString(this.getClass(), "signatureConfigurations", signatureConfigurations,
             "encryptionConfigurations", encryptionConfigurations, "realmName", this.realmName,
-            "identifierGenerator", this.identifierGenerator);
+            "identifierGenerator", this.identifierGenerator, "verifiedTokenCache", this.verifiedTokenCache,
+            "deferClaims", this.deferClaims, "compactClaimsCodec", this.compactClaimsCodec,
+            "preValidator", this.preValidator);
+    }
+
+    /**
+     * The configurations, their key generations and their index by key identifier: the profiles cached for a state are
+     * only valid while it matches the current configurations.
+     */
+    protected static final class ConfigurationsState {
+
+        private final List<SignatureConfiguration> signatureConfigurations;
+
+        private final List<EncryptionConfiguration> encryptionConfigurations;
+
+        private final long[] keyGenerations;
+
+        private final Map<String, List<SignatureConfiguration>> signatureConfigurationsByKeyId;
+
+        private final Map<String, List<EncryptionConfiguration>> encryptionConfigurationsByKeyId;
+
+        private ConfigurationsState(final List<SignatureConfiguration> signatureConfigurations,
+                                    final List<EncryptionConfiguration> encryptionConfigurations) {
+            this.signatureConfigurations = new ArrayList<>(signatureConfigurations);
+            this.encryptionConfigurations = new ArrayList<>(encryptionConfigurations);
+            this.keyGenerations = new long[this.signatureConfigurations.size() + this.encryptionConfigurations.size()];
+            var i = 0;
+            for (final var configuration : this.signatureConfigurations) {
+                keyGenerations[i++] = configuration.getKeyGeneration();
+            }
+            for (final var configuration : this.encryptionConfigurations) {
+                keyGenerations[i++] = configuration.getKeyGeneration();
+            }
+            this.signatureConfigurationsByKeyId = indexByKeyId(this.signatureConfigurations, SignatureConfiguration::getKeyId);
+            this.encryptionConfigurationsByKeyId = indexByKeyId(this.encryptionConfigurations, EncryptionConfiguration::getKeyId);
+        }
+
+        private boolean matches(final List<SignatureConfiguration> signatureConfigurations,
+                                final List<EncryptionConfiguration> encryptionConfigurations) {
+            if (signatureConfigurations.size() != this.signatureConfigurations.size()
+                || encryptionConfigurations.size() != this.encryptionConfigurations.size()) {
+                return false;
+            }
+            var i = 0;
+            for (final var configuration : signatureConfigurations) {
+                if (configuration != this.signatureConfigurations.get(i) || configuration.getKeyGeneration() != keyGenerations[i]) {
+                    return false;
+                }
+                i++;
+            }
+            var j = 0;
+            for (final var configuration : encryptionConfigurations) {
+                if (configuration != this.encryptionConfigurations.get(j) || configuration.getKeyGeneration() != keyGenerations[i]) {
+                    return false;
+                }
+                i++;
+                j++;
+            }
+            return true;
+        }
     }
 }
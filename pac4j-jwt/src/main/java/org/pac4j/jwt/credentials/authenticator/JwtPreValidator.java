@@ -0,0 +1,177 @@
+package org.pac4j.jwt.credentials.authenticator;
+
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.util.CommonHelper;
+
+import java.text.ParseException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cheap structural checks of a JWT before its full parsing and cryptographic verification: maximum length,
+ * number of segments and characters, allowed algorithms and encryption methods (read from the header only)
+ * and maximum size of the claims (or the ciphertext).
+ *
+ * The characters accepted are the ones accepted by the Nimbus parser (base64url, regular base64 and padding).
+ * The rejected tokens are counted by reason.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public class JwtPreValidator {
+
+    /**
+     * The reasons of a rejection.
+     */
+    public enum Rejection { LENGTH, STRUCTURE, HEADER, ALGORITHM, ENCRYPTION_METHOD, CLAIMS_SIZE }
+
+    private static final int MAX_HEADER_LENGTH = 8192;
+
+    // 64 KB
+    private int maxLength = 64 * 1024;
+
+    private int maxClaimsSize;
+
+    private Set<String> allowedAlgorithms;
+
+    private Set<String> allowedEncryptionMethods;
+
+    private final Map<Rejection, LongAdder> rejections = new EnumMap<>(Rejection.class);
+
+    public JwtPreValidator() {
+        for (final var rejection : Rejection.values()) {
+            rejections.put(rejection, new LongAdder());
+        }
+    }
+
+    /**
+     * Check the token.
+     *
+     * @param token the raw JWT
+     * @throws CredentialsException if the token is rejected
+     */
+    public void check(final String token) {
+        if (token == null || token.isEmpty() || maxLength > 0 && token.length() > maxLength) {
+            reject(Rejection.LENGTH, "length");
+        }
+
+        // segments: 3 for a signed or plain JWT, 5 for an encrypted JWT
+        final var dots = new int[4];
+        var nbDots = 0;
+        for (var i = 0; i < token.length(); i++) {
+            final var c = token.charAt(i);
+            if (c == '.') {
+                if (nbDots == dots.length) {
+                    reject(Rejection.STRUCTURE, "too many segments");
+                }
+                dots[nbDots++] = i;
+            } else if (!isBase64Character(c)) {
+                reject(Rejection.STRUCTURE, "invalid character");
+            }
+        }
+        if (nbDots != 2 && nbDots != 4 || dots[0] == 0) {
+            reject(Rejection.STRUCTURE, "bad number of segments");
+        }
+        if (dots[0] > MAX_HEADER_LENGTH) {
+            reject(Rejection.HEADER, "header too large");
+        }
+
+        final Map<String, Object> header;
+        try {
+            header = JSONObjectUtils.parse(new Base64URL(token.substring(0, dots[0])).decodeToString());
+        } catch (final ParseException e) {
+            reject(Rejection.HEADER, "unreadable header");
+            return;
+        }
+        final var algorithm = header.get("alg");
+        final var method = header.get("enc");
+        if (!(algorithm instanceof String)) {
+            reject(Rejection.HEADER, "missing algorithm");
+        }
+        final var encrypted = nbDots == 4;
+        final var hasMethod = method instanceof String;
+        if (encrypted != hasMethod) {
+            reject(Rejection.HEADER, "encryption method not consistent with the number of segments");
+        }
+        if (allowedAlgorithms != null && !allowedAlgorithms.contains(algorithm)) {
+            reject(Rejection.ALGORITHM, "algorithm not allowed: " + algorithm);
+        }
+        if (encrypted && allowedEncryptionMethods != null && !allowedEncryptionMethods.contains(method)) {
+            reject(Rejection.ENCRYPTION_METHOD, "encryption method not allowed: " + method);
+        }
+
+        if (maxClaimsSize > 0) {
+            // payload of a signed JWT or ciphertext of an encrypted JWT
+            final var claimsLength = encrypted ? dots[3] - dots[2] - 1 : dots[1] - dots[0] - 1;
+            if (claimsLength / 4L * 3 > maxClaimsSize) {
+                reject(Rejection.CLAIMS_SIZE, "claims too large");
+            }
+        }
+    }
+
+    // same alphabet as the Nimbus parser: base64url, regular base64 and padding
+    private static boolean isBase64Character(final char c) {
+        return c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == '-' || c == '_'
+            || c == '+' || c == '/' || c == '=';
+    }
+
+    protected void reject(final Rejection rejection, final String message) {
+        rejections.get(rejection).increment();
+        throw new CredentialsException("JWT rejected by pre-validation: " + message);
+    }
+
+    public long getRejectionCount(final Rejection rejection) {
+        return rejections.get(rejection).sum();
+    }
+
+    public long getRejectionCount() {
+        var total = 0L;
+        for (final var counter : rejections.values()) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public void setMaxLength(final int maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    public int getMaxClaimsSize() {
+        return maxClaimsSize;
+    }
+
+    public void setMaxClaimsSize(final int maxClaimsSize) {
+        this.maxClaimsSize = maxClaimsSize;
+    }
+
+    public Set<String> getAllowedAlgorithms() {
+        return allowedAlgorithms;
+    }
+
+    public void setAllowedAlgorithms(final Set<String> allowedAlgorithms) {
+        this.allowedAlgorithms = allowedAlgorithms;
+    }
+
+    public Set<String> getAllowedEncryptionMethods() {
+        return allowedEncryptionMethods;
+    }
+
+    public void setAllowedEncryptionMethods(final Set<String> allowedEncryptionMethods) {
+        this.allowedEncryptionMethods = allowedEncryptionMethods;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "maxLength", maxLength, "maxClaimsSize", maxClaimsSize,
+            "allowedAlgorithms", allowedAlgorithms, "allowedEncryptionMethods", allowedEncryptionMethods,
+            "rejections", getRejectionCount());
+    }
+}
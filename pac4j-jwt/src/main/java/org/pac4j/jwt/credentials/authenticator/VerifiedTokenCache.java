@@ -0,0 +1,218 @@
+package org.pac4j.jwt.credentials.authenticator;
+
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.profile.definition.ProfileDefinition;
+import org.pac4j.core.store.GuavaStore;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+import org.pac4j.jwt.profile.JwtProfile;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache of the profiles built from the already verified JWTs, keyed by a SHA-256 digest of the raw token.
+ *
+ * An entry is kept until the earlier of the expiration time of the JWT and the configured timeout.
+ * A copy of the cached profile is returned for each hit, so the profile can be safely updated afterwards.
+ * An entry is only returned for the key state it was verified with (compared by identity), so that the tokens verified
+ * with removed or replaced keys are not trusted anymore.
+ *
+ * Add the <code>guava</code> dependency to use the default store.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public class VerifiedTokenCache extends InitializableObject {
+
+    private int cacheSize = 10000;
+
+    private int timeout = 10;
+
+    private TimeUnit timeUnit = TimeUnit.MINUTES;
+
+    private GuavaStore<String, CachedProfile> store;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public VerifiedTokenCache() {}
+
+    public VerifiedTokenCache(final int cacheSize, final int timeout, final TimeUnit timeUnit) {
+        this.cacheSize = cacheSize;
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotNull("timeUnit", timeUnit);
+        this.store = new GuavaStore<>(cacheSize, timeout, timeUnit);
+        this.store.init();
+    }
+
+    /**
+     * Get a copy of the profile built for this token, if it was verified before and is still valid.
+     *
+     * @param token the raw JWT
+     * @param profileDefinition the profile definition to create the copy
+     * @param keyState the current state of the keys
+     * @return the profile (optional)
+     */
+    public Optional<UserProfile> get(final String token, final ProfileDefinition profileDefinition, final Object keyState) {
+        init();
+
+        final var key = computeKey(token);
+        final var cached = store.get(key);
+        if (cached.isPresent()) {
+            if (cached.get().getKeyState() == keyState && cached.get().getExpirationTime() > new Date().getTime()) {
+                hits.increment();
+                return Optional.of(copyProfile(cached.get().getProfile(), profileDefinition));
+            }
+            store.remove(key);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Cache a copy of the profile built for a verified token.
+     *
+     * @param token the raw JWT
+     * @param expirationTime the expiration time of the JWT (may be null)
+     * @param profile the built profile
+     * @param profileDefinition the profile definition to create the copy
+     * @param keyState the state of the keys the token was verified with
+     */
+    public void put(final String token, final Date expirationTime, final UserProfile profile, final ProfileDefinition profileDefinition,
+                    final Object keyState) {
+        init();
+
+        var expiration = new Date().getTime() + timeUnit.toMillis(timeout);
+        if (expirationTime != null) {
+            expiration = Math.min(expiration, expirationTime.getTime());
+        }
+        store.set(computeKey(token), new CachedProfile(copyProfile(profile, profileDefinition), expiration, keyState));
+    }
+
+    /**
+     * Remove all the cached profiles (when the signature or encryption configurations change).
+     */
+    public void invalidateAll() {
+        if (isInitialized()) {
+            store.getCache().invalidateAll();
+        }
+    }
+
+    protected String computeKey(final String token) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    protected UserProfile copyProfile(final UserProfile profile, final ProfileDefinition profileDefinition) {
+        final var copy = profileDefinition.newProfile(profile.getTypedId());
+        copy.setId(profile.getId());
+        if (profile instanceof JwtProfile && copy instanceof JwtProfile) {
+            // keep the claims deferred
+            ((JwtProfile) profile).copyAttributesTo((JwtProfile) copy);
+        } else {
+            for (final var entry : profile.getAttributes().entrySet()) {
+                copy.addAttribute(entry.getKey(), entry.getValue());
+            }
+        }
+        copy.addRoles(profile.getRoles());
+        copy.addPermissions(profile.getPermissions());
+        copy.setLinkedId(profile.getLinkedId());
+        return copy;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public double getHitRatio() {
+        final var hitCount = getHitCount();
+        final var total = hitCount + getMissCount();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    public long getSize() {
+        return isInitialized() ? store.getCache().size() : 0;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(final int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(final int timeout) {
+        this.timeout = timeout;
+    }
+
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+
+    public void setTimeUnit(final TimeUnit timeUnit) {
+        this.timeUnit = timeUnit;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "cacheSize", cacheSize, "timeout", timeout, "timeUnit", timeUnit,
+            "hits", getHitCount(), "misses", getMissCount());
+    }
+
+    /**
+     * A cached profile, its expiration time and the state of the keys it was verified with.
+     */
+    public static class CachedProfile {
+
+        private final UserProfile profile;
+
+        private final long expirationTime;
+
+        private final Object keyState;
+
+        public CachedProfile(final UserProfile profile, final long expirationTime, final Object keyState) {
+            this.profile = profile;
+            this.expirationTime = expirationTime;
+            this.keyState = keyState;
+        }
+
+        public UserProfile getProfile() {
+            return profile;
+        }
+
+        public long getExpirationTime() {
+            return expirationTime;
+        }
+
+        public Object getKeyState() {
+            return keyState;
+        }
+    }
+}
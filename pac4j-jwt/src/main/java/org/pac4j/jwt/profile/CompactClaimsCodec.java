@@ -0,0 +1,376 @@
+package org.pac4j.jwt.profile;
+
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.jwt.JwtClaims;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact encoding of the JWT claims generated from a user profile, to reduce the size of the tokens:
+ * <ul>
+ *     <li>the attribute names can be replaced by short aliases</li>
+ *     <li>the roles and permissions defined in a shared dictionary are encoded as bitmaps (the dictionary version is stored
+ *     in the JWT so that dictionaries can evolve)</li>
+ *     <li>the custom claims can be deflated.</li>
+ * </ul>
+ *
+ * The claims starting with <code>$</code> are reserved to the codec: a non-aliased custom claim starting with <code>$</code>
+ * is escaped by an additional <code>$</code> so that it cannot be decoded as roles, permissions or linked identifier.
+ *
+ * The same codec must be defined in the {@link JwtGenerator} and the
+ * {@link org.pac4j.jwt.credentials.authenticator.JwtAuthenticator}.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public class CompactClaimsCodec extends InitializableObject {
+
+    public static final String COMPACT = "$c";
+    public static final String DICTIONARY_VERSION = "$v";
+    public static final String ROLES_BITMAP = "$rb";
+    public static final String ROLES = "$r";
+    public static final String PERMISSIONS_BITMAP = "$pb";
+    public static final String PERMISSIONS = "$p";
+    public static final String LINKEDID = "$l";
+    public static final String DEFLATED = "$z";
+
+    private static final String RESERVED_PREFIX = "$";
+
+    private static final Set<String> REGISTERED_CLAIMS = new HashSet<>(Arrays.asList(JwtClaims.SUBJECT, JwtClaims.ISSUER,
+        JwtClaims.AUDIENCE, JwtClaims.EXPIRATION_TIME, JwtClaims.NOT_BEFORE, JwtClaims.ISSUED_AT, JwtClaims.JWT_ID));
+
+    // 1 MB
+    private static final int MAX_INFLATED_SIZE = 1024 * 1024;
+
+    private Map<String, String> aliases = new HashMap<>();
+
+    private Map<String, List<String>> dictionaries = new HashMap<>();
+
+    private String currentVersion;
+
+    private boolean deflate;
+
+    private Map<String, String> names;
+
+    private Map<String, Map<String, Integer>> indexes;
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotNull("aliases", aliases);
+        CommonHelper.assertNotNull("dictionaries", dictionaries);
+        CommonHelper.assertTrue(currentVersion == null || dictionaries.containsKey(currentVersion),
+            "No dictionary defined for the current version: " + currentVersion);
+
+        final Map<String, String> newNames = new HashMap<>();
+        for (final var entry : aliases.entrySet()) {
+            CommonHelper.assertTrue(!entry.getValue().startsWith("$") && !REGISTERED_CLAIMS.contains(entry.getValue()),
+                "Invalid alias: " + entry.getValue());
+            CommonHelper.assertTrue(newNames.put(entry.getValue(), entry.getKey()) == null, "Duplicate alias: " + entry.getValue());
+        }
+        final Map<String, Map<String, Integer>> newIndexes = new HashMap<>();
+        for (final var entry : dictionaries.entrySet()) {
+            final Map<String, Integer> index = new HashMap<>();
+            final var dictionary = entry.getValue();
+            for (var i = 0; i < dictionary.size(); i++) {
+                index.put(dictionary.get(i), i);
+            }
+            newIndexes.put(entry.getKey(), index);
+        }
+        this.names = newNames;
+        this.indexes = newIndexes;
+    }
+
+    /**
+     * Whether the claims have been encoded by a codec.
+     *
+     * @param claims the claims
+     * @return whether the claims are encoded
+     */
+    public static boolean isEncoded(final Map<String, Object> claims) {
+        return claims.containsKey(COMPACT);
+    }
+
+    /**
+     * Encode the claims (which may contain the internal roles, permissions and linked identifier claims).
+     * A non-aliased claim named like the alias of another claim is rejected as it could not be decoded.
+     *
+     * @param claims the claims
+     * @return the encoded claims
+     */
+    public Map<String, Object> encode(final Map<String, Object> claims) {
+        init();
+
+        final Map<String, Object> encoded = new LinkedHashMap<>();
+        final Map<String, Object> custom = new LinkedHashMap<>();
+        encoded.put(COMPACT, 1);
+        var dictionaryUsed = false;
+        for (final var entry : claims.entrySet()) {
+            final var name = entry.getKey();
+            final var value = entry.getValue();
+            if (value == null) {
+                continue;
+            }
+            if (JwtGenerator.INTERNAL_ROLES.equals(name)) {
+                dictionaryUsed |= encodeNames((Collection<?>) value, encoded, ROLES_BITMAP, ROLES);
+            } else if (JwtGenerator.INTERNAL_PERMISSIONS.equals(name)) {
+                dictionaryUsed |= encodeNames((Collection<?>) value, encoded, PERMISSIONS_BITMAP, PERMISSIONS);
+            } else if (JwtGenerator.INTERNAL_LINKEDID.equals(name)) {
+                encoded.put(LINKEDID, value);
+            } else if (REGISTERED_CLAIMS.contains(name)) {
+                encoded.put(name, value);
+            } else {
+                final var alias = aliases.get(name);
+                if (alias == null && names.containsKey(name)) {
+                    throw new TechnicalException("The claim: " + name + " conflicts with the alias of the claim: " + names.get(name));
+                }
+                custom.put(alias != null ? alias : escape(name), value);
+            }
+        }
+        if (dictionaryUsed) {
+            encoded.put(DICTIONARY_VERSION, currentVersion);
+        }
+        if (deflate && !custom.isEmpty()) {
+            encoded.put(DEFLATED, deflate(JSONObjectUtils.toJSONString(custom).getBytes(StandardCharsets.UTF_8)).toString());
+        } else {
+            encoded.putAll(custom);
+        }
+        return encoded;
+    }
+
+    private static String escape(final String name) {
+        return name.startsWith(RESERVED_PREFIX) ? RESERVED_PREFIX + name : name;
+    }
+
+    private String decodeCustomName(final String name) {
+        if (name.startsWith(RESERVED_PREFIX + RESERVED_PREFIX)) {
+            return name.substring(RESERVED_PREFIX.length());
+        } else if (name.startsWith(RESERVED_PREFIX)) {
+            throw new CredentialsException("Unknown reserved claim: " + name);
+        }
+        return names.getOrDefault(name, name);
+    }
+
+    private boolean encodeNames(final Collection<?> values, final Map<String, Object> encoded, final String bitmapClaim,
+                                final String listClaim) {
+        if (values.isEmpty()) {
+            return false;
+        }
+        final var index = currentVersion != null ? indexes.get(currentVersion) : null;
+        final var bitmap = new BitSet();
+        final List<String> others = new ArrayList<>();
+        for (final var value : values) {
+            final var position = index != null ? index.get(value) : null;
+            if (position != null) {
+                bitmap.set(position);
+            } else {
+                others.add((String) value);
+            }
+        }
+        if (!others.isEmpty()) {
+            encoded.put(listClaim, others);
+        }
+        if (!bitmap.isEmpty()) {
+            encoded.put(bitmapClaim, Base64URL.encode(bitmap.toByteArray()).toString());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Decode the claims into regular claims (with the internal roles, permissions and linked identifier claims).
+     *
+     * @param claims the encoded claims
+     * @return the decoded claims
+     */
+    public Map<String, Object> decode(final Map<String, Object> claims) {
+        init();
+
+        final Map<String, Object> decoded = new HashMap<>();
+        final var version = asString(DICTIONARY_VERSION, claims.get(DICTIONARY_VERSION));
+        List<String> dictionary = null;
+        if (version != null) {
+            dictionary = dictionaries.get(version);
+            if (dictionary == null) {
+                throw new CredentialsException("Unknown dictionary version: " + version);
+            }
+        }
+        for (final var entry : claims.entrySet()) {
+            final var name = entry.getKey();
+            final var value = entry.getValue();
+            switch (name) {
+                case COMPACT:
+                case DICTIONARY_VERSION:
+                case ROLES:
+                case PERMISSIONS:
+                    break;
+                case ROLES_BITMAP:
+                    decoded.put(JwtGenerator.INTERNAL_ROLES, decodeNames(dictionary, asString(name, value), claims.get(ROLES), ROLES));
+                    break;
+                case PERMISSIONS_BITMAP:
+                    decoded.put(JwtGenerator.INTERNAL_PERMISSIONS,
+                        decodeNames(dictionary, asString(name, value), claims.get(PERMISSIONS), PERMISSIONS));
+                    break;
+                case LINKEDID:
+                    decoded.put(JwtGenerator.INTERNAL_LINKEDID, asString(name, value));
+                    break;
+                case DEFLATED:
+                    try {
+                        final var json = new String(inflate(new Base64URL(asString(name, value)).decode()), StandardCharsets.UTF_8);
+                        for (final var customEntry : JSONObjectUtils.parse(json).entrySet()) {
+                            decoded.put(decodeCustomName(customEntry.getKey()), customEntry.getValue());
+                        }
+                    } catch (final ParseException e) {
+                        throw new CredentialsException("Cannot parse the deflated claims", e);
+                    }
+                    break;
+                default:
+                    decoded.put(REGISTERED_CLAIMS.contains(name) ? name : decodeCustomName(name), value);
+                    break;
+            }
+        }
+        if (!claims.containsKey(ROLES_BITMAP) && claims.containsKey(ROLES)) {
+            decoded.put(JwtGenerator.INTERNAL_ROLES, decodeNames(null, null, claims.get(ROLES), ROLES));
+        }
+        if (!claims.containsKey(PERMISSIONS_BITMAP) && claims.containsKey(PERMISSIONS)) {
+            decoded.put(JwtGenerator.INTERNAL_PERMISSIONS, decodeNames(null, null, claims.get(PERMISSIONS), PERMISSIONS));
+        }
+        return decoded;
+    }
+
+    private static String asString(final String name, final Object value) {
+        if (value != null && !(value instanceof String)) {
+            throw new CredentialsException("The claim: " + name + " must be a string");
+        }
+        return (String) value;
+    }
+
+    private List<String> decodeNames(final List<String> dictionary, final String bitmap, final Object others,
+                                     final String othersName) {
+        final List<String> values = new ArrayList<>();
+        if (bitmap != null) {
+            if (dictionary == null) {
+                throw new CredentialsException("Missing dictionary version");
+            }
+            final var bits = BitSet.valueOf(new Base64URL(bitmap).decode());
+            for (var i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                if (i >= dictionary.size()) {
+                    throw new CredentialsException("Unknown dictionary entry: " + i);
+                }
+                values.add(dictionary.get(i));
+            }
+        }
+        if (others != null) {
+            if (!(others instanceof List)) {
+                throw new CredentialsException("The claim: " + othersName + " must be a list of strings");
+            }
+            for (final var other : (List<?>) others) {
+                values.add(asString(othersName, other));
+            }
+        }
+        return values;
+    }
+
+    protected Base64URL deflate(final byte[] data) {
+        final var deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            final var out = new ByteArrayOutputStream(data.length);
+            final var buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return Base64URL.encode(out.toByteArray());
+        } finally {
+            deflater.end();
+        }
+    }
+
+    protected byte[] inflate(final byte[] data) {
+        final var inflater = new Inflater(true);
+        try {
+            inflater.setInput(data);
+            final var out = new ByteArrayOutputStream(data.length * 4);
+            final var buffer = new byte[1024];
+            while (!inflater.finished()) {
+                final var nb = inflater.inflate(buffer);
+                if (nb == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new CredentialsException("Truncated deflated claims");
+                }
+                out.write(buffer, 0, nb);
+                if (out.size() > MAX_INFLATED_SIZE) {
+                    throw new CredentialsException("Deflated claims too large");
+                }
+            }
+            return out.toByteArray();
+        } catch (final DataFormatException e) {
+            throw new CredentialsException("Cannot inflate the deflated claims", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    public Map<String, String> getAliases() {
+        return aliases;
+    }
+
+    public void setAliases(final Map<String, String> aliases) {
+        this.aliases = aliases;
+    }
+
+    public Map<String, List<String>> getDictionaries() {
+        return dictionaries;
+    }
+
+    public void setDictionaries(final Map<String, List<String>> dictionaries) {
+        this.dictionaries = dictionaries;
+    }
+
+    public void addDictionary(final String version, final List<String> dictionary) {
+        CommonHelper.assertNotBlank("version", version);
+        CommonHelper.assertNotNull("dictionary", dictionary);
+        this.dictionaries.put(version, dictionary);
+    }
+
+    public String getCurrentVersion() {
+        return currentVersion;
+    }
+
+    public void setCurrentVersion(final String currentVersion) {
+        this.currentVersion = currentVersion;
+    }
+
+    public boolean isDeflate() {
+        return deflate;
+    }
+
+    public void setDeflate(final boolean deflate) {
+        this.deflate = deflate;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "aliases", aliases, "dictionaries", dictionaries.keySet(),
+            "currentVersion", currentVersion, "deflate", deflate);
+    }
+}
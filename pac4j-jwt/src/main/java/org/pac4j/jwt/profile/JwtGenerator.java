@@ -8,8 +8,22 @@ import org.pac4j.core.util.CommonHelper;
 import org.pac4j.jwt.config.encryption.EncryptionConfiguration;
 import org.pac4j.jwt.config.signature.SignatureConfiguration;
 
+import java.util.ArrayDeque;
+import java.util.Collection;
 import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Generates a JWT token from a user profile.
@@ -29,6 +43,12 @@ public class JwtGenerator {
 
     private Date expirationTime;
 
+    private CompactClaimsCodec compactClaimsCodec;
+
+    private Executor executor = ForkJoinPool.commonPool();
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
     public JwtGenerator() {}
 
     public JwtGenerator(final SignatureConfiguration signatureConfiguration) {
@@ -72,13 +92,85 @@ public class JwtGenerator {
         return internalGenerate(buildJwtClaimsSet(profile));
     }
 
+    /**
+     * Generate the JWT of several user profiles in parallel (using the <code>executor</code>).
+     *
+     * The JWT are returned lazily in the order of the profiles: at most twice the <code>parallelism</code> JWT
+     * are generated in advance, so the whole batch is never held in memory.
+     *
+     * @param profiles the user profiles
+     * @return the stream of created JWT
+     */
+    public Stream<String> generateAll(final Collection<? extends UserProfile> profiles) {
+        CommonHelper.assertNotNull("profiles", profiles);
+
+        return generateInParallel(profiles.iterator(), this::generate);
+    }
+
+    /**
+     * Generate the JWT of several maps of claims in parallel (using the <code>executor</code>).
+     *
+     * The JWT are returned lazily in the order of the input stream, which is consumed as the JWT are read.
+     *
+     * @param claims the maps of claims
+     * @return the stream of created JWT
+     */
+    public Stream<String> generateAll(final Stream<Map<String, Object>> claims) {
+        CommonHelper.assertNotNull("claims", claims);
+
+        return generateInParallel(claims.iterator(), this::generate).onClose(claims::close);
+    }
+
+    protected <T> Stream<String> generateInParallel(final Iterator<T> inputs, final Function<T, String> generator) {
+        CommonHelper.assertNotNull("executor", executor);
+        CommonHelper.assertTrue(parallelism > 0, "parallelism must be greater than zero");
+
+        final var maxPending = 2 * parallelism;
+        final var tokens = new Iterator<String>() {
+
+            private final Deque<CompletableFuture<String>> pending = new ArrayDeque<>();
+
+            @Override
+            public boolean hasNext() {
+                fill();
+                return !pending.isEmpty();
+            }
+
+            @Override
+            public String next() {
+                fill();
+                if (pending.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    return pending.poll().join();
+                } catch (final CompletionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw e;
+                }
+            }
+
+            private void fill() {
+                while (pending.size() < maxPending && inputs.hasNext()) {
+                    final var input = inputs.next();
+                    pending.add(CompletableFuture.supplyAsync(() -> generator.apply(input), executor));
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(tokens, Spliterator.ORDERED | Spliterator.NONNULL),
+            false);
+    }
+
     /**
      * Generate a JWT from a claims set.
      *
      * @param claimsSet the claims set
      * @return the JWT
      */
-    protected String internalGenerate(final JWTClaimsSet claimsSet) {
+    protected String internalGenerate(final JWTClaimsSet originalClaimsSet) {
+        final var claimsSet = compactClaimsCodec != null ? encodeClaims(originalClaimsSet) : originalClaimsSet;
         JWT jwt;
         // signature?
         if (signatureConfiguration == null) {
@@ -95,6 +187,14 @@ public class JwtGenerator {
         }
     }
 
+    protected JWTClaimsSet encodeClaims(final JWTClaimsSet claimsSet) {
+        final var builder = new JWTClaimsSet.Builder();
+        for (final var entry : compactClaimsCodec.encode(claimsSet.getClaims()).entrySet()) {
+            builder.claim(entry.getKey(), entry.getValue());
+        }
+        return builder.build();
+    }
+
     protected void verifyProfile(final UserProfile profile) {
         CommonHelper.assertNotNull("profile", profile);
         CommonHelper.assertNull(INTERNAL_ROLES, profile.getAttribute(INTERNAL_ROLES));
@@ -150,9 +250,33 @@ public class JwtGenerator {
         this.expirationTime = new Date(expirationTime.getTime());
     }
 
+    public CompactClaimsCodec getCompactClaimsCodec() {
+        return compactClaimsCodec;
+    }
+
+    public void setCompactClaimsCodec(final CompactClaimsCodec compactClaimsCodec) {
+        this.compactClaimsCodec = compactClaimsCodec;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(final Executor executor) {
+        this.executor = executor;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(final int parallelism) {
+        this.parallelism = parallelism;
+    }
+
     @Override
     public String toString() {
         return CommonHelper.toNiceString(this.getClass(), "signatureConfiguration", signatureConfiguration,
-            "encryptionConfiguration", encryptionConfiguration);
+            "encryptionConfiguration", encryptionConfiguration, "parallelism", parallelism);
     }
 }
@@ -1,11 +1,19 @@
 package org.pac4j.jwt.profile;
 
+import org.pac4j.core.profile.AttributeLocation;
+import org.pac4j.core.profile.definition.ProfileDefinition;
 import org.pac4j.core.profile.jwt.AbstractJwtProfile;
 import org.pac4j.core.profile.jwt.JwtClaims;
 
+import java.io.IOException;
+import java.io.ObjectOutput;
+import java.util.Map;
+
 /**
  * Represents a user profile based on a JWT.
  *
+ * The claims may be deferred: they are only converted and added as attributes on the first access to the attributes.
+ *
  * @author Misagh Moayyed
  * @since 1.8.2
  */
@@ -13,7 +21,125 @@ public class JwtProfile extends AbstractJwtProfile {
 
     private static final long serialVersionUID = -1688563185891542198L;
 
+    private transient volatile DeferredClaims deferredClaims;
+
+    private transient boolean materializing;
+
     public String getJwtId() {
         return (String) getAttribute(JwtClaims.JWT_ID);
     }
+
+    /**
+     * Defer the conversion of the claims (except the subject and the internal claims) until the attributes are read.
+     *
+     * @param claims the JWT claims
+     * @param profileDefinition the profile definition to convert the claims
+     */
+    public synchronized void deferClaims(final Map<String, Object> claims, final ProfileDefinition profileDefinition) {
+        materializeClaims();
+        this.deferredClaims = new DeferredClaims(claims, profileDefinition);
+    }
+
+    /**
+     * Convert the deferred claims and add them as attributes. The deferred claims are only cleared once all of them are added,
+     * so the other threads wait for the conversion to complete.
+     */
+    protected void materializeClaims() {
+        if (deferredClaims != null) {
+            synchronized (this) {
+                final var deferred = deferredClaims;
+                if (deferred != null && !materializing) {
+                    materializing = true;
+                    try {
+                        for (final var entry : deferred.claims.entrySet()) {
+                            final var name = entry.getKey();
+                            if (!JwtClaims.SUBJECT.equals(name) && !JwtGenerator.INTERNAL_ROLES.equals(name)
+                                && !JwtGenerator.INTERNAL_PERMISSIONS.equals(name) && !JwtGenerator.INTERNAL_LINKEDID.equals(name)) {
+                                deferred.profileDefinition.convertAndAdd(this, AttributeLocation.PROFILE_ATTRIBUTE, name,
+                                    entry.getValue());
+                            }
+                        }
+                        deferredClaims = null;
+                    } finally {
+                        materializing = false;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy the attributes to another profile, keeping the claims deferred.
+     *
+     * @param target the target profile
+     */
+    public synchronized void copyAttributesTo(final JwtProfile target) {
+        for (final var entry : super.getAttributes().entrySet()) {
+            target.addAttribute(entry.getKey(), entry.getValue());
+        }
+        final var deferred = deferredClaims;
+        if (deferred != null) {
+            target.deferClaims(deferred.claims, deferred.profileDefinition);
+        }
+    }
+
+    @Override
+    public Object getAttribute(final String name) {
+        materializeClaims();
+        return super.getAttribute(name);
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+        materializeClaims();
+        return super.getAttributes();
+    }
+
+    @Override
+    public boolean containsAttribute(final String name) {
+        materializeClaims();
+        return super.containsAttribute(name);
+    }
+
+    @Override
+    public void addAttribute(final String key, final Object value) {
+        materializeClaims();
+        super.addAttribute(key, value);
+    }
+
+    @Override
+    public void removeAttribute(final String key) {
+        materializeClaims();
+        super.removeAttribute(key);
+    }
+
+    @Override
+    public void removeLoginData() {
+        materializeClaims();
+        super.removeLoginData();
+    }
+
+    @Override
+    public void writeExternal(final ObjectOutput out) throws IOException {
+        materializeClaims();
+        super.writeExternal(out);
+    }
+
+    @Override
+    public String toString() {
+        materializeClaims();
+        return super.toString();
+    }
+
+    private static final class DeferredClaims {
+
+        private final Map<String, Object> claims;
+
+        private final ProfileDefinition profileDefinition;
+
+        private DeferredClaims(final Map<String, Object> claims, final ProfileDefinition profileDefinition) {
+            this.claims = claims;
+            this.profileDefinition = profileDefinition;
+        }
+    }
 }
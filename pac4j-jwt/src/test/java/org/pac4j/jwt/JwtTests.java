@@ -1,7 +1,9 @@
 package org.pac4j.jwt;
 
 import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jwt.SignedJWT;
 import org.junit.Test;
 import org.pac4j.core.credentials.TokenCredentials;
 import org.pac4j.core.exception.CredentialsException;
@@ -19,6 +21,7 @@ import org.pac4j.jwt.config.signature.ECSignatureConfiguration;
 import org.pac4j.jwt.config.signature.SecretSignatureConfiguration;
 import org.pac4j.jwt.config.signature.SignatureConfiguration;
 import org.pac4j.jwt.credentials.authenticator.JwtAuthenticator;
+import org.pac4j.jwt.credentials.authenticator.VerifiedTokenCache;
 import org.pac4j.jwt.profile.JwtGenerator;
 import org.pac4j.jwt.profile.JwtProfile;
 import org.pac4j.oauth.profile.facebook.FacebookProfile;
@@ -28,17 +31,18 @@ import org.pac4j.oauth.profile.twitter.TwitterProfileDefinition;
 
 import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotNull;
-import static org.junit.Assert.assertNull;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /**
  * This class tests the {@link JwtGenerator} and {@link org.pac4j.jwt.credentials.authenticator.JwtAuthenticator}.
@@ -351,6 +355,228 @@ public final class JwtTests implements TestsConstants {
         assertEquals(PERMISSIONS, profile2.getPermissions());
     }
 
+    @Test
+    public void testVerifiedTokenCache() {
+        final var generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET),
+            new SecretEncryptionConfiguration(MAC_SECRET));
+        final var profile = createProfile();
+        profile.addRoles(ROLES);
+        final var token = generator.generate(profile);
+        final var authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET),
+            new SecretEncryptionConfiguration(MAC_SECRET));
+        final var cache = new VerifiedTokenCache();
+        authenticator.setVerifiedTokenCache(cache);
+
+        final var profile1 = assertToken(profile, token, authenticator);
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getSize());
+        final var profile2 = assertToken(profile, token, authenticator);
+        assertEquals(1, cache.getHitCount());
+        assertTrue(profile1 != profile2);
+        assertEquals(ROLES, profile2.getRoles());
+
+        authenticator.addSignatureConfiguration(new SecretSignatureConfiguration(KEY2));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testVerifiedTokenCacheKeyChanged() {
+        final var token = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET)).generate(createProfile());
+        final var signatureConfiguration = new SecretSignatureConfiguration(MAC_SECRET);
+        final var authenticator = new JwtAuthenticator(signatureConfiguration);
+        final var cache = new VerifiedTokenCache();
+        authenticator.setVerifiedTokenCache(cache);
+        assertNotNull(authenticator.validateToken(token));
+        assertNotNull(authenticator.validateToken(token));
+        assertEquals(1, cache.getHitCount());
+
+        signatureConfiguration.setSecret(KEY2);
+        assertNull(authenticator.validateToken(token));
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testVerifiedTokenCacheConfigurationsListChanged() {
+        final var token = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET)).generate(createProfile());
+        final var authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        final var cache = new VerifiedTokenCache();
+        authenticator.setVerifiedTokenCache(cache);
+        assertNotNull(authenticator.validateToken(token));
+
+        authenticator.getSignatureConfigurations().set(0, new SecretSignatureConfiguration(KEY2));
+        assertNull(authenticator.validateToken(token));
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void testVerifiedTokenCacheExpiredToken() {
+        final var authenticator = new JwtAuthenticator();
+        final var cache = new VerifiedTokenCache();
+        authenticator.setVerifiedTokenCache(cache);
+        final var generator = new JwtGenerator();
+        generator.setExpirationTime(new Date(new Date().getTime() - 1000));
+        final var token = generator.generate(createProfile());
+
+        final var credentials = new TokenCredentials(token);
+        authenticator.validate(credentials, null, null);
+        assertNull(credentials.getUserProfile());
+        assertEquals(0, cache.getSize());
+    }
+
+    private static final class CountingSignatureConfiguration extends SecretSignatureConfiguration {
+        private int nbVerifications;
+
+        private CountingSignatureConfiguration(final String secret, final String keyId) {
+            super(secret);
+            setKeyId(keyId);
+        }
+
+        @Override
+        public boolean verify(final SignedJWT jwt) throws JOSEException {
+            nbVerifications++;
+            return super.verify(jwt);
+        }
+    }
+
+    @Test
+    public void testKeyIdIndexedConfigurations() {
+        final var oldConfiguration = new CountingSignatureConfiguration(KEY2, "old");
+        final var newConfiguration = new CountingSignatureConfiguration(MAC_SECRET, "new");
+        final var authenticator = new JwtAuthenticator(Arrays.asList(oldConfiguration, newConfiguration));
+        final var encryptionConfiguration = new SecretEncryptionConfiguration(MAC_SECRET);
+        encryptionConfiguration.setKeyId("enc");
+        authenticator.addEncryptionConfiguration(new SecretEncryptionConfiguration(KEY2));
+        authenticator.addEncryptionConfiguration(encryptionConfiguration);
+
+        final var generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET), encryptionConfiguration);
+        ((SecretSignatureConfiguration) generator.getSignatureConfiguration()).setKeyId("new");
+        final var profile = createProfile();
+        assertToken(profile, generator.generate(profile), authenticator);
+        assertEquals(0, oldConfiguration.nbVerifications);
+        assertEquals(1, newConfiguration.nbVerifications);
+
+        // no key identifier: sequential scan
+        final var generator2 = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET), encryptionConfiguration);
+        assertToken(profile, generator2.generate(profile), authenticator);
+        assertEquals(1, oldConfiguration.nbVerifications);
+        assertEquals(2, newConfiguration.nbVerifications);
+    }
+
+    @Test
+    public void testKeyIdMatchingConfigurationFallback() {
+        final var matchingConfiguration = new CountingSignatureConfiguration(KEY2, "kid");
+        final var otherConfiguration = new CountingSignatureConfiguration(MAC_SECRET, null);
+        final var authenticator = new JwtAuthenticator(Arrays.asList(otherConfiguration, matchingConfiguration));
+
+        final var signatureConfiguration = new SecretSignatureConfiguration(MAC_SECRET);
+        signatureConfiguration.setKeyId("kid");
+        final var profile = createProfile();
+        assertToken(profile, new JwtGenerator(signatureConfiguration).generate(profile), authenticator);
+        assertEquals(1, matchingConfiguration.nbVerifications);
+        assertEquals(1, otherConfiguration.nbVerifications);
+    }
+
+    @Test
+    public void testKeyIdChangedAfterFirstUse() {
+        final var firstConfiguration = new CountingSignatureConfiguration(KEY2, "first");
+        final var secondConfiguration = new CountingSignatureConfiguration(MAC_SECRET, "second");
+        final var authenticator = new JwtAuthenticator(Arrays.asList(firstConfiguration, secondConfiguration));
+
+        final var signatureConfiguration = new SecretSignatureConfiguration(MAC_SECRET);
+        signatureConfiguration.setKeyId("second");
+        final var profile = createProfile();
+        assertToken(profile, new JwtGenerator(signatureConfiguration).generate(profile), authenticator);
+        assertEquals(0, firstConfiguration.nbVerifications);
+
+        signatureConfiguration.setKeyId("renamed");
+        secondConfiguration.setKeyId("renamed");
+        assertToken(profile, new JwtGenerator(signatureConfiguration).generate(profile), authenticator);
+        assertEquals(0, firstConfiguration.nbVerifications);
+        assertEquals(2, secondConfiguration.nbVerifications);
+    }
+
+    @Test
+    public void testKeyIdIndexReused() {
+        final var firstConfiguration = new CountingSignatureConfiguration(KEY2, "first");
+        final var secondConfiguration = new CountingSignatureConfiguration(MAC_SECRET, "second");
+        final var authenticator = new JwtAuthenticator(new ArrayList<>(Arrays.asList(firstConfiguration, secondConfiguration))) {
+            List<SignatureConfiguration> select(final String keyId) {
+                return selectSignatureConfigurations(keyId);
+            }
+        };
+        final var selected = authenticator.select("second");
+        assertEquals(Arrays.asList(secondConfiguration, firstConfiguration), selected);
+        assertSame(selected, authenticator.select("second"));
+        assertEquals(Arrays.asList(firstConfiguration, secondConfiguration), authenticator.select("unknown"));
+        assertEquals(Arrays.asList(firstConfiguration, secondConfiguration), authenticator.select(null));
+
+        final var thirdConfiguration = new CountingSignatureConfiguration(MAC_SECRET, "second");
+        authenticator.getSignatureConfigurations().add(thirdConfiguration);
+        assertEquals(Arrays.asList(secondConfiguration, thirdConfiguration, firstConfiguration), authenticator.select("second"));
+    }
+
+    @Test
+    public void testGenerateAll() {
+        final var generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET),
+            new SecretEncryptionConfiguration(MAC_SECRET));
+        generator.setParallelism(2);
+        final List<FacebookProfile> profiles = new ArrayList<>();
+        for (var i = 0; i < 20; i++) {
+            final var profile = createProfile();
+            profile.setId(ID + i);
+            profiles.add(profile);
+        }
+        final var tokens = generator.generateAll(profiles).collect(Collectors.toList());
+        assertEquals(profiles.size(), tokens.size());
+        for (var i = 0; i < profiles.size(); i++) {
+            assertToken(profiles.get(i), tokens.get(i));
+        }
+    }
+
+    @Test
+    public void testGenerateAllClaims() {
+        final var generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET));
+        generator.setExecutor(Runnable::run);
+        final var authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        final var subjects = generator.generateAll(Stream.of(Map.<String, Object>of(JwtClaims.SUBJECT, VALUE),
+            Map.<String, Object>of(JwtClaims.SUBJECT, ID)))
+            .map(token -> authenticator.validateToken(token).getId())
+            .collect(Collectors.toList());
+        assertEquals(Arrays.asList(VALUE, ID), subjects);
+    }
+
+    @Test
+    public void testGenerateAllFailure() {
+        final var generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET));
+        final var profile = createProfile();
+        profile.addAttribute(JwtGenerator.INTERNAL_ROLES, VALUE);
+        TestsHelper.expectException(() -> generator.generateAll(Arrays.asList(createProfile(), profile)).count(),
+            TechnicalException.class, JwtGenerator.INTERNAL_ROLES + " must be null");
+    }
+
+    @Test
+    public void testDeferClaims() {
+        final var generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET));
+        final Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtClaims.SUBJECT, VALUE);
+        claims.put(JwtClaims.ISSUER, CALLBACK_URL);
+        claims.put(JwtClaims.EXPIRATION_TIME, tomorrow());
+        claims.put(JwtGenerator.INTERNAL_ROLES, Arrays.asList("role1", "role2"));
+        claims.put(KEY, Arrays.asList(NAME, VALUE));
+        final var token = generator.generate(claims);
+
+        final var authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        final var eagerProfile = (JwtProfile) authenticator.validateToken(token);
+        authenticator.setDeferClaims(true);
+        final var lazyProfile = (JwtProfile) authenticator.validateToken(token);
+        assertEquals(VALUE, lazyProfile.getId());
+        assertEquals(ROLES, lazyProfile.getRoles());
+        assertEquals(CALLBACK_URL, lazyProfile.getIssuer());
+        assertEquals(eagerProfile.getAttributes(), lazyProfile.getAttributes());
+        assertNull(lazyProfile.getAttribute(JwtGenerator.INTERNAL_ROLES));
+    }
+
     private UserProfile assertToken(FacebookProfile profile, String token) {
         return assertToken(profile, token, new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET),
             new SecretEncryptionConfiguration(MAC_SECRET)));
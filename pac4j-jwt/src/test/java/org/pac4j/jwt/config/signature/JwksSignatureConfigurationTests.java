@@ -0,0 +1,256 @@
+package org.pac4j.jwt.config.signature;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.jwt.config.AbstractKeyEncryptionConfigurationTests;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.KeyPair;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link JwksSignatureConfiguration}.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class JwksSignatureConfigurationTests extends AbstractKeyEncryptionConfigurationTests {
+
+    private final List<RSAKey> publishedKeys = new ArrayList<>();
+
+    private final AtomicInteger nbRequests = new AtomicInteger();
+
+    private HttpServer server;
+
+    private JwksSignatureConfiguration configuration;
+
+    @Override
+    protected String getAlgorithm() {
+        return "RSA";
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/jwks", exchange -> {
+            nbRequests.incrementAndGet();
+            final byte[] body;
+            synchronized (publishedKeys) {
+                body = new JWKSet(new ArrayList<>(publishedKeys)).toString().getBytes(StandardCharsets.UTF_8);
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        if (configuration != null) {
+            configuration.destroy();
+        }
+        server.stop(0);
+    }
+
+    private String jwksUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/jwks";
+    }
+
+    private KeyPair publish(final String keyId) {
+        final var keyPair = buildKeyPair();
+        synchronized (publishedKeys) {
+            publishedKeys.add(new RSAKey.Builder((RSAPublicKey) keyPair.getPublic()).keyID(keyId).build());
+        }
+        return keyPair;
+    }
+
+    private RSASignatureConfiguration signer(final KeyPair keyPair, final String keyId) {
+        final var signer = new RSASignatureConfiguration(keyPair);
+        signer.setKeyId(keyId);
+        return signer;
+    }
+
+    private JWTClaimsSet buildClaims() {
+        return new JWTClaimsSet.Builder().subject(VALUE).build();
+    }
+
+    @Test
+    public void testMissingUrl() {
+        configuration = new JwksSignatureConfiguration();
+        TestsHelper.expectException(configuration::init, TechnicalException.class, "jwksUrl cannot be blank");
+    }
+
+    @Test
+    public void testCannotSign() {
+        configuration = new JwksSignatureConfiguration(jwksUrl());
+        TestsHelper.expectException(() -> configuration.sign(buildClaims()), TechnicalException.class,
+            "The JwksSignatureConfiguration only holds public keys and cannot sign JWT");
+    }
+
+    @Test
+    public void testVerifyFromFile() throws IOException, JOSEException {
+        final var keyPair = publish("k1");
+        final var file = File.createTempFile("jwks", ".json");
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), new JWKSet(new ArrayList<>(publishedKeys)).toString());
+        configuration = new JwksSignatureConfiguration("file:" + file.getAbsolutePath());
+        assertTrue(configuration.verify(signer(keyPair, "k1").sign(buildClaims())));
+        assertFalse(configuration.verify(signer(buildKeyPair(), "k1").sign(buildClaims())));
+    }
+
+    @Test
+    public void testVerifyFromUrlAndRefetchUnknownKey() throws JOSEException, InterruptedException {
+        final var keyPair1 = publish("k1");
+        configuration = new JwksSignatureConfiguration(jwksUrl());
+        assertTrue(configuration.verify(signer(keyPair1, "k1").sign(buildClaims())));
+        assertEquals(1, nbRequests.get());
+
+        // key rotation: the unknown key is refetched in the background
+        final var keyPair2 = publish("k2");
+        final var jwt = signer(keyPair2, "k2").sign(buildClaims());
+        assertFalse(configuration.verify(jwt));
+        var verified = false;
+        for (var i = 0; i < 50 && !verified; i++) {
+            Thread.sleep(100);
+            verified = configuration.verify(jwt);
+        }
+        assertTrue(verified);
+        assertEquals(2, nbRequests.get());
+
+        // rate limited
+        assertFalse(configuration.verify(signer(buildKeyPair(), "k3").sign(buildClaims())));
+        Thread.sleep(200);
+        assertEquals(2, nbRequests.get());
+    }
+
+    @Test
+    public void testServerDownKeepsKeys() throws JOSEException {
+        final var keyPair = publish("k1");
+        configuration = new JwksSignatureConfiguration(jwksUrl());
+        configuration.init();
+        configuration.awaitInitialLoad();
+        server.stop(0);
+        configuration.refresh();
+        assertTrue(configuration.verify(signer(keyPair, "k1").sign(buildClaims())));
+    }
+
+    @Test
+    public void testKeyGenerationOnlyChangedByRemovedKeys() {
+        publish("k1");
+        configuration = new JwksSignatureConfiguration(jwksUrl());
+        configuration.init();
+        configuration.awaitInitialLoad();
+        final var generation = configuration.getKeyGeneration();
+
+        publish("k2");
+        configuration.refresh();
+        assertEquals(generation, configuration.getKeyGeneration());
+
+        synchronized (publishedKeys) {
+            publishedKeys.remove(0);
+        }
+        configuration.refresh();
+        assertNotEquals(generation, configuration.getKeyGeneration());
+    }
+
+    @Test
+    public void testAsynchronousInitialLoad() throws JOSEException {
+        final var keyPair = publish("k1");
+        configuration = new JwksSignatureConfiguration(jwksUrl());
+        configuration.init();
+        configuration.awaitInitialLoad();
+        assertEquals(1, nbRequests.get());
+        assertTrue(configuration.verify(signer(keyPair, "k1").sign(buildClaims())));
+        assertEquals(1, nbRequests.get());
+    }
+
+    @Test
+    public void testInitialLoadOnCallerThreadWhenExecutorBusy() throws Exception {
+        final var keyPair = publish("k1");
+        final var executor = new ScheduledThreadPoolExecutor(1);
+        final var release = new CountDownLatch(1);
+        try {
+            // another JWK set is slow to load
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            configuration = new JwksSignatureConfiguration(jwksUrl());
+            configuration.setExecutor(executor);
+            assertTrue(configuration.verify(signer(keyPair, "k1").sign(buildClaims())));
+            assertEquals(1, nbRequests.get());
+
+            release.countDown();
+            executor.submit(() -> null).get(5, TimeUnit.SECONDS);
+            assertEquals(1, nbRequests.get());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReinitCancelsPreviousRefresh() throws InterruptedException {
+        final var executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        try {
+            configuration = new JwksSignatureConfiguration(jwksUrl());
+            configuration.setExecutor(executor);
+            configuration.init();
+            configuration.reinit();
+            configuration.awaitInitialLoad();
+            for (var i = 0; i < 50 && executor.getQueue().size() > 1; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, executor.getQueue().size());
+            configuration.destroy();
+            assertEquals(0, executor.getQueue().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSharedExecutor() {
+        publish("k1");
+        configuration = new JwksSignatureConfiguration(jwksUrl());
+        configuration.init();
+        final var configuration2 = new JwksSignatureConfiguration(jwksUrl());
+        try {
+            configuration2.init();
+            configuration.awaitInitialLoad();
+            configuration2.awaitInitialLoad();
+            final var nbThreads = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> "pac4j-jwks-refresh".equals(thread.getName()))
+                .count();
+            assertEquals(1, nbThreads);
+        } finally {
+            configuration2.destroy();
+        }
+    }
+}
@@ -13,7 +13,7 @@ import org.pac4j.jwt.util.JWKHelper;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /**
  * Tests {@link RSASignatureConfiguration}.
@@ -72,4 +72,18 @@ public final class RSASignatureConfigurationTests extends AbstractKeyEncryptionC
         final var signedJwt = config.sign(claims);
         assertTrue(config.verify(signedJwt));
     }
+
+    @Test
+    public void testReuseSignerVerifier() throws JOSEException {
+        final var config = new RSASignatureConfiguration(buildKeyPair());
+        final var signedJwt = config.sign(buildClaims());
+        assertTrue(config.verify(signedJwt));
+        final var verifier = config.getVerifier();
+        assertTrue(config.verify(config.sign(buildClaims())));
+        assertSame(verifier, config.getVerifier());
+
+        config.setKeyPair(buildKeyPair());
+        assertNotSame(verifier, config.getVerifier());
+        assertFalse(config.verify(signedJwt));
+    }
 }
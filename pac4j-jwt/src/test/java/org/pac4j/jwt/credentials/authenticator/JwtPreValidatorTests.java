@@ -0,0 +1,118 @@
+package org.pac4j.jwt.credentials.authenticator;
+
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWSAlgorithm;
+import org.junit.Test;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.jwt.config.encryption.SecretEncryptionConfiguration;
+import org.pac4j.jwt.config.signature.SecretSignatureConfiguration;
+import org.pac4j.jwt.profile.JwtGenerator;
+
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link JwtPreValidator}.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class JwtPreValidatorTests implements TestsConstants {
+
+    private final JwtPreValidator validator = new JwtPreValidator();
+
+    private String buildToken(final boolean encrypted) {
+        final var profile = new CommonProfile();
+        profile.setId(ID);
+        profile.addAttribute(KEY, VALUE);
+        final var generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET));
+        if (encrypted) {
+            generator.setEncryptionConfiguration(new SecretEncryptionConfiguration(MAC_SECRET));
+        }
+        return generator.generate(profile);
+    }
+
+    private void assertRejected(final String token, final JwtPreValidator.Rejection rejection) {
+        final var count = validator.getRejectionCount(rejection);
+        assertTrue(TestsHelper.expectException(() -> validator.check(token)) instanceof CredentialsException);
+        assertEquals(count + 1, validator.getRejectionCount(rejection));
+    }
+
+    @Test
+    public void testValidTokens() {
+        validator.setAllowedAlgorithms(Set.of(JWSAlgorithm.HS256.getName(), JWEAlgorithm.DIR.getName()));
+        validator.setAllowedEncryptionMethods(Set.of(EncryptionMethod.A256GCM.getName()));
+        validator.setMaxClaimsSize(1024);
+        validator.check(buildToken(false));
+        validator.check(buildToken(true));
+        assertEquals(0, validator.getRejectionCount());
+    }
+
+    @Test
+    public void testLength() {
+        validator.setMaxLength(10);
+        assertRejected(buildToken(false), JwtPreValidator.Rejection.LENGTH);
+        assertRejected("", JwtPreValidator.Rejection.LENGTH);
+    }
+
+    @Test
+    public void testStructure() {
+        assertRejected("fakeToken", JwtPreValidator.Rejection.STRUCTURE);
+        assertRejected("a.b.c.d", JwtPreValidator.Rejection.STRUCTURE);
+        assertRejected("a.b.c.d.e.f", JwtPreValidator.Rejection.STRUCTURE);
+        assertRejected("a b.c.d", JwtPreValidator.Rejection.STRUCTURE);
+        assertRejected(".b.c", JwtPreValidator.Rejection.STRUCTURE);
+    }
+
+    @Test
+    public void testPaddedSegments() {
+        final var segments = buildToken(false).split("\\.");
+        final var header = segments[0] + "=".repeat((4 - segments[0].length() % 4) % 4);
+        validator.check(header + "." + segments[1] + "." + segments[2]);
+        assertEquals(0, validator.getRejectionCount());
+    }
+
+    @Test
+    public void testHeader() {
+        assertRejected("abc.def.ghi", JwtPreValidator.Rejection.HEADER);
+        // {"typ":"JWT"}
+        assertRejected("eyJ0eXAiOiJKV1QifQ.e30.", JwtPreValidator.Rejection.HEADER);
+        final var encryptedToken = buildToken(true);
+        final var segments = encryptedToken.split("\\.");
+        assertRejected(segments[0] + "." + segments[2] + ".", JwtPreValidator.Rejection.HEADER);
+    }
+
+    @Test
+    public void testAlgorithms() {
+        validator.setAllowedAlgorithms(Set.of(JWSAlgorithm.RS256.getName(), JWEAlgorithm.DIR.getName()));
+        assertRejected(buildToken(false), JwtPreValidator.Rejection.ALGORITHM);
+        validator.setAllowedEncryptionMethods(Set.of(EncryptionMethod.A128GCM.getName()));
+        assertRejected(buildToken(true), JwtPreValidator.Rejection.ENCRYPTION_METHOD);
+    }
+
+    @Test
+    public void testClaimsSize() {
+        validator.setMaxClaimsSize(10);
+        assertRejected(buildToken(false), JwtPreValidator.Rejection.CLAIMS_SIZE);
+        assertRejected(buildToken(true), JwtPreValidator.Rejection.CLAIMS_SIZE);
+    }
+
+    @Test
+    public void testAuthenticatorRejection() {
+        final var authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        assertNull(authenticator.getPreValidator());
+        authenticator.setPreValidator(new JwtPreValidator());
+        authenticator.getPreValidator().setMaxLength(10);
+        TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(buildToken(false)), null, null),
+            CredentialsException.class, "JWT rejected by pre-validation: length");
+        assertEquals(1, authenticator.getPreValidator().getRejectionCount(JwtPreValidator.Rejection.LENGTH));
+    }
+}
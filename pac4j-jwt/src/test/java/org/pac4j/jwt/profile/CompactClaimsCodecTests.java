@@ -0,0 +1,164 @@
+package org.pac4j.jwt.profile;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.jwt.config.signature.SecretSignatureConfiguration;
+import org.pac4j.jwt.credentials.authenticator.JwtAuthenticator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link CompactClaimsCodec}.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class CompactClaimsCodecTests implements TestsConstants {
+
+    private static final String LONG_NAME = "a_very_long_attribute_name";
+
+    private final List<String> dictionary = new ArrayList<>();
+
+    private CommonProfile profile;
+
+    @Before
+    public void setUp() {
+        profile = new CommonProfile();
+        profile.setId(ID);
+        profile.setLinkedId(VALUE);
+        profile.addAttribute(LONG_NAME, VALUE);
+        profile.addAttribute(KEY, NAME);
+        for (var i = 0; i < 80; i++) {
+            dictionary.add("ROLE_APPLICATION_" + i);
+            profile.addRole("ROLE_APPLICATION_" + i);
+        }
+        profile.addRole("ROLE_NOT_IN_DICTIONARY");
+        profile.addPermission("ROLE_APPLICATION_3");
+    }
+
+    private CompactClaimsCodec buildCodec() {
+        final var codec = new CompactClaimsCodec();
+        final Map<String, String> aliases = new HashMap<>();
+        aliases.put(LONG_NAME, "n");
+        codec.setAliases(aliases);
+        codec.addDictionary("1", dictionary);
+        codec.setCurrentVersion("1");
+        codec.setDeflate(true);
+        return codec;
+    }
+
+    private JwtAuthenticator buildAuthenticator(final CompactClaimsCodec codec) {
+        final var authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        authenticator.setCompactClaimsCodec(codec);
+        return authenticator;
+    }
+
+    @Test
+    public void testGenerateAuthenticate() {
+        final var plainToken = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET)).generate(profile);
+        final var generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET));
+        generator.setCompactClaimsCodec(buildCodec());
+        final var token = generator.generate(profile);
+        assertTrue(token.length() * 3 < plainToken.length());
+
+        final var profile2 = buildAuthenticator(buildCodec()).validateToken(token);
+        assertEquals(profile.getTypedId(), profile2.getTypedId());
+        assertEquals(VALUE, profile2.getAttribute(LONG_NAME));
+        assertEquals(NAME, profile2.getAttribute(KEY));
+        assertEquals(profile.getRoles(), profile2.getRoles());
+        assertEquals(profile.getPermissions(), profile2.getPermissions());
+        assertEquals(VALUE, profile2.getLinkedId());
+        assertNull(profile2.getAttribute("n"));
+    }
+
+    @Test
+    public void testEncodeDecodeClaims() {
+        final var codec = buildCodec();
+        codec.setDeflate(false);
+        final Map<String, Object> claims = new HashMap<>();
+        claims.put(LONG_NAME, VALUE);
+        claims.put(JwtGenerator.INTERNAL_ROLES, new HashSet<>(dictionary.subList(0, 2)));
+        final var encoded = codec.encode(claims);
+        assertEquals(VALUE, encoded.get("n"));
+        assertEquals("1", encoded.get(CompactClaimsCodec.DICTIONARY_VERSION));
+        final var decoded = codec.decode(encoded);
+        assertEquals(VALUE, decoded.get(LONG_NAME));
+        assertEquals(dictionary.subList(0, 2), decoded.get(JwtGenerator.INTERNAL_ROLES));
+    }
+
+    @Test
+    public void testClaimConflictingWithAlias() {
+        final var codec = buildCodec();
+        final Map<String, Object> claims = new HashMap<>();
+        claims.put(LONG_NAME, VALUE);
+        claims.put("n", NAME);
+        TestsHelper.expectException(() -> codec.encode(claims), TechnicalException.class,
+            "The claim: n conflicts with the alias of the claim: " + LONG_NAME);
+    }
+
+    @Test
+    public void testReservedAttributeNamesEscaped() {
+        final var attributeProfile = new CommonProfile();
+        attributeProfile.setId(ID);
+        attributeProfile.addAttribute(CompactClaimsCodec.ROLES, List.of("admin"));
+        attributeProfile.addAttribute(CompactClaimsCodec.LINKEDID, VALUE);
+        attributeProfile.addAttribute("$$" + NAME, VALUE);
+        for (final var deflate : new boolean[] {false, true}) {
+            final var codec = buildCodec();
+            codec.setDeflate(deflate);
+            final var generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET));
+            generator.setCompactClaimsCodec(codec);
+
+            final var profile2 = buildAuthenticator(buildCodec()).validateToken(generator.generate(attributeProfile));
+            assertEquals(List.of("admin"), profile2.getAttribute(CompactClaimsCodec.ROLES));
+            assertEquals(VALUE, profile2.getAttribute(CompactClaimsCodec.LINKEDID));
+            assertEquals(VALUE, profile2.getAttribute("$$" + NAME));
+            assertTrue(profile2.getRoles().isEmpty());
+            assertNull(profile2.getLinkedId());
+        }
+    }
+
+    @Test
+    public void testInvalidReservedClaims() {
+        final var codec = buildCodec();
+        TestsHelper.expectException(() -> codec.decode(Map.of(CompactClaimsCodec.COMPACT, 1, CompactClaimsCodec.ROLES, "admin")),
+            CredentialsException.class, "The claim: $r must be a list of strings");
+        TestsHelper.expectException(() -> codec.decode(Map.of(CompactClaimsCodec.COMPACT, 1, CompactClaimsCodec.PERMISSIONS,
+            List.of(1))), CredentialsException.class, "The claim: $p must be a string");
+        TestsHelper.expectException(() -> codec.decode(Map.of(CompactClaimsCodec.COMPACT, 1, CompactClaimsCodec.LINKEDID, 1)),
+            CredentialsException.class, "The claim: $l must be a string");
+        TestsHelper.expectException(() -> codec.decode(Map.of(CompactClaimsCodec.COMPACT, 1, CompactClaimsCodec.DICTIONARY_VERSION,
+            1)), CredentialsException.class, "The claim: $v must be a string");
+        TestsHelper.expectException(() -> codec.decode(Map.of(CompactClaimsCodec.COMPACT, 1, "$q", VALUE)),
+            CredentialsException.class, "Unknown reserved claim: $q");
+    }
+
+    @Test
+    public void testUnknownDictionaryVersion() {
+        final var generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET));
+        generator.setCompactClaimsCodec(buildCodec());
+        final var token = generator.generate(profile);
+
+        final var codec = new CompactClaimsCodec();
+        codec.addDictionary("2", dictionary);
+        assertNull(buildAuthenticator(codec).validateToken(token));
+    }
+
+    @Test
+    public void testNoCodecInAuthenticator() {
+        final var generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET));
+        generator.setCompactClaimsCodec(buildCodec());
+        assertNull(buildAuthenticator(null).validateToken(generator.generate(profile)));
+    }
+}
@@ -0,0 +1,91 @@
+package org.pac4j.jwt.profile;
+
+import org.junit.Test;
+import org.pac4j.core.profile.AttributeLocation;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link JwtProfile}.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class JwtProfileTests implements TestsConstants {
+
+    private static final int NB_CLAIMS = 100;
+
+    private static final class CountingProfileDefinition extends JwtProfileDefinition {
+
+        private final AtomicInteger nbConversions = new AtomicInteger();
+
+        @Override
+        public void convertAndAdd(final UserProfile profile, final AttributeLocation attributeLocation, final String name,
+                                  final Object value) {
+            nbConversions.incrementAndGet();
+            super.convertAndAdd(profile, attributeLocation, name, value);
+        }
+    }
+
+    private static Map<String, Object> buildClaims() {
+        final Map<String, Object> claims = new HashMap<>();
+        for (var i = 0; i < NB_CLAIMS; i++) {
+            claims.put(KEY + i, VALUE + i);
+        }
+        return claims;
+    }
+
+    @Test
+    public void testConcurrentMaterialization() throws Exception {
+        final var definition = new CountingProfileDefinition();
+        final var profile = new JwtProfile();
+        profile.deferClaims(buildClaims(), definition);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final var start = new CountDownLatch(1);
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for (var i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return profile.getAttributes().size();
+                }));
+            }
+            start.countDown();
+            for (final var future : futures) {
+                assertEquals(NB_CLAIMS, (int) future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(NB_CLAIMS, definition.nbConversions.get());
+    }
+
+    @Test
+    public void testCopyKeepsClaimsDeferred() {
+        final var definition = new CountingProfileDefinition();
+        final var profile = new JwtProfile();
+        profile.addAttribute(NAME, VALUE);
+        profile.deferClaims(buildClaims(), definition);
+
+        final var copy = new JwtProfile();
+        profile.copyAttributesTo(copy);
+        assertEquals(0, definition.nbConversions.get());
+        assertEquals(NB_CLAIMS + 1, copy.getAttributes().size());
+        assertEquals(VALUE, copy.getAttribute(NAME));
+        assertEquals(NB_CLAIMS, definition.nbConversions.get());
+        assertEquals(copy.getAttributes(), profile.getAttributes());
+    }
+}
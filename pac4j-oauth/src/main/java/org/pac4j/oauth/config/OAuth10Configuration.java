@@ -19,7 +19,7 @@ public class OAuth10Configuration extends OAuthConfiguration {
     public static final String REQUEST_TOKEN = "requestToken";
 
     /**
-     * Build an OAuth service from the web context.
+     * Build (or reuse) an OAuth service from the web context.
      *
      * @param context the web context
      * @param client the client
@@ -31,8 +31,8 @@ public class OAuth10Configuration extends OAuthConfiguration {
 
         final var finalCallbackUrl = client.computeFinalCallbackUrl(context);
 
-        return ((DefaultApi10a) api)
-            .createService(this.key, this.secret, finalCallbackUrl, this.scope, null, null, this.httpClientConfig, null);
+        return findService(finalCallbackUrl, callbackUrl -> ((DefaultApi10a) api)
+            .createService(this.key, this.secret, callbackUrl, this.scope, null, null, this.httpClientConfig, findHttpClient()));
     }
 
     /**
@@ -49,6 +49,7 @@ public class OAuth10Configuration extends OAuthConfiguration {
     public String toString() {
         return CommonHelper.toNiceString(this.getClass(), "key", key, "secret", "[protected]", "tokenAsHeader", tokenAsHeader,
             "responseType", responseType, "scope", scope, "api", api, "hasBeenCancelledFactory", hasBeenCancelledFactory,
-            "profileDefinition", profileDefinition, "httpClientConfig", httpClientConfig);
+            "profileDefinition", profileDefinition, "httpClientConfig", httpClientConfig,
+            "httpClient", httpClient);
     }
 }
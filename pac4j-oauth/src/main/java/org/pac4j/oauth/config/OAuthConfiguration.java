@@ -1,13 +1,20 @@
 package org.pac4j.oauth.config;
 
+import com.github.scribejava.core.httpclient.HttpClient;
 import com.github.scribejava.core.httpclient.HttpClientConfig;
 import com.github.scribejava.core.oauth.OAuthService;
 import org.pac4j.core.client.IndirectClient;
 import org.pac4j.core.client.config.BaseClientConfiguration;
+import org.pac4j.core.context.HttpConstants;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.util.CommonHelper;
+import org.pac4j.oauth.http.JdkOAuthHttpClient;
 import org.pac4j.oauth.profile.definition.OAuthProfileDefinition;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
 /**
  * The base OAuth configuration.
  *
@@ -36,10 +43,30 @@ public abstract class OAuthConfiguration extends BaseClientConfiguration {
 
     protected HttpClientConfig httpClientConfig;
 
+    /* shared by the OAuth services, ignored if a httpClientConfig is defined */
+    protected HttpClient httpClient = JdkOAuthHttpClient.getDefault();
+
+    /* max time to wait for the profile request (in milliseconds) */
+    protected int profileRequestTimeout = HttpConstants.DEFAULT_CONNECT_TIMEOUT + HttpConstants.DEFAULT_READ_TIMEOUT;
+
     protected Object api;
 
+    /* max number of cached OAuth services (one per callback URL) */
+    protected int maxServices = 100;
+
+    /* OAuth services by callback URL, in access order */
+    private final Map<String, OAuthService> services = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, OAuthService> eldest) {
+            return size() > maxServices;
+        }
+    };
+
     @Override
     protected void internalInit(final boolean forceReinit) {
+        clearServices();
         CommonHelper.assertNotNull("api", api);
         CommonHelper.assertNotBlank("key", this.key);
         CommonHelper.assertNotBlank("secret", this.secret);
@@ -49,12 +76,46 @@ public abstract class OAuthConfiguration extends BaseClientConfiguration {
 
     public abstract OAuthService buildService(final WebContext context, final IndirectClient client);
 
+    /**
+     * Return the OAuth service for a callback URL, created only once (and then reused with its HTTP client).
+     *
+     * @param callbackUrl the callback URL
+     * @param creator the way to create the OAuth service
+     * @return the OAuth service
+     */
+    protected OAuthService findService(final String callbackUrl, final Function<String, OAuthService> creator) {
+        synchronized (services) {
+            var service = services.get(callbackUrl);
+            if (service == null) {
+                service = creator.apply(callbackUrl);
+                services.put(callbackUrl, service);
+            }
+            return service;
+        }
+    }
+
+    /**
+     * Clear the cached OAuth services (when the configuration changes).
+     */
+    public void clearServices() {
+        synchronized (services) {
+            services.clear();
+        }
+    }
+
+    public int getNbServices() {
+        synchronized (services) {
+            return services.size();
+        }
+    }
+
     public String getKey() {
         return key;
     }
 
     public void setKey(final String key) {
         this.key = key;
+        clearServices();
     }
 
     public String getSecret() {
@@ -63,6 +124,7 @@ public abstract class OAuthConfiguration extends BaseClientConfiguration {
 
     public void setSecret(final String secret) {
         this.secret = secret;
+        clearServices();
     }
 
     public boolean isTokenAsHeader() {
@@ -79,6 +141,7 @@ public abstract class OAuthConfiguration extends BaseClientConfiguration {
 
     public void setResponseType(final String responseType) {
         this.responseType = responseType;
+        clearServices();
     }
 
     public String getScope() {
@@ -87,6 +150,7 @@ public abstract class OAuthConfiguration extends BaseClientConfiguration {
 
     public void setScope(final String scope) {
         this.scope = scope;
+        clearServices();
     }
 
     public HasBeenCancelledFactory getHasBeenCancelledFactory() {
@@ -111,6 +175,43 @@ public abstract class OAuthConfiguration extends BaseClientConfiguration {
 
     public void setHttpClientConfig(final HttpClientConfig httpClientConfig) {
         this.httpClientConfig = httpClientConfig;
+        clearServices();
+    }
+
+    /**
+     * Return the HTTP client to use for the OAuth services: <code>null</code> if a <code>httpClientConfig</code> is defined
+     * (scribejava then builds a client per service from it).
+     *
+     * @return the HTTP client
+     */
+    protected HttpClient findHttpClient() {
+        return httpClientConfig == null ? httpClient : null;
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public void setHttpClient(final HttpClient httpClient) {
+        this.httpClient = httpClient;
+        clearServices();
+    }
+
+    public int getProfileRequestTimeout() {
+        return profileRequestTimeout;
+    }
+
+    public void setProfileRequestTimeout(final int profileRequestTimeout) {
+        this.profileRequestTimeout = profileRequestTimeout;
+    }
+
+    public int getMaxServices() {
+        return maxServices;
+    }
+
+    public void setMaxServices(final int maxServices) {
+        this.maxServices = maxServices;
+        clearServices();
     }
 
     public Object getApi() {
@@ -119,5 +220,6 @@ public abstract class OAuthConfiguration extends BaseClientConfiguration {
 
     public void setApi(final Object api) {
         this.api = api;
+        clearServices();
     }
 }
@@ -0,0 +1,354 @@
+package org.pac4j.oauth.http;
+
+import com.github.scribejava.core.httpclient.HttpClient;
+import com.github.scribejava.core.httpclient.multipart.MultipartPayload;
+import com.github.scribejava.core.httpclient.multipart.MultipartUtils;
+import com.github.scribejava.core.model.OAuthAsyncRequestCallback;
+import com.github.scribejava.core.model.OAuthRequest;
+import com.github.scribejava.core.model.Response;
+import com.github.scribejava.core.model.Verb;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.util.CommonHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scribejava HTTP client based on a JDK {@link java.net.http.HttpClient}: the connections to the providers are kept
+ * alive and reused, the number of concurrent requests per host is bounded and the requests are executed asynchronously.
+ *
+ * It uses HTTP/2 (with fallback to HTTP/1.1) and the default connect and read timeouts of pac4j. A request exceeding
+ * the <code>maxConcurrentRequestsPerHost</code> fails immediately instead of blocking the calling thread. Changing the
+ * connect timeout, the HTTP version or the SSL context rebuilds the underlying JDK HTTP client.
+ *
+ * The {@link #getDefault()} instance is global: it is shared by all the OAuth configurations of the JVM (unless they define
+ * a <code>httpClientConfig</code> or their own HTTP client). Closing it has no effect as the services close their HTTP client.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public class JdkOAuthHttpClient implements HttpClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JdkOAuthHttpClient.class);
+
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "date", "expect", "from",
+        "host", "upgrade", "via", "warning");
+
+    private static final JdkOAuthHttpClient DEFAULT = new JdkOAuthHttpClient();
+
+    private int connectTimeout = HttpConstants.DEFAULT_CONNECT_TIMEOUT;
+
+    private volatile int readTimeout = HttpConstants.DEFAULT_READ_TIMEOUT;
+
+    private volatile int maxConcurrentRequestsPerHost = 64;
+
+    private java.net.http.HttpClient.Version version = java.net.http.HttpClient.Version.HTTP_2;
+
+    private volatile SSLContext sslContext;
+
+    private volatile java.net.http.HttpClient httpClient;
+
+    private final Map<String, Semaphore> semaphores = new ConcurrentHashMap<>();
+
+    private final LongAdder requestCount = new LongAdder();
+
+    private final LongAdder failureCount = new LongAdder();
+
+    /**
+     * Return the global instance, shared by all the OAuth configurations by default: its settings apply to all of them.
+     * To customize the settings of a single configuration, define a new instance on it
+     * (<code>configuration.setHttpClient(new JdkOAuthHttpClient())</code>).
+     *
+     * @return the global instance
+     */
+    public static JdkOAuthHttpClient getDefault() {
+        return DEFAULT;
+    }
+
+    @Override
+    public <T> Future<T> executeAsync(final String userAgent, final Map<String, String> headers, final Verb httpVerb,
+                                      final String completeUrl, final byte[] bodyContents,
+                                      final OAuthAsyncRequestCallback<T> callback, final OAuthRequest.ResponseConverter<T> converter) {
+        return doExecuteAsync(userAgent, headers, httpVerb, completeUrl,
+            bodyContents != null ? HttpRequest.BodyPublishers.ofByteArray(bodyContents) : null, null, callback, converter);
+    }
+
+    @Override
+    public <T> Future<T> executeAsync(final String userAgent, final Map<String, String> headers, final Verb httpVerb,
+                                      final String completeUrl, final MultipartPayload bodyContents,
+                                      final OAuthAsyncRequestCallback<T> callback, final OAuthRequest.ResponseConverter<T> converter) {
+        try {
+            return doExecuteAsync(userAgent, headers, httpVerb, completeUrl,
+                HttpRequest.BodyPublishers.ofByteArray(MultipartUtils.getPayload(bodyContents).toByteArray()),
+                "multipart/form-data; boundary=\"" + bodyContents.getBoundary() + "\"", callback, converter);
+        } catch (final IOException e) {
+            return failed(e, callback);
+        }
+    }
+
+    @Override
+    public <T> Future<T> executeAsync(final String userAgent, final Map<String, String> headers, final Verb httpVerb,
+                                      final String completeUrl, final String bodyContents,
+                                      final OAuthAsyncRequestCallback<T> callback, final OAuthRequest.ResponseConverter<T> converter) {
+        return doExecuteAsync(userAgent, headers, httpVerb, completeUrl,
+            bodyContents != null ? HttpRequest.BodyPublishers.ofString(bodyContents) : null, null, callback, converter);
+    }
+
+    @Override
+    public <T> Future<T> executeAsync(final String userAgent, final Map<String, String> headers, final Verb httpVerb,
+                                      final String completeUrl, final File bodyContents,
+                                      final OAuthAsyncRequestCallback<T> callback, final OAuthRequest.ResponseConverter<T> converter) {
+        try {
+            return doExecuteAsync(userAgent, headers, httpVerb, completeUrl,
+                bodyContents != null ? HttpRequest.BodyPublishers.ofFile(bodyContents.toPath()) : null, null, callback, converter);
+        } catch (final FileNotFoundException e) {
+            return failed(e, callback);
+        }
+    }
+
+    protected <T> CompletableFuture<T> doExecuteAsync(final String userAgent, final Map<String, String> headers,
+                                                      final Verb httpVerb, final String completeUrl,
+                                                      final HttpRequest.BodyPublisher body, final String defaultContentType,
+                                                      final OAuthAsyncRequestCallback<T> callback,
+                                                      final OAuthRequest.ResponseConverter<T> converter) {
+        requestCount.increment();
+        final HttpRequest request;
+        final Semaphore semaphore;
+        try {
+            final var uri = URI.create(completeUrl);
+            request = toHttpRequest(userAgent, headers, httpVerb, uri, body, defaultContentType);
+            semaphore = semaphores.computeIfAbsent(uri.getHost() + ":" + uri.getPort(),
+                key -> new Semaphore(maxConcurrentRequestsPerHost));
+            if (!semaphore.tryAcquire()) {
+                throw new IOException("Too many concurrent requests to: " + uri.getHost());
+            }
+        } catch (final IOException | RuntimeException e) {
+            return failed(e, callback);
+        }
+
+        final var future = new CompletableFuture<T>();
+        findHttpClient().sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .whenComplete((response, throwable) -> {
+                semaphore.release();
+                if (throwable != null) {
+                    complete(future, null, throwable, callback);
+                    return;
+                }
+                LOGGER.debug("{} {} -> {} ({})", httpVerb, completeUrl, response.statusCode(), response.version());
+                try {
+                    complete(future, convert(toResponse(response), converter), null, callback);
+                } catch (final IOException | RuntimeException e) {
+                    complete(future, null, e, callback);
+                }
+            });
+        return future;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected <T> T convert(final Response response, final OAuthRequest.ResponseConverter<T> converter) throws IOException {
+        return converter != null ? converter.convert(response) : (T) response;
+    }
+
+    protected <T> void complete(final CompletableFuture<T> future, final T result, final Throwable throwable,
+                                final OAuthAsyncRequestCallback<T> callback) {
+        if (throwable != null) {
+            failureCount.increment();
+            if (callback != null) {
+                callback.onThrowable(throwable);
+            }
+            future.completeExceptionally(throwable);
+        } else {
+            if (callback != null) {
+                callback.onCompleted(result);
+            }
+            future.complete(result);
+        }
+    }
+
+    protected <T> CompletableFuture<T> failed(final Throwable throwable, final OAuthAsyncRequestCallback<T> callback) {
+        final var future = new CompletableFuture<T>();
+        complete(future, null, throwable, callback);
+        return future;
+    }
+
+    protected java.net.http.HttpClient findHttpClient() {
+        var client = httpClient;
+        if (client == null) {
+            synchronized (this) {
+                client = httpClient;
+                if (client == null) {
+                    final var builder = java.net.http.HttpClient.newBuilder()
+                        .version(version)
+                        .followRedirects(java.net.http.HttpClient.Redirect.NORMAL);
+                    if (connectTimeout > 0) {
+                        builder.connectTimeout(Duration.ofMillis(connectTimeout));
+                    }
+                    if (sslContext != null) {
+                        builder.sslContext(sslContext);
+                    }
+                    client = builder.build();
+                    httpClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    protected HttpRequest toHttpRequest(final String userAgent, final Map<String, String> headers, final Verb httpVerb,
+                                        final URI uri, final HttpRequest.BodyPublisher body, final String defaultContentType) {
+        final var builder = HttpRequest.newBuilder(uri)
+            .method(httpVerb.name(), body != null ? body : HttpRequest.BodyPublishers.noBody());
+        if (readTimeout > 0) {
+            builder.timeout(Duration.ofMillis(readTimeout));
+        }
+        var hasContentType = false;
+        for (final var header : headers.entrySet()) {
+            final var name = header.getKey().toLowerCase();
+            if (!RESTRICTED_HEADERS.contains(name)) {
+                builder.header(header.getKey(), header.getValue());
+                hasContentType = hasContentType || CONTENT_TYPE.equalsIgnoreCase(name);
+            }
+        }
+        if (userAgent != null) {
+            builder.header("User-Agent", userAgent);
+        }
+        if (body != null && !hasContentType) {
+            builder.header(CONTENT_TYPE, defaultContentType != null ? defaultContentType : DEFAULT_CONTENT_TYPE);
+        }
+        return builder.build();
+    }
+
+    protected Response toResponse(final HttpResponse<String> response) {
+        final Map<String, String> headers = new HashMap<>();
+        for (final var header : response.headers().map().entrySet()) {
+            if (!header.getKey().startsWith(":") && !header.getValue().isEmpty()) {
+                headers.put(header.getKey(), header.getValue().get(0));
+            }
+        }
+        return new Response(response.statusCode(), null, headers, response.body());
+    }
+
+    @Override
+    public Response execute(final String userAgent, final Map<String, String> headers, final Verb httpVerb,
+                            final String completeUrl, final byte[] bodyContents)
+        throws InterruptedException, ExecutionException, IOException {
+        return this.<Response>executeAsync(userAgent, headers, httpVerb, completeUrl, bodyContents, null, null).get();
+    }
+
+    @Override
+    public Response execute(final String userAgent, final Map<String, String> headers, final Verb httpVerb,
+                            final String completeUrl, final MultipartPayload bodyContents)
+        throws InterruptedException, ExecutionException, IOException {
+        return this.<Response>executeAsync(userAgent, headers, httpVerb, completeUrl, bodyContents, null, null).get();
+    }
+
+    @Override
+    public Response execute(final String userAgent, final Map<String, String> headers, final Verb httpVerb,
+                            final String completeUrl, final String bodyContents)
+        throws InterruptedException, ExecutionException, IOException {
+        return this.<Response>executeAsync(userAgent, headers, httpVerb, completeUrl, bodyContents, null, null).get();
+    }
+
+    @Override
+    public Response execute(final String userAgent, final Map<String, String> headers, final Verb httpVerb,
+                            final String completeUrl, final File bodyContents)
+        throws InterruptedException, ExecutionException, IOException {
+        return this.<Response>executeAsync(userAgent, headers, httpVerb, completeUrl, bodyContents, null, null).get();
+    }
+
+    /**
+     * Nothing to close: the JDK HTTP client is shared by the OAuth services.
+     */
+    @Override
+    public void close() {
+    }
+
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+
+    public synchronized int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public synchronized void setConnectTimeout(final int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        httpClient = null;
+    }
+
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(final int readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public int getMaxConcurrentRequestsPerHost() {
+        return maxConcurrentRequestsPerHost;
+    }
+
+    /**
+     * Define the max number of concurrent requests per host: the semaphores are recreated with the new limit (the requests
+     * in progress release their previous semaphore).
+     *
+     * @param maxConcurrentRequestsPerHost the max number of concurrent requests per host
+     */
+    public void setMaxConcurrentRequestsPerHost(final int maxConcurrentRequestsPerHost) {
+        this.maxConcurrentRequestsPerHost = maxConcurrentRequestsPerHost;
+        semaphores.clear();
+    }
+
+    public synchronized java.net.http.HttpClient.Version getVersion() {
+        return version;
+    }
+
+    public synchronized void setVersion(final java.net.http.HttpClient.Version version) {
+        this.version = version;
+        httpClient = null;
+    }
+
+    public synchronized SSLContext getSslContext() {
+        return sslContext;
+    }
+
+    public synchronized void setSslContext(final SSLContext sslContext) {
+        this.sslContext = sslContext;
+        httpClient = null;
+    }
+
+    public java.net.http.HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public void setHttpClient(final java.net.http.HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "connectTimeout", connectTimeout, "readTimeout", readTimeout,
+            "maxConcurrentRequestsPerHost", maxConcurrentRequestsPerHost, "version", version);
+    }
+}
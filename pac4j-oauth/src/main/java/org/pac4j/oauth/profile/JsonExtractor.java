@@ -0,0 +1,136 @@
+package org.pac4j.oauth.profile;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.pac4j.core.util.CommonHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extractor of a fixed set of JSON paths, compiled once: the values are read in a single streaming pass over the
+ * JSON text, only the nodes at the requested paths are materialized and all the other values are skipped.
+ *
+ * The extracted values are the same as the ones returned by {@link JsonHelper#getElement(JsonNode, String)}.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class JsonExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonExtractor.class);
+
+    private final List<JsonPath> paths = new ArrayList<>();
+
+    private final Segment root = new Segment();
+
+    public JsonExtractor(final Collection<String> paths) {
+        CommonHelper.assertNotNull("paths", paths);
+        for (final var path : paths) {
+            final var jsonPath = JsonHelper.compile(path);
+            this.paths.add(jsonPath);
+            var segment = root;
+            for (var i = 0; i < jsonPath.size(); i++) {
+                final var index = jsonPath.getIndex(i);
+                segment = index >= 0 ? segment.indexes.computeIfAbsent(index, k -> new Segment())
+                    : segment.fields.computeIfAbsent(jsonPath.getName(i), k -> new Segment());
+            }
+            segment.paths.add(jsonPath);
+        }
+    }
+
+    /**
+     * Extract the values of the paths from the JSON text.
+     *
+     * @param text the JSON text
+     * @return the values by path (missing paths are absent) or <code>null</code> if the text is not valid JSON
+     */
+    public Map<String, Object> extract(final String text) {
+        final Map<String, Object> values = new HashMap<>();
+        try (var parser = JsonHelper.getMapper().createParser(text)) {
+            if (parser.nextToken() != null) {
+                extract(parser, root, values);
+            }
+            return values;
+        } catch (final IOException e) {
+            logger.error("Cannot extract the JSON paths", e);
+        }
+        return null;
+    }
+
+    private void extract(final JsonParser parser, final Segment segment, final Map<String, Object> values) throws IOException {
+        if (!segment.paths.isEmpty()) {
+            // requested node: materialize it and resolve the deeper paths on it
+            final JsonNode node = parser.readValueAsTree();
+            collect(node, segment, values);
+            return;
+        }
+        final var token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final var child = segment.fields.get(parser.getCurrentName());
+                parser.nextToken();
+                if (child != null) {
+                    extract(parser, child, values);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } else if (token == JsonToken.START_ARRAY) {
+            var index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                final var child = segment.indexes.get(index++);
+                if (child != null) {
+                    extract(parser, child, values);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private void collect(final JsonNode node, final Segment segment, final Map<String, Object> values) {
+        if (node == null) {
+            return;
+        }
+        for (final var path : segment.paths) {
+            values.put(path.getPath(), JsonHelper.toValue(node));
+        }
+        for (final var field : segment.fields.entrySet()) {
+            collect(node.get(field.getKey()), field.getValue(), values);
+        }
+        for (final var index : segment.indexes.entrySet()) {
+            collect(node.get(index.getKey()), index.getValue(), values);
+        }
+    }
+
+    public List<JsonPath> getPaths() {
+        return Collections.unmodifiableList(paths);
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "paths", paths);
+    }
+
+    /**
+     * A path segment and the paths ending there.
+     */
+    private static final class Segment {
+
+        private final Map<String, Segment> fields = new LinkedHashMap<>();
+
+        private final Map<Integer, Segment> indexes = new HashMap<>();
+
+        private final List<JsonPath> paths = new ArrayList<>(1);
+    }
+}
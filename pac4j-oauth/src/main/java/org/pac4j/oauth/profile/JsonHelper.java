@@ -1,6 +1,8 @@
 package org.pac4j.oauth.profile;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
@@ -20,6 +22,11 @@ public final class JsonHelper {
 
     private static final Logger logger = LoggerFactory.getLogger(JsonHelper.class);
 
+    /* beyond this size, the paths are compiled but no longer cached */
+    private static final int MAX_COMPILED_PATHS = 1000;
+
+    private static final Map<String, JsonPath> compiledPaths = new ConcurrentHashMap<>();
+
     private static ObjectMapper mapper;
 
     static {
@@ -59,6 +66,23 @@ public final class JsonHelper {
         return null;
     }
 
+    /**
+     * Return the compiled JSON path, cached.
+     *
+     * @param path the dot-separated path
+     * @return the compiled path
+     */
+    public static JsonPath compile(final String path) {
+        var jsonPath = compiledPaths.get(path);
+        if (jsonPath == null) {
+            jsonPath = JsonPath.compile(path);
+            if (compiledPaths.size() < MAX_COMPILED_PATHS) {
+                compiledPaths.putIfAbsent(path, jsonPath);
+            }
+        }
+        return jsonPath;
+    }
+
     /**
      * Return the field with name in JSON as a string, a boolean, a number or a node.
      *
@@ -68,28 +92,37 @@ public final class JsonHelper {
      */
     public static Object getElement(final JsonNode json, final String name) {
         if (json != null && name != null) {
-            var node = json;
-            for (var nodeName : name.split("\\.")) {
-                if (node != null) {
-                    if (nodeName.matches("\\d+")) {
-                        node = node.get(Integer.parseInt(nodeName));
-                    } else {
-                        node = node.get(nodeName);
-                    }
-                }
-            }
-            if (node != null) {
-                if (node.isNumber()) {
-                    return node.numberValue();
-                } else if (node.isBoolean()) {
-                    return node.booleanValue();
-                } else if (node.isTextual()) {
-                    return node.textValue();
-                } else if (node.isNull()) {
-                    return null;
-                } else {
-                    return node;
-                }
+            return getElement(json, compile(name));
+        }
+        return null;
+    }
+
+    /**
+     * Return the field at the compiled path in JSON as a string, a boolean, a number or a node.
+     *
+     * @param json json
+     * @param path the compiled path
+     * @return the field
+     */
+    public static Object getElement(final JsonNode json, final JsonPath path) {
+        if (json != null && path != null) {
+            return toValue(path.find(json));
+        }
+        return null;
+    }
+
+    static Object toValue(final JsonNode node) {
+        if (node != null) {
+            if (node.isNumber()) {
+                return node.numberValue();
+            } else if (node.isBoolean()) {
+                return node.booleanValue();
+            } else if (node.isTextual()) {
+                return node.textValue();
+            } else if (node.isNull()) {
+                return null;
+            } else {
+                return node;
             }
         }
         return null;
@@ -0,0 +1,129 @@
+package org.pac4j.oauth.profile;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.pac4j.core.util.CommonHelper;
+
+/**
+ * A compiled JSON path: the dot-separated segments are parsed once, numeric segments being array indexes.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class JsonPath {
+
+    private final String path;
+
+    private final String[] names;
+
+    /* the array index of each segment, -1 for a field name */
+    private final int[] indexes;
+
+    private JsonPath(final String path) {
+        this.path = path;
+        final var segments = split(path);
+        this.names = segments;
+        this.indexes = new int[segments.length];
+        for (var i = 0; i < segments.length; i++) {
+            indexes[i] = toIndex(segments[i]);
+        }
+    }
+
+    /**
+     * Compile a JSON path.
+     *
+     * @param path the dot-separated path
+     * @return the compiled path
+     */
+    public static JsonPath compile(final String path) {
+        CommonHelper.assertNotNull("path", path);
+        return new JsonPath(path);
+    }
+
+    private static String[] split(final String path) {
+        var nb = 1;
+        for (var i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == '.') {
+                nb++;
+            }
+        }
+        final var segments = new String[nb];
+        var start = 0;
+        var n = 0;
+        for (var i = 0; i <= path.length(); i++) {
+            if (i == path.length() || path.charAt(i) == '.') {
+                segments[n++] = path.substring(start, i);
+                start = i + 1;
+            }
+        }
+        // same as String.split: trailing empty segments are removed
+        while (nb > 1 && segments[nb - 1].isEmpty()) {
+            nb--;
+        }
+        if (nb < segments.length) {
+            final var trimmed = new String[nb];
+            System.arraycopy(segments, 0, trimmed, 0, nb);
+            return trimmed;
+        }
+        return segments;
+    }
+
+    private static int toIndex(final String segment) {
+        if (segment.isEmpty() || segment.length() > 9) {
+            return -1;
+        }
+        var index = 0;
+        for (var i = 0; i < segment.length(); i++) {
+            final var c = segment.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + c - '0';
+        }
+        return index;
+    }
+
+    /**
+     * Return the node at this path from the given node.
+     *
+     * @param json the starting node
+     * @return the node or <code>null</code> if not found
+     */
+    public JsonNode find(final JsonNode json) {
+        var node = json;
+        for (var i = 0; i < names.length && node != null; i++) {
+            node = indexes[i] >= 0 ? node.get(indexes[i]) : node.get(names[i]);
+        }
+        return node;
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    String getName(final int i) {
+        return names[i];
+    }
+
+    int getIndex(final int i) {
+        return indexes[i];
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o instanceof JsonPath && path.equals(((JsonPath) o).path);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
@@ -23,6 +23,8 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * OAuth profile creator.
@@ -107,11 +109,20 @@ abstract class OAuthProfileCreator implements ProfileCreator {
         signRequest(service, accessToken, request);
         final String body;
         final int code;
+        final var future = service.executeAsync(request);
         try {
-            var response = service.execute(request);
+            // asynchronous execution on the (shared) HTTP client of the service
+            final var response = future.get(configuration.getProfileRequestTimeout(), TimeUnit.MILLISECONDS);
             code = response.getCode();
             body = response.getBody();
-        } catch (final IOException | InterruptedException | ExecutionException e) {
+        } catch (final TimeoutException e) {
+            future.cancel(true);
+            throw new HttpCommunicationException("Error getting body: no response after "
+                + configuration.getProfileRequestTimeout() + " ms");
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpCommunicationException("Error getting body: " + e.getMessage());
+        } catch (final IOException | ExecutionException e) {
             throw new HttpCommunicationException("Error getting body: " + e.getMessage());
         }
         final var t1 = System.currentTimeMillis();
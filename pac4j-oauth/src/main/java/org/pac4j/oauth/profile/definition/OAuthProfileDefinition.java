@@ -3,12 +3,17 @@ package org.pac4j.oauth.profile.definition;
 import com.github.scribejava.core.model.Token;
 import com.github.scribejava.core.model.Verb;
 import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.converter.AttributeConverter;
 import org.pac4j.core.profile.definition.CommonProfileDefinition;
 import org.pac4j.core.profile.factory.ProfileFactory;
 import org.pac4j.oauth.config.OAuthConfiguration;
+import org.pac4j.oauth.profile.JsonExtractor;
 
 import org.pac4j.core.exception.TechnicalException;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * OAuth profile definition.
  *
@@ -17,6 +22,8 @@ import org.pac4j.core.exception.TechnicalException;
  */
 public abstract class OAuthProfileDefinition extends CommonProfileDefinition {
 
+    private volatile JsonExtractor jsonExtractor;
+
     public OAuthProfileDefinition() {
         super();
     }
@@ -51,6 +58,45 @@ public abstract class OAuthProfileDefinition extends CommonProfileDefinition {
      */
     public abstract CommonProfile extractUserProfile(String body);
 
+    /**
+     * Return the streaming extractor of the {@link #getExtractedJsonPaths()}, compiled on first use and recompiled after
+     * an attribute is defined.
+     *
+     * @return the JSON extractor
+     */
+    protected JsonExtractor getJsonExtractor() {
+        var extractor = jsonExtractor;
+        if (extractor == null) {
+            extractor = new JsonExtractor(getExtractedJsonPaths());
+            jsonExtractor = extractor;
+        }
+        return extractor;
+    }
+
+    @Override
+    protected void primary(final String name, final AttributeConverter converter) {
+        super.primary(name, converter);
+        jsonExtractor = null;
+    }
+
+    @Override
+    protected void secondary(final String name, final AttributeConverter converter) {
+        super.secondary(name, converter);
+        jsonExtractor = null;
+    }
+
+    /**
+     * Return the JSON paths read by the {@link #getJsonExtractor()}: the identifier and the primary attributes.
+     *
+     * @return the JSON paths
+     */
+    protected List<String> getExtractedJsonPaths() {
+        final List<String> paths = new ArrayList<>();
+        paths.add("id");
+        paths.addAll(getPrimaryAttributes());
+        return paths;
+    }
+
     /**
      * Throws a {@link TechnicalException} to indicate that user profile extraction has failed.
      *
@@ -81,5 +127,4 @@ public abstract class OAuthProfileDefinition extends CommonProfileDefinition {
         logger.error("Unable to extract user profile from body: {}", body);
         throw new TechnicalException("Unable to extract user profile");
     }
-
 }
@@ -74,6 +74,12 @@ public class FacebookProfileDefinition extends OAuthProfileDefinition {
 
     protected static final String APPSECRET_PARAMETER = "appsecret_proof";
 
+    /* the attributes whose values are in their "data" node */
+    protected static final List<String> DATA_ATTRIBUTES = List.of(FRIENDS, MOVIES, MUSIC, BOOKS, LIKES, ALBUMS, EVENTS, GROUPS,
+        MUSIC_LISTENS, PICTURE);
+
+    private static final String DATA_SUFFIX = ".data";
+
     public FacebookProfileDefinition() {
         super(x -> new FacebookProfile());
         Arrays.stream(new String[] {
@@ -150,28 +156,40 @@ public class FacebookProfileDefinition extends OAuthProfileDefinition {
     @Override
     public FacebookProfile extractUserProfile(final String body) {
         final var profile = (FacebookProfile) newProfile();
-        final var json = JsonHelper.getFirstNode(body);
-        if (json != null) {
-            profile.setId(ProfileHelper.sanitizeIdentifier(JsonHelper.getElement(json, "id")));
+        final var values = getJsonExtractor().extract(body);
+        if (values != null) {
+            profile.setId(ProfileHelper.sanitizeIdentifier(values.get("id")));
             for (final var attribute : getPrimaryAttributes()) {
-                convertAndAdd(profile, PROFILE_ATTRIBUTE, attribute, JsonHelper.getElement(json, attribute));
+                convertAndAdd(profile, PROFILE_ATTRIBUTE, attribute, values.get(attribute));
+            }
+            for (final var name : DATA_ATTRIBUTES) {
+                convertAndAdd(profile, PROFILE_ATTRIBUTE, name, values.get(name + DATA_SUFFIX));
             }
-            extractData(profile, json, FacebookProfileDefinition.FRIENDS);
-            extractData(profile, json, FacebookProfileDefinition.MOVIES);
-            extractData(profile, json, FacebookProfileDefinition.MUSIC);
-            extractData(profile, json, FacebookProfileDefinition.BOOKS);
-            extractData(profile, json, FacebookProfileDefinition.LIKES);
-            extractData(profile, json, FacebookProfileDefinition.ALBUMS);
-            extractData(profile, json, FacebookProfileDefinition.EVENTS);
-            extractData(profile, json, FacebookProfileDefinition.GROUPS);
-            extractData(profile, json, FacebookProfileDefinition.MUSIC_LISTENS);
-            extractData(profile, json, FacebookProfileDefinition.PICTURE);
         } else {
             raiseProfileExtractionJsonError(body);
         }
         return profile;
     }
 
+    @Override
+    protected List<String> getExtractedJsonPaths() {
+        final var paths = super.getExtractedJsonPaths();
+        for (final var name : DATA_ATTRIBUTES) {
+            paths.add(name + DATA_SUFFIX);
+        }
+        return paths;
+    }
+
+    /**
+     * Extract the data of a list attribute from a JSON tree.
+     *
+     * @param profile the profile
+     * @param json the JSON tree
+     * @param name the attribute name
+     * @deprecated no longer called: the data attributes are read by the streaming JSON extractor
+     * (see {@link #getExtractedJsonPaths()}), override {@link #extractUserProfile(String)} to customize them
+     */
+    @Deprecated
     protected void extractData(final FacebookProfile profile, final JsonNode json, final String name) {
         final var data = (JsonNode) JsonHelper.getElement(json, name);
         if (data != null) {
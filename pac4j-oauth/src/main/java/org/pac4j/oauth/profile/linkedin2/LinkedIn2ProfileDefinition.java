@@ -4,7 +4,6 @@ import com.github.scribejava.core.model.Token;
 import org.pac4j.core.profile.ProfileHelper;
 import org.pac4j.core.profile.converter.Converters;
 import org.pac4j.oauth.config.OAuthConfiguration;
-import org.pac4j.oauth.profile.JsonHelper;
 import org.pac4j.oauth.profile.converter.JsonConverter;
 import org.pac4j.oauth.profile.definition.OAuthProfileDefinition;
 
@@ -38,13 +37,13 @@ public class LinkedIn2ProfileDefinition extends OAuthProfileDefinition {
     @Override
     public LinkedIn2Profile extractUserProfile(final String body) {
         final var profile = (LinkedIn2Profile) newProfile();
-        final var json = JsonHelper.getFirstNode(body);
-        if (json == null) {
+        final var values = getJsonExtractor().extract(body);
+        if (values == null) {
             raiseProfileExtractionJsonError(body);
         }
-        profile.setId(ProfileHelper.sanitizeIdentifier(JsonHelper.getElement(json, "id")));
+        profile.setId(ProfileHelper.sanitizeIdentifier(values.get("id")));
         for (final var attribute : getPrimaryAttributes()) {
-            convertAndAdd(profile, PROFILE_ATTRIBUTE, attribute, JsonHelper.getElement(json, attribute));
+            convertAndAdd(profile, PROFILE_ATTRIBUTE, attribute, values.get(attribute));
         }
         return profile;
     }
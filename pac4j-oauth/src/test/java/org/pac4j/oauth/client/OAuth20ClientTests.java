@@ -5,6 +5,7 @@ import org.pac4j.core.context.MockWebContext;
 import org.pac4j.core.context.session.MockSessionStore;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.exception.http.FoundAction;
+import org.pac4j.core.http.url.DefaultUrlResolver;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
 import org.pac4j.core.util.generator.StaticValueGenerator;
@@ -164,4 +165,34 @@ public final class OAuth20ClientTests implements TestsConstants {
         client.setScope(null);
         TestsHelper.initShouldFail(client, "scope cannot be blank");
     }
+
+    @Test
+    public void testServiceReused() {
+        final var client = getClient();
+        client.init();
+        final var context = MockWebContext.create();
+        final var service = client.getConfiguration().buildService(context, client);
+        assertSame(service, client.getConfiguration().buildService(context, client));
+        assertEquals(1, client.getConfiguration().getNbServices());
+
+        client.getConfiguration().setScope("user:email");
+        assertNotSame(service, client.getConfiguration().buildService(context, client));
+    }
+
+    @Test
+    public void testServicesByCallbackUrl() {
+        final var client = getClient();
+        client.setCallbackUrl("/callback");
+        client.setUrlResolver(new DefaultUrlResolver(true));
+        client.init();
+        final var configuration = client.getConfiguration();
+        configuration.setMaxServices(2);
+
+        final var httpService = configuration.buildService(MockWebContext.create().setScheme("http"), client);
+        final var httpsService = configuration.buildService(MockWebContext.create().setScheme("https"), client);
+        assertNotSame(httpService, httpsService);
+        assertSame(httpService, configuration.buildService(MockWebContext.create().setScheme("http"), client));
+        configuration.buildService(MockWebContext.create().setScheme("ftp"), client);
+        assertEquals(2, configuration.getNbServices());
+    }
 }
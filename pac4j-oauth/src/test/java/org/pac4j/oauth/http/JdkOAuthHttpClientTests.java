@@ -0,0 +1,227 @@
+package org.pac4j.oauth.http;
+
+import com.github.scribejava.core.model.OAuth2AccessToken;
+import com.github.scribejava.core.model.OAuthAsyncRequestCallback;
+import com.github.scribejava.core.model.Response;
+import com.github.scribejava.core.model.Verb;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.exception.HttpCommunicationException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.oauth.client.GitHubClient;
+import org.pac4j.oauth.profile.creator.OAuth20ProfileCreator;
+
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link JdkOAuthHttpClient}.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class JdkOAuthHttpClientTests implements TestsConstants {
+
+    private final Map<String, String> received = new ConcurrentHashMap<>();
+
+    private final AtomicInteger concurrent = new AtomicInteger();
+
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+    private HttpServer server;
+
+    private String url;
+
+    private final JdkOAuthHttpClient client = new JdkOAuthHttpClient();
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            received.put("method", exchange.getRequestMethod());
+            received.put("header", String.valueOf(exchange.getRequestHeaders().getFirst(KEY)));
+            received.put("userAgent", String.valueOf(exchange.getRequestHeaders().getFirst("User-Agent")));
+            received.put("contentType", String.valueOf(exchange.getRequestHeaders().getFirst("Content-Type")));
+            received.put("body", new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            if (exchange.getRequestURI().getPath().startsWith("/slow")) {
+                try {
+                    Thread.sleep(100);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            final var bytes = VALUE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add(NAME, VALUE);
+            exchange.sendResponseHeaders(exchange.getRequestURI().getPath().startsWith("/error") ? 500 : 200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            concurrent.decrementAndGet();
+            exchange.close();
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testGet() throws Exception {
+        final var response = client.execute(ID, Map.of(KEY, VALUE), Verb.GET, url + "/get", (String) null);
+        assertEquals(200, response.getCode());
+        assertEquals(VALUE, response.getBody());
+        assertEquals(VALUE, response.getHeader(NAME));
+        assertEquals("GET", received.get("method"));
+        assertEquals(VALUE, received.get("header"));
+        assertEquals(ID, received.get("userAgent"));
+        assertEquals(1, client.getRequestCount());
+    }
+
+    @Test
+    public void testPostWithDefaultContentType() throws Exception {
+        final var response = client.execute(null, Map.of(), Verb.POST, url + "/error", "grant_type=code");
+        assertEquals(500, response.getCode());
+        assertEquals("POST", received.get("method"));
+        assertEquals("grant_type=code", received.get("body"));
+        assertEquals("application/x-www-form-urlencoded", received.get("contentType"));
+    }
+
+    @Test
+    public void testAsyncWithConverterAndCallback() throws Exception {
+        final var completed = new AtomicReference<Integer>();
+        final var future = client.executeAsync(null, Map.of(), Verb.GET, url + "/async", (byte[]) null,
+            new OAuthAsyncRequestCallback<Integer>() {
+                @Override
+                public void onCompleted(final Integer result) {
+                    completed.set(result);
+                }
+
+                @Override
+                public void onThrowable(final Throwable t) {
+                }
+            }, Response::getCode);
+        assertEquals(Integer.valueOf(200), future.get(5, TimeUnit.SECONDS));
+        assertEquals(Integer.valueOf(200), completed.get());
+    }
+
+    private List<Future<Response>> sendSlowRequests(final int nb) {
+        final List<Future<Response>> futures = new ArrayList<>();
+        for (var i = 0; i < nb; i++) {
+            futures.add(client.<Response>executeAsync(null, Map.of(), Verb.GET, url + "/slow", (String) null, null, null));
+        }
+        return futures;
+    }
+
+    private int countSuccesses(final List<Future<Response>> futures) throws Exception {
+        var nbSuccesses = 0;
+        for (final var future : futures) {
+            try {
+                assertEquals(200, future.get(5, TimeUnit.SECONDS).getCode());
+                nbSuccesses++;
+            } catch (final ExecutionException e) {
+                assertEquals("Too many concurrent requests to: localhost", e.getCause().getMessage());
+            }
+        }
+        return nbSuccesses;
+    }
+
+    @Test
+    public void testBoundedConcurrencyPerHost() throws Exception {
+        client.setMaxConcurrentRequestsPerHost(2);
+        assertEquals(2, countSuccesses(sendSlowRequests(8)));
+        assertTrue(maxConcurrent.get() <= 2);
+        assertEquals(6, client.getFailureCount());
+
+        assertEquals(2, countSuccesses(sendSlowRequests(2)));
+    }
+
+    @Test
+    public void testMaxConcurrentRequestsChangedAfterFirstUse() throws Exception {
+        client.setMaxConcurrentRequestsPerHost(1);
+        assertEquals(1, countSuccesses(sendSlowRequests(3)));
+
+        client.setMaxConcurrentRequestsPerHost(3);
+        assertEquals(3, countSuccesses(sendSlowRequests(3)));
+    }
+
+    @Test
+    public void testDefaults() {
+        assertEquals(HttpClient.Version.HTTP_2, client.getVersion());
+        assertEquals(HttpConstants.DEFAULT_CONNECT_TIMEOUT, client.getConnectTimeout());
+        assertEquals(HttpConstants.DEFAULT_READ_TIMEOUT, client.getReadTimeout());
+    }
+
+    @Test
+    public void testHttpClientRebuiltAfterSettingsChange() {
+        final var httpClient = client.findHttpClient();
+        assertSame(httpClient, client.findHttpClient());
+        assertEquals(HttpClient.Version.HTTP_2, httpClient.version());
+
+        client.setVersion(HttpClient.Version.HTTP_1_1);
+        final var http11Client = client.findHttpClient();
+        assertNotSame(httpClient, http11Client);
+        assertEquals(HttpClient.Version.HTTP_1_1, http11Client.version());
+
+        client.setConnectTimeout(1000);
+        final var newClient = client.findHttpClient();
+        assertNotSame(http11Client, newClient);
+        assertEquals(1000, newClient.connectTimeout().get().toMillis());
+
+        client.setSslContext(null);
+        assertNotSame(newClient, client.findHttpClient());
+    }
+
+    @Test
+    public void testServerDown() {
+        server.stop(0);
+        assertTrue(TestsHelper.expectException(() -> client.execute(null, Map.of(), Verb.GET, url + "/get", (String) null))
+            instanceof ExecutionException);
+        assertEquals(1, client.getFailureCount());
+    }
+
+    @Test
+    public void testProfileRequestTimeout() {
+        final var githubClient = new GitHubClient(KEY, SECRET);
+        githubClient.setCallbackUrl(CALLBACK_URL);
+        githubClient.init();
+        final var configuration = githubClient.getConfiguration();
+        configuration.setHttpClient(client);
+        configuration.setProfileRequestTimeout(20);
+        final var service = configuration.buildService(MockWebContext.create(), githubClient);
+        final var profileCreator = new OAuth20ProfileCreator(configuration, githubClient) {
+            String send(final String dataUrl) {
+                return sendRequestForData(service, new OAuth2AccessToken(VALUE), dataUrl, Verb.GET);
+            }
+        };
+        assertEquals(VALUE, profileCreator.send(url + "/get"));
+        TestsHelper.expectException(() -> profileCreator.send(url + "/slow"), HttpCommunicationException.class,
+            "Error getting body: no response after 20 ms");
+    }
+
+    @Test
+    public void testSharedByDefault() {
+        final var configuration = new GitHubClient(KEY, SECRET).getConfiguration();
+        assertSame(JdkOAuthHttpClient.getDefault(), configuration.getHttpClient());
+    }
+}
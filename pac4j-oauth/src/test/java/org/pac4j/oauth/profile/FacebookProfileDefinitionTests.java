@@ -0,0 +1,60 @@
+package org.pac4j.oauth.profile;
+
+import org.junit.Test;
+import org.pac4j.core.profile.converter.Converters;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.oauth.profile.facebook.FacebookProfileDefinition;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class tests the streaming extraction of the {@link FacebookProfileDefinition}.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class FacebookProfileDefinitionTests implements TestsConstants {
+
+    @Test
+    public void testExtractUserProfile() {
+        final var body = "{\"id\":\"" + ID + "\",\"name\":\"" + NAME + "\",\"verified\":true,\"ignored\":{\"a\":[1,2]},"
+            + "\"friends\":{\"data\":[{\"id\":\"1\",\"name\":\"" + VALUE + "\"}],\"paging\":{}},"
+            + "\"picture\":{\"data\":{\"url\":\"" + PAC4J_URL + "\",\"is_silhouette\":false}}}";
+        final var profile = new FacebookProfileDefinition().extractUserProfile(body);
+        assertEquals(ID, profile.getId());
+        assertEquals(NAME, profile.getDisplayName());
+        assertTrue(profile.getVerified());
+        assertEquals(1, profile.getFriends().size());
+        assertEquals(VALUE, profile.getFriends().get(0).getName());
+        assertEquals(PAC4J_URL, profile.getPicture().getUrl());
+        assertNull(profile.getAttribute("ignored"));
+    }
+
+    @Test
+    public void testPrimaryAttributeAddedAfterFirstUse() {
+        final var definition = new FacebookProfileDefinition() {
+            {
+                primary(KEY, Converters.STRING);
+            }
+
+            void addPrimary(final String name) {
+                primary(name, Converters.STRING);
+            }
+        };
+        final var body = "{\"id\":\"" + ID + "\",\"" + KEY + "\":\"" + VALUE + "\",\"" + FIRSTNAME + "\":\"" + VALUE + "\"}";
+        var profile = definition.extractUserProfile(body);
+        assertEquals(VALUE, profile.getAttribute(KEY));
+        assertNull(profile.getAttribute(FIRSTNAME));
+
+        definition.addPrimary(FIRSTNAME);
+        profile = definition.extractUserProfile(body);
+        assertEquals(VALUE, profile.getAttribute(KEY));
+        assertEquals(VALUE, profile.getAttribute(FIRSTNAME));
+    }
+
+    @Test
+    public void testBadJson() {
+        TestsHelper.expectException(() -> new FacebookProfileDefinition().extractUserProfile("bad"));
+    }
+}
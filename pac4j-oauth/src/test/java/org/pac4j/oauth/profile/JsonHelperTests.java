@@ -4,6 +4,8 @@ import org.junit.Test;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.oauth.profile.facebook.FacebookObject;
 
+import java.util.List;
+
 import static org.junit.Assert.*;
 
 /**
@@ -22,6 +24,9 @@ public final class JsonHelperTests implements TestsConstants {
 
     private static final String GOOD_NODE_JSON = "{ \"" + KEY + "\" : " + GOOD_TEXT_JSON + " }";
 
+    private static final String COMPLEX_JSON = "{ \"id\": 12, \"skip\": { \"" + KEY + "\": [1, 2, {\"a\": true}] }, \""
+        + KEY + "\": { \"list\": [ {\"" + NAME + "\": \"" + VALUE + "\"}, null ], \"empty\": null }, \"last\": \"x\" }";
+
     private static final String BAD_JSON = "this_is_definitively_not_a_json_text";
 
     @Test
@@ -72,4 +77,33 @@ public final class JsonHelperTests implements TestsConstants {
         object.setName(NAME);
         assertEquals("\"{\\\"id\\\":\\\"id\\\",\\\"name\\\":\\\"name\\\"}\"", JsonHelper.toJSONString(JsonHelper.toJSONString(object)));
     }
+
+    @Test
+    public void testGetCompiledPath() {
+        final var json = JsonHelper.getFirstNode(COMPLEX_JSON);
+        assertEquals(VALUE, JsonHelper.getElement(json, KEY + ".list.0." + NAME));
+        assertEquals(Boolean.TRUE, JsonHelper.getElement(json, "skip." + KEY + ".2.a"));
+        assertNull(JsonHelper.getElement(json, KEY + ".list.1"));
+        assertNull(JsonHelper.getElement(json, KEY + ".0"));
+        assertSame(JsonHelper.compile(KEY + ".list"), JsonHelper.compile(KEY + ".list"));
+    }
+
+    @Test
+    public void testExtractor() {
+        final var paths = List.of("id", KEY + ".list.0." + NAME, KEY + ".list", "skip." + KEY + ".2.a", KEY + ".empty",
+            KEY + ".list.1", KEY + ".0", "last", "missing.path", "last.x");
+        final var values = new JsonExtractor(paths).extract(COMPLEX_JSON);
+        final var json = JsonHelper.getFirstNode(COMPLEX_JSON);
+        for (final var path : paths) {
+            assertEquals(path, JsonHelper.getElement(json, path), values.get(path));
+        }
+        assertEquals(12, values.get("id"));
+        assertEquals(VALUE, values.get(KEY + ".list.0." + NAME));
+        assertFalse(values.containsKey("missing.path"));
+    }
+
+    @Test
+    public void testExtractorBadJson() {
+        assertNull(new JsonExtractor(List.of(KEY)).extract(BAD_JSON));
+    }
 }
@@ -31,6 +31,8 @@ public class OidcClient extends IndirectClient {
 
     private OidcConfiguration configuration;
 
+    private volatile OidcAuthenticator refreshAuthenticator;
+
     public OidcClient() { }
 
     public OidcClient(final OidcConfiguration configuration) {
@@ -61,8 +63,7 @@ public class OidcClient extends IndirectClient {
         if (refreshToken != null) {
             var credentials = new OidcCredentials();
             credentials.setRefreshToken(refreshToken);
-            var authenticator = new OidcAuthenticator(getConfiguration(), this);
-            authenticator.refresh(credentials);
+            findRefreshAuthenticator().refresh(credentials);
 
             // Create a profile if the refresh grant was successful
             if (credentials.getAccessToken() != null) {
@@ -73,6 +74,31 @@ public class OidcClient extends IndirectClient {
         return Optional.empty();
     }
 
+    /**
+     * The authenticator to refresh the tokens: the authenticator of the client if it's an {@link OidcAuthenticator},
+     * otherwise an {@link OidcAuthenticator} created once.
+     *
+     * @return the authenticator to refresh the tokens
+     */
+    protected OidcAuthenticator findRefreshAuthenticator() {
+        init();
+        final var authenticator = getAuthenticator();
+        if (authenticator instanceof OidcAuthenticator) {
+            return (OidcAuthenticator) authenticator;
+        }
+        var result = refreshAuthenticator;
+        if (result == null) {
+            synchronized (this) {
+                result = refreshAuthenticator;
+                if (result == null) {
+                    result = new OidcAuthenticator(getConfiguration(), this);
+                    refreshAuthenticator = result;
+                }
+            }
+        }
+        return result;
+    }
+
     @Override
     public void notifySessionRenewal(final String oldSessionId, final WebContext context, final SessionStore sessionStore) {
         configuration.findLogoutHandler().renewSession(oldSessionId, context, sessionStore);
@@ -1,7 +1,10 @@
 package org.pac4j.oidc.client.azuread;
 
 import java.text.ParseException;
+import java.util.concurrent.ExecutionException;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.proc.BadJOSEException;
 import com.nimbusds.jwt.JWT;
@@ -10,38 +13,85 @@ import com.nimbusds.oauth2.sdk.id.Issuer;
 import com.nimbusds.openid.connect.sdk.Nonce;
 import com.nimbusds.openid.connect.sdk.claims.IDTokenClaimsSet;
 import com.nimbusds.openid.connect.sdk.validators.IDTokenValidator;
+import org.pac4j.core.exception.TechnicalException;
 
 /**
  * Specialized ID token validator cabable of handling the {tenantid} placeholder.
  *
+ * The validators of the tenants are created once and kept in a bounded map (<code>maxTenants</code>); they all share
+ * the key selectors of the base validator.
+ *
  * @author Emond Papegaaij
  * @since 1.8.3
  */
 public class AzureAdIdTokenValidator extends IDTokenValidator {
-    private IDTokenValidator base;
-    private String originalIssuer;
+
+    public static final int DEFAULT_MAX_TENANTS = 1000;
+
+    private static final String TENANT_ID_PLACEHOLDER = "%7Btenantid%7D";
+
+    private final IDTokenValidator base;
+
+    private final String originalIssuer;
+
+    private final Cache<String, IDTokenValidator> tenantValidators;
 
     public AzureAdIdTokenValidator(final IDTokenValidator base) {
+        this(base, DEFAULT_MAX_TENANTS);
+    }
+
+    public AzureAdIdTokenValidator(final IDTokenValidator base, final int maxTenants) {
         super(base.getExpectedIssuer(), base.getClientID());
         this.base = base;
         this.originalIssuer = base.getExpectedIssuer().getValue();
+        this.tenantValidators = CacheBuilder.newBuilder().maximumSize(maxTenants).build();
     }
 
     @Override
     public IDTokenClaimsSet validate(final JWT idToken, final Nonce expectedNonce) throws BadJOSEException, JOSEException {
+        if (!originalIssuer.contains(TENANT_ID_PLACEHOLDER)) {
+            return base.validate(idToken, expectedNonce);
+        }
+        final Object tid;
         try {
-            if (originalIssuer.contains("%7Btenantid%7D")) {
-                var tid = idToken.getJWTClaimsSet().getClaim("tid");
-                if (tid == null) {
-                    throw new BadJWTException("ID token does not contain the 'tid' claim");
-                }
-                base = new IDTokenValidator(new Issuer(originalIssuer.replace("%7Btenantid%7D", tid.toString())),
-                        base.getClientID(), base.getJWSKeySelector(), base.getJWEKeySelector());
-                base.setMaxClockSkew(getMaxClockSkew());
-            }
-        } catch (ParseException e) {
+            tid = idToken.getJWTClaimsSet().getClaim("tid");
+        } catch (final ParseException e) {
             throw new BadJWTException(e.getMessage(), e);
         }
-        return base.validate(idToken, expectedNonce);
+        if (tid == null) {
+            throw new BadJWTException("ID token does not contain the 'tid' claim");
+        }
+        return findTenantValidator(tid.toString()).validate(idToken, expectedNonce);
+    }
+
+    protected IDTokenValidator findTenantValidator(final String tenantId) {
+        final var validator = tenantValidators.getIfPresent(tenantId);
+        if (validator != null) {
+            return validator;
+        }
+        try {
+            return tenantValidators.get(tenantId, () -> {
+                final var tenantValidator = new IDTokenValidator(new Issuer(originalIssuer.replace(TENANT_ID_PLACEHOLDER, tenantId)),
+                    base.getClientID(), base.getJWSKeySelector(), base.getJWEKeySelector());
+                tenantValidator.setMaxClockSkew(getMaxClockSkew());
+                return tenantValidator;
+            });
+        } catch (final ExecutionException e) {
+            throw new TechnicalException(e.getCause());
+        }
+    }
+
+    @Override
+    public void setMaxClockSkew(final int maxClockSkew) {
+        super.setMaxClockSkew(maxClockSkew);
+        // may be called by the parent constructor
+        if (base != null) {
+            base.setMaxClockSkew(maxClockSkew);
+            tenantValidators.asMap().values().forEach(validator -> validator.setMaxClockSkew(maxClockSkew));
+        }
+    }
+
+    public long getNbTenants() {
+        return tenantValidators.size();
     }
 }
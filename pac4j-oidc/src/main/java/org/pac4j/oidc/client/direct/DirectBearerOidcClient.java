@@ -0,0 +1,98 @@
+package org.pac4j.oidc.client.direct;
+
+import org.pac4j.core.client.DirectClient;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.credentials.extractor.BearerAuthExtractor;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.oidc.config.OidcConfiguration;
+import org.pac4j.oidc.credentials.authenticator.JwtAccessTokenAuthenticator;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.pac4j.core.util.CommonHelper.*;
+
+/**
+ * <p>This class is the direct client to authenticate users with the JWT access tokens of an OpenID Connect provider
+ * sent as bearer tokens (RFC 6750).</p>
+ *
+ * <p>The access tokens are validated locally by a {@link JwtAccessTokenAuthenticator}, without any call to the provider for
+ * each request (except the user info enrichment if enabled). Its audiences must be defined: either on the client (for the
+ * default authenticator) or on an authenticator configured and set on the client.</p>
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public class DirectBearerOidcClient extends DirectClient {
+
+    private OidcConfiguration configuration;
+
+    private String realmName = Pac4jConstants.DEFAULT_REALM_NAME;
+
+    /* audiences of the default authenticator */
+    private List<String> audiences;
+
+    public DirectBearerOidcClient() {}
+
+    public DirectBearerOidcClient(final OidcConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        assertNotNull("configuration", configuration);
+        assertNotBlank("realmName", realmName);
+
+        defaultCredentialsExtractor(new BearerAuthExtractor());
+        if (getAuthenticator() == null) {
+            assertTrue(audiences != null && !audiences.isEmpty(),
+                "audiences must be defined on the client or an authenticator with audiences must be set on the client");
+            final var authenticator = new JwtAccessTokenAuthenticator(configuration);
+            authenticator.setAudiences(audiences);
+            defaultAuthenticator(authenticator);
+        }
+    }
+
+    @Override
+    protected Optional<Credentials> retrieveCredentials(final WebContext context, final SessionStore sessionStore) {
+        // set the www-authenticate in case of error
+        context.setResponseHeader(HttpConstants.AUTHENTICATE_HEADER, HttpConstants.BEARER_HEADER_PREFIX + "realm=\"" + realmName + "\"");
+
+        return super.retrieveCredentials(context, sessionStore);
+    }
+
+    public OidcConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    public void setConfiguration(final OidcConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    public String getRealmName() {
+        return realmName;
+    }
+
+    public void setRealmName(final String realmName) {
+        this.realmName = realmName;
+    }
+
+    public List<String> getAudiences() {
+        return audiences;
+    }
+
+    public void setAudiences(final List<String> audiences) {
+        this.audiences = audiences;
+    }
+
+    @Override
+    public String toString() {
+        return toNiceString(this.getClass(), "name", getName(), "configuration", configuration,
+            "credentialsExtractor", getCredentialsExtractor(), "authenticator", getAuthenticator(),
+            "profileCreator", getProfileCreator(), "authorizationGenerators", getAuthorizationGenerators(), "realmName", realmName,
+            "audiences", audiences);
+    }
+}
@@ -0,0 +1,291 @@
+package org.pac4j.oidc.config;
+
+import com.nimbusds.jose.util.ResourceRetriever;
+import com.nimbusds.oauth2.sdk.ParseException;
+import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.oidc.util.DigestHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Cache of the OpenID Connect discovery documents, persisted in a local directory.
+ *
+ * At startup, a discovery document already persisted is used immediately (without any call to the identity provider)
+ * and refreshed in the background. A discovery document is fetched synchronously only if it has never been persisted.
+ * The discovery documents are also shared in memory by the configurations with the same discovery URI and refreshed
+ * in the background when they are requested and older than the refresh interval: the configurations request them each time
+ * their provider metadata is used ({@link OidcConfiguration#findProviderMetadata()}) and are updated after the refresh.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public class DiscoveryCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiscoveryCache.class);
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Map<String, CompletableFuture<Entry>> loadings = new ConcurrentHashMap<>();
+
+    private final Map<String, CopyOnWriteArrayList<Consumer<OIDCProviderMetadata>>> listeners = new ConcurrentHashMap<>();
+
+    private String directory;
+
+    // 1 hour
+    private int refreshIntervalInSeconds = 3600;
+
+    private Executor executor;
+
+    public DiscoveryCache() {}
+
+    public DiscoveryCache(final String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Get the provider metadata of a discovery URI.
+     *
+     * @param discoveryURI the discovery URI
+     * @param resourceRetriever the resource retriever to fetch the discovery document
+     * @param listener called with the provider metadata immediately and after each background refresh (optional, registered
+     *                 once: the same listener instance must be passed for the same configuration)
+     * @return the provider metadata
+     */
+    public OIDCProviderMetadata get(final String discoveryURI, final ResourceRetriever resourceRetriever,
+                                    final Consumer<OIDCProviderMetadata> listener) {
+        CommonHelper.assertNotBlank("discoveryURI", discoveryURI);
+        CommonHelper.assertNotNull("resourceRetriever", resourceRetriever);
+
+        var entry = entries.get(discoveryURI);
+        if (entry == null) {
+            entry = load(discoveryURI, resourceRetriever);
+        }
+        if (listener != null) {
+            listener.accept(entry.metadata);
+            registerListener(discoveryURI, listener);
+        }
+        if (System.currentTimeMillis() - entry.fetchTime >= refreshIntervalInSeconds * 1000L) {
+            refreshInBackground(discoveryURI, entry, resourceRetriever);
+        }
+        return entry.metadata;
+    }
+
+    /**
+     * Load the discovery document of a URI (from the persisted file or the identity provider) outside of the map of entries:
+     * the concurrent calls for the same URI wait for the same load.
+     *
+     * @param discoveryURI the discovery URI
+     * @param resourceRetriever the resource retriever to fetch the discovery document
+     * @return the entry
+     */
+    protected Entry load(final String discoveryURI, final ResourceRetriever resourceRetriever) {
+        final var future = new CompletableFuture<Entry>();
+        final var existing = loadings.putIfAbsent(discoveryURI, future);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (final CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new TechnicalException(e.getCause());
+            }
+        }
+        try {
+            var entry = entries.get(discoveryURI);
+            if (entry == null) {
+                final var persisted = readPersisted(discoveryURI);
+                if (persisted != null) {
+                    // served immediately, refreshed at the next access
+                    entry = new Entry(persisted, 0L);
+                } else {
+                    entry = new Entry(fetch(discoveryURI, resourceRetriever), System.currentTimeMillis());
+                }
+                entries.put(discoveryURI, entry);
+            }
+            future.complete(entry);
+            return entry;
+        } catch (final RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadings.remove(discoveryURI, future);
+        }
+    }
+
+    /**
+     * Register a listener once, for a single discovery URI.
+     *
+     * @param discoveryURI the discovery URI
+     * @param listener the listener
+     */
+    protected void registerListener(final String discoveryURI, final Consumer<OIDCProviderMetadata> listener) {
+        for (final var entry : listeners.entrySet()) {
+            if (!discoveryURI.equals(entry.getKey())) {
+                entry.getValue().remove(listener);
+            }
+        }
+        listeners.computeIfAbsent(discoveryURI, uri -> new CopyOnWriteArrayList<>()).addIfAbsent(listener);
+    }
+
+    /**
+     * Initialize the configurations in parallel, so that their discovery documents are prefetched.
+     *
+     * @param configurations the configurations
+     * @return the future completed when all configurations are initialized
+     */
+    public CompletableFuture<Void> prefetch(final Collection<? extends OidcConfiguration> configurations) {
+        final var executor = findExecutor();
+        return CompletableFuture.allOf(configurations.stream()
+            .map(configuration -> CompletableFuture.runAsync(configuration::init, executor))
+            .toArray(CompletableFuture[]::new));
+    }
+
+    protected void refreshInBackground(final String discoveryURI, final Entry entry, final ResourceRetriever resourceRetriever) {
+        if (entry.refreshing.compareAndSet(false, true)) {
+            findExecutor().execute(() -> {
+                try {
+                    final var metadata = fetch(discoveryURI, resourceRetriever);
+                    entries.put(discoveryURI, new Entry(metadata, System.currentTimeMillis()));
+                    final var uriListeners = listeners.get(discoveryURI);
+                    if (uriListeners != null) {
+                        for (final var listener : uriListeners) {
+                            listener.accept(metadata);
+                        }
+                    }
+                } catch (final RuntimeException e) {
+                    LOGGER.warn("Cannot refresh the discovery document: {}, keeping the previous one", discoveryURI, e);
+                } finally {
+                    entry.refreshing.set(false);
+                }
+            });
+        }
+    }
+
+    protected OIDCProviderMetadata fetch(final String discoveryURI, final ResourceRetriever resourceRetriever) {
+        try {
+            final var content = resourceRetriever.retrieveResource(new URL(discoveryURI)).getContent();
+            final var metadata = OIDCProviderMetadata.parse(content);
+            persist(discoveryURI, content);
+            return metadata;
+        } catch (final IOException | ParseException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    protected OIDCProviderMetadata readPersisted(final String discoveryURI) {
+        final var file = findFile(discoveryURI);
+        if (file == null || !Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return OIDCProviderMetadata.parse(Files.readString(file, StandardCharsets.UTF_8));
+        } catch (final IOException | ParseException e) {
+            LOGGER.warn("Cannot read the persisted discovery document: {}", file, e);
+            return null;
+        }
+    }
+
+    protected void persist(final String discoveryURI, final String content) {
+        final var file = findFile(discoveryURI);
+        if (file == null) {
+            return;
+        }
+        try {
+            final var dir = Paths.get(directory);
+            Files.createDirectories(dir);
+            final var tmpFile = Files.createTempFile(dir, "discovery", ".tmp");
+            Files.writeString(tmpFile, content, StandardCharsets.UTF_8);
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            LOGGER.warn("Cannot persist the discovery document: {}", file, e);
+        }
+    }
+
+    protected Path findFile(final String discoveryURI) {
+        if (directory == null) {
+            return null;
+        }
+        return Paths.get(directory, DigestHelper.sha256(discoveryURI) + ".json");
+    }
+
+    protected synchronized Executor findExecutor() {
+        if (executor == null) {
+            executor = Executors.newCachedThreadPool(runnable -> {
+                final var thread = new Thread(runnable, "pac4j-oidc-discovery");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    public void clear() {
+        entries.clear();
+        listeners.clear();
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(final String directory) {
+        this.directory = directory;
+    }
+
+    public int getRefreshIntervalInSeconds() {
+        return refreshIntervalInSeconds;
+    }
+
+    public void setRefreshIntervalInSeconds(final int refreshIntervalInSeconds) {
+        this.refreshIntervalInSeconds = refreshIntervalInSeconds;
+    }
+
+    public synchronized Executor getExecutor() {
+        return executor;
+    }
+
+    public synchronized void setExecutor(final Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "directory", directory, "refreshIntervalInSeconds", refreshIntervalInSeconds,
+            "discoveryURIs", entries.keySet());
+    }
+
+    protected static final class Entry {
+
+        private final OIDCProviderMetadata metadata;
+
+        private final long fetchTime;
+
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(final OIDCProviderMetadata metadata, final long fetchTime) {
+            this.metadata = metadata;
+            this.fetchTime = fetchTime;
+        }
+    }
+}
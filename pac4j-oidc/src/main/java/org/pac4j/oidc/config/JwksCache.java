@@ -0,0 +1,232 @@
+package org.pac4j.oidc.config;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.ResourceRetriever;
+import org.pac4j.core.util.CommonHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URL;
+import java.text.ParseException;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cached JWK set, shared by all the token validators using the same JWKS URI (see {@link JwksCacheRegistry}).
+ *
+ * <ul>
+ *     <li>the JWK set is refreshed in the background when it is about to expire (refresh-ahead)</li>
+ *     <li>the cached JWK set is still used while it is being refreshed or if the refresh fails (stale-while-revalidate), but not
+ *     longer than the maximum stale time after its expiration</li>
+ *     <li>after a failed fetch, the JWK set is not fetched again before the minimum refetch interval (failure backoff)</li>
+ *     <li>when no key matches the <code>kid</code> of a token, the JWK set is refetched immediately, by a single thread and
+ *     not more often than the minimum refetch interval (and not while a background refresh is in flight).</li>
+ * </ul>
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public class JwksCache implements JWKSource<SecurityContext> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JwksCache.class);
+
+    private final String jwksUri;
+
+    private final ResourceRetriever resourceRetriever;
+
+    private final long timeToLive;
+
+    private final long refreshAhead;
+
+    private final long minRefetchInterval;
+
+    private final long maxStale;
+
+    private final Executor executor;
+
+    private volatile JWKSet jwkSet;
+
+    private volatile long fetchTime;
+
+    private volatile long lastRefetchTime;
+
+    private volatile long lastFailureTime;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private final Object lock = new Object();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder unknownKeyIds = new LongAdder();
+
+    private final LongAdder fetches = new LongAdder();
+
+    private final LongAdder fetchFailures = new LongAdder();
+
+    public JwksCache(final String jwksUri, final ResourceRetriever resourceRetriever, final long timeToLive,
+                     final long refreshAhead, final long minRefetchInterval, final long maxStale, final Executor executor) {
+        CommonHelper.assertNotBlank("jwksUri", jwksUri);
+        CommonHelper.assertNotNull("resourceRetriever", resourceRetriever);
+        CommonHelper.assertNotNull("executor", executor);
+        CommonHelper.assertTrue(timeToLive > 0, "timeToLive must be greater than zero");
+        CommonHelper.assertTrue(maxStale >= 0, "maxStale cannot be negative");
+        this.jwksUri = jwksUri;
+        this.resourceRetriever = resourceRetriever;
+        this.timeToLive = timeToLive;
+        this.refreshAhead = refreshAhead;
+        this.minRefetchInterval = minRefetchInterval;
+        this.maxStale = maxStale;
+        this.executor = executor;
+    }
+
+    @Override
+    public List<JWK> get(final JWKSelector jwkSelector, final SecurityContext context) throws KeySourceException {
+        var set = jwkSet;
+        if (set == null) {
+            set = load(0L);
+        } else {
+            final var now = System.currentTimeMillis();
+            final var age = now - fetchTime;
+            if (age >= timeToLive + maxStale) {
+                if (!isBackingOff(now)) {
+                    set = load(fetchTime);
+                }
+                if (System.currentTimeMillis() - fetchTime >= timeToLive + maxStale) {
+                    throw new KeySourceException("The JWK set from: " + jwksUri + " has expired for too long and cannot be refreshed");
+                }
+            } else if (age >= timeToLive - refreshAhead && !isBackingOff(now)) {
+                refreshInBackground();
+            }
+        }
+
+        var keys = jwkSelector.select(set);
+        final var keyIds = jwkSelector.getMatcher().getKeyIDs();
+        if (keys.isEmpty() && keyIds != null && !keyIds.isEmpty()) {
+            unknownKeyIds.increment();
+            final var now = System.currentTimeMillis();
+            // no refetch while a background refresh is in flight
+            if (!refreshing.get() && now - lastRefetchTime >= minRefetchInterval) {
+                LOGGER.debug("Unknown key: {}, refetching the JWK set from: {}", keyIds, jwksUri);
+                keys = jwkSelector.select(load(fetchTime));
+            }
+        } else {
+            hits.increment();
+        }
+        return keys;
+    }
+
+    /**
+     * Load the JWK set, unless another thread has loaded it since the given fetch time.
+     *
+     * @param previousFetchTime the fetch time of the JWK set known by the caller
+     * @return the JWK set
+     * @throws KeySourceException if no JWK set is available
+     */
+    protected JWKSet load(final long previousFetchTime) throws KeySourceException {
+        synchronized (lock) {
+            if (jwkSet != null && fetchTime != previousFetchTime) {
+                return jwkSet;
+            }
+            if (jwkSet == null && isBackingOff(System.currentTimeMillis())) {
+                throw new KeySourceException("Cannot load the JWK set from: " + jwksUri + " (last attempt failed less than "
+                    + minRefetchInterval + " ms ago)");
+            }
+            lastRefetchTime = System.currentTimeMillis();
+            try {
+                fetch();
+            } catch (final IOException | ParseException e) {
+                if (jwkSet == null) {
+                    throw new KeySourceException("Cannot load the JWK set from: " + jwksUri, e);
+                }
+                LOGGER.warn("Cannot load the JWK set from: {}, keeping the previous keys", jwksUri, e);
+            }
+            return jwkSet;
+        }
+    }
+
+    protected void refreshInBackground() {
+        if (refreshing.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        synchronized (lock) {
+                            fetch();
+                        }
+                    } catch (final IOException | ParseException | RuntimeException e) {
+                        LOGGER.warn("Cannot refresh the JWK set from: {}, keeping the previous keys", jwksUri, e);
+                    } finally {
+                        refreshing.set(false);
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                refreshing.set(false);
+                LOGGER.warn("Cannot schedule the refresh of the JWK set from: {}, keeping the previous keys", jwksUri, e);
+            }
+        }
+    }
+
+    private boolean isBackingOff(final long now) {
+        final var failureTime = lastFailureTime;
+        return failureTime != 0L && now - failureTime < minRefetchInterval;
+    }
+
+    private void fetch() throws IOException, ParseException {
+        fetches.increment();
+        try {
+            final var resource = resourceRetriever.retrieveResource(new URL(jwksUri));
+            final var set = JWKSet.parse(resource.getContent());
+            jwkSet = set;
+            fetchTime = System.currentTimeMillis();
+            LOGGER.debug("Loaded {} key(s) from: {}", set.getKeys().size(), jwksUri);
+        } catch (final IOException | ParseException | RuntimeException e) {
+            fetchFailures.increment();
+            lastFailureTime = System.currentTimeMillis();
+            throw e;
+        }
+    }
+
+    public String getJwksUri() {
+        return jwksUri;
+    }
+
+    public JWKSet getJwkSet() {
+        return jwkSet;
+    }
+
+    public long getFetchTime() {
+        return fetchTime;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getUnknownKeyIdCount() {
+        return unknownKeyIds.sum();
+    }
+
+    public long getFetchCount() {
+        return fetches.sum();
+    }
+
+    public long getFetchFailureCount() {
+        return fetchFailures.sum();
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "jwksUri", jwksUri, "timeToLive", timeToLive,
+            "refreshAhead", refreshAhead, "minRefetchInterval", minRefetchInterval, "maxStale", maxStale, "hits", getHitCount(),
+            "unknownKeyIds", getUnknownKeyIdCount(), "fetches", getFetchCount(), "fetchFailures", getFetchFailureCount());
+    }
+}
@@ -0,0 +1,123 @@
+package org.pac4j.oidc.config;
+
+import com.nimbusds.jose.util.ResourceRetriever;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Registry of the {@link JwksCache}s keyed by JWKS URI, so that the OpenID Connect clients of the same issuer share the same
+ * JWK set instead of fetching and caching it each on its own.
+ *
+ * The sharing is opt-in: a registry (like the default one) must be explicitly defined on the {@link OidcConfiguration}s.
+ * As the JWK set of a JWKS URI is fetched with the resource retriever of the first configuration using it, a registry must
+ * only be shared by configurations with equivalent HTTP settings (timeouts, SSL, proxy...).
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public class JwksCacheRegistry {
+
+    private static final JwksCacheRegistry DEFAULT = new JwksCacheRegistry();
+
+    private final Map<String, JwksCache> caches = new ConcurrentHashMap<>();
+
+    // 5 minutes
+    private int timeToLiveInSeconds = 300;
+
+    private int refreshAheadInSeconds = 30;
+
+    private int minRefetchIntervalInSeconds = 30;
+
+    // 1 hour
+    private int maxStaleInSeconds = 3600;
+
+    private Executor executor;
+
+    public static JwksCacheRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Get the cache of a JWKS URI, created with the given resource retriever if it does not exist yet.
+     *
+     * @param jwksUri the JWKS URI
+     * @param resourceRetriever the resource retriever
+     * @return the cache
+     */
+    public JwksCache getOrCreate(final String jwksUri, final ResourceRetriever resourceRetriever) {
+        CommonHelper.assertNotBlank("jwksUri", jwksUri);
+        return caches.computeIfAbsent(jwksUri, uri -> new JwksCache(uri, resourceRetriever, timeToLiveInSeconds * 1000L,
+            refreshAheadInSeconds * 1000L, minRefetchIntervalInSeconds * 1000L, maxStaleInSeconds * 1000L, findExecutor()));
+    }
+
+    protected synchronized Executor findExecutor() {
+        if (executor == null) {
+            executor = Executors.newCachedThreadPool(runnable -> {
+                final var thread = new Thread(runnable, "pac4j-oidc-jwks-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    public Map<String, JwksCache> getCaches() {
+        return Collections.unmodifiableMap(caches);
+    }
+
+    public void clear() {
+        caches.clear();
+    }
+
+    public int getTimeToLiveInSeconds() {
+        return timeToLiveInSeconds;
+    }
+
+    public void setTimeToLiveInSeconds(final int timeToLiveInSeconds) {
+        this.timeToLiveInSeconds = timeToLiveInSeconds;
+    }
+
+    public int getRefreshAheadInSeconds() {
+        return refreshAheadInSeconds;
+    }
+
+    public void setRefreshAheadInSeconds(final int refreshAheadInSeconds) {
+        this.refreshAheadInSeconds = refreshAheadInSeconds;
+    }
+
+    public int getMinRefetchIntervalInSeconds() {
+        return minRefetchIntervalInSeconds;
+    }
+
+    public void setMinRefetchIntervalInSeconds(final int minRefetchIntervalInSeconds) {
+        this.minRefetchIntervalInSeconds = minRefetchIntervalInSeconds;
+    }
+
+    public int getMaxStaleInSeconds() {
+        return maxStaleInSeconds;
+    }
+
+    public void setMaxStaleInSeconds(final int maxStaleInSeconds) {
+        this.maxStaleInSeconds = maxStaleInSeconds;
+    }
+
+    public synchronized Executor getExecutor() {
+        return executor;
+    }
+
+    public synchronized void setExecutor(final Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "caches", caches.keySet(), "timeToLiveInSeconds", timeToLiveInSeconds,
+            "refreshAheadInSeconds", refreshAheadInSeconds, "minRefetchIntervalInSeconds", minRefetchIntervalInSeconds,
+            "maxStaleInSeconds", maxStaleInSeconds);
+    }
+}
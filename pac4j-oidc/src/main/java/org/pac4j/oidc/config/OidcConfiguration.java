@@ -15,8 +15,10 @@ import org.pac4j.core.context.HttpConstants;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.logout.handler.DefaultLogoutHandler;
 import org.pac4j.core.logout.handler.LogoutHandler;
+import org.pac4j.core.store.Store;
 import org.pac4j.core.util.generator.RandomValueGenerator;
 import org.pac4j.core.util.generator.ValueGenerator;
+import org.pac4j.oidc.http.OidcHttpTransport;
 import org.pac4j.oidc.profile.creator.TokenValidator;
 import org.pac4j.oidc.util.SessionStoreValueRetriever;
 import org.pac4j.oidc.util.ValueRetriever;
@@ -26,6 +28,7 @@ import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URL;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static org.pac4j.core.util.CommonHelper.*;
 
@@ -107,7 +110,7 @@ public class OidcConfiguration extends BaseClientConfiguration {
 
     private ResourceRetriever resourceRetriever;
 
-    private OIDCProviderMetadata providerMetadata;
+    private volatile OIDCProviderMetadata providerMetadata;
 
     private ResponseType responseType = AUTHORIZATION_CODE_FLOWS.get(0);
 
@@ -127,6 +130,8 @@ public class OidcConfiguration extends BaseClientConfiguration {
 
     private ValueGenerator codeVerifierGenerator = new RandomValueGenerator(50);
 
+    private ValueGenerator nonceGenerator = new RandomValueGenerator(43);
+
     private ValueRetriever valueRetriever = new SessionStoreValueRetriever();
 
     /* checks if sessions expire with token expiration (see also `tokenExpirationAdvance`) */
@@ -141,6 +146,27 @@ public class OidcConfiguration extends BaseClientConfiguration {
 
     private boolean allowUnsignedIdTokens;
 
+    /* persistent cache of the discovery documents, no cache if null */
+    private DiscoveryCache discoveryCache;
+
+    /* registered once in the discovery cache */
+    private final Consumer<OIDCProviderMetadata> providerMetadataListener = this::updateProviderMetadata;
+
+    /* whether the provider metadata comes from the discovery cache (and must be kept up to date) */
+    private volatile boolean discoveredFromCache;
+
+    /* HTTP transport for the token, user info and introspection requests */
+    private volatile OidcHttpTransport httpTransport;
+
+    /* shared JWK sets (opt-in), no sharing if null */
+    private JwksCacheRegistry jwksCacheRegistry;
+
+    /* claims which, if all present in the ID token, make the user info request useless; always request if null */
+    private Set<String> userInfoRequiredClaims;
+
+    /* cache of the user info claims by subject and access token digest, no cache if null */
+    private Store<String, Map<String, Object>> userInfoCache;
+
     /** If enabled, try to process the access token as a JWT and include its claims in the profile.
      * Only enable this if there is an agreement between the IdP and the client about the format of
      * the access token. If not, the authorization server and the resource server might decide to
@@ -182,12 +208,17 @@ public class OidcConfiguration extends BaseClientConfiguration {
         }
         if (this.getProviderMetadata() == null) {
             assertNotBlank("discoveryURI", getDiscoveryURI());
-            try {
-                // Download OIDC metadata
-                this.setProviderMetadata(OIDCProviderMetadata.parse(getResourceRetriever().retrieveResource(
-                    new URL(this.getDiscoveryURI())).getContent()));
-            } catch (final IOException | ParseException e) {
-                throw new TechnicalException(e);
+            if (discoveryCache != null) {
+                discoveryCache.get(getDiscoveryURI(), getResourceRetriever(), providerMetadataListener);
+                discoveredFromCache = true;
+            } else {
+                try {
+                    // Download OIDC metadata
+                    this.setProviderMetadata(OIDCProviderMetadata.parse(getResourceRetriever().retrieveResource(
+                        new URL(this.getDiscoveryURI())).getContent()));
+                } catch (final IOException | ParseException e) {
+                    throw new TechnicalException(e);
+                }
             }
         }
         if (this.logoutHandler == null) {
@@ -202,6 +233,10 @@ public class OidcConfiguration extends BaseClientConfiguration {
     public OIDCProviderMetadata findProviderMetadata() {
         init();
 
+        if (discoveredFromCache && discoveryCache != null) {
+            // triggers the background refresh of an old discovery document, the listener updates the provider metadata
+            discoveryCache.get(getDiscoveryURI(), getResourceRetriever(), null);
+        }
         return this.providerMetadata;
     }
 
@@ -209,6 +244,18 @@ public class OidcConfiguration extends BaseClientConfiguration {
         this.providerMetadata = providerMetadata;
     }
 
+    /**
+     * Update the provider metadata after a (background) load of the discovery document. The components derived from
+     * the provider metadata (token validator, authenticators) detect the change and rebuild their state.
+     *
+     * @param providerMetadata the new provider metadata
+     */
+    protected void updateProviderMetadata(final OIDCProviderMetadata providerMetadata) {
+        if (providerMetadata != this.providerMetadata) {
+            setProviderMetadata(providerMetadata);
+        }
+    }
+
     public String getClientId() {
         return clientId;
     }
@@ -464,6 +511,15 @@ public class OidcConfiguration extends BaseClientConfiguration {
         this.codeVerifierGenerator = codeVerifierGenerator;
     }
 
+    public ValueGenerator getNonceGenerator() {
+        return nonceGenerator;
+    }
+
+    public void setNonceGenerator(final ValueGenerator nonceGenerator) {
+        assertNotNull("nonceGenerator", nonceGenerator);
+        this.nonceGenerator = nonceGenerator;
+    }
+
     public ValueRetriever getValueRetriever() {
         return valueRetriever;
     }
@@ -498,6 +554,37 @@ public class OidcConfiguration extends BaseClientConfiguration {
         return tokenValidator;
     }
 
+    public OidcHttpTransport getHttpTransport() {
+        return httpTransport;
+    }
+
+    public void setHttpTransport(final OidcHttpTransport httpTransport) {
+        this.httpTransport = httpTransport;
+    }
+
+    public OidcHttpTransport findHttpTransport() {
+        if (this.httpTransport == null) {
+            setHttpTransport(OidcHttpTransport.NIMBUS);
+        }
+        return httpTransport;
+    }
+
+    public DiscoveryCache getDiscoveryCache() {
+        return discoveryCache;
+    }
+
+    public void setDiscoveryCache(final DiscoveryCache discoveryCache) {
+        this.discoveryCache = discoveryCache;
+    }
+
+    public JwksCacheRegistry getJwksCacheRegistry() {
+        return jwksCacheRegistry;
+    }
+
+    public void setJwksCacheRegistry(final JwksCacheRegistry jwksCacheRegistry) {
+        this.jwksCacheRegistry = jwksCacheRegistry;
+    }
+
     public Map<String, String> getMappedClaims() {
         return mappedClaims;
     }
@@ -522,6 +609,22 @@ public class OidcConfiguration extends BaseClientConfiguration {
         this.includeAccessTokenClaimsInProfile = includeAccessTokenClaimsInProfile;
     }
 
+    public Set<String> getUserInfoRequiredClaims() {
+        return userInfoRequiredClaims;
+    }
+
+    public void setUserInfoRequiredClaims(final Set<String> userInfoRequiredClaims) {
+        this.userInfoRequiredClaims = userInfoRequiredClaims;
+    }
+
+    public Store<String, Map<String, Object>> getUserInfoCache() {
+        return userInfoCache;
+    }
+
+    public void setUserInfoCache(final Store<String, Map<String, Object>> userInfoCache) {
+        this.userInfoCache = userInfoCache;
+    }
+
     public String getSSLFactory() {
         return SSLFactory;
     }
@@ -541,13 +644,15 @@ public class OidcConfiguration extends BaseClientConfiguration {
     @Override
     public String toString() {
         return toNiceString(this.getClass(), "clientId", clientId, "secret", "[protected]",
-            "discoveryURI", discoveryURI, "scope", scope, "customParams", customParams,
+            "discoveryURI", discoveryURI, "discoveryCache", discoveryCache, "scope", scope, "customParams", customParams,
             "clientAuthenticationMethod", clientAuthenticationMethod, "useNonce", useNonce,
             "preferredJwsAlgorithm", preferredJwsAlgorithm, "maxAge", maxAge, "maxClockSkew", maxClockSkew,
             "connectTimeout", connectTimeout, "readTimeout", readTimeout, "resourceRetriever", resourceRetriever,
             "responseType", responseType, "responseMode", responseMode, "logoutUrl", logoutUrl,
             "withState", withState, "stateGenerator", stateGenerator, "logoutHandler", logoutHandler,
-            "tokenValidator", tokenValidator, "mappedClaims", mappedClaims, "allowUnsignedIdTokens", allowUnsignedIdTokens,
+            "tokenValidator", tokenValidator, "httpTransport", httpTransport, "jwksCacheRegistry", jwksCacheRegistry,
+            "userInfoRequiredClaims", userInfoRequiredClaims, "userInfoCache", userInfoCache, "mappedClaims", mappedClaims,
+            "allowUnsignedIdTokens", allowUnsignedIdTokens,
             "SSLFactory", SSLFactory, "privateKeyJWTClientAuthnMethodConfig", privateKeyJWTClientAuthnMethodConfig);
     }
 }
@@ -0,0 +1,337 @@
+package org.pac4j.oidc.credentials.authenticator;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.oauth2.sdk.ParseException;
+import com.nimbusds.oauth2.sdk.TokenIntrospectionErrorResponse;
+import com.nimbusds.oauth2.sdk.TokenIntrospectionRequest;
+import com.nimbusds.oauth2.sdk.TokenIntrospectionResponse;
+import com.nimbusds.oauth2.sdk.TokenIntrospectionSuccessResponse;
+import com.nimbusds.oauth2.sdk.auth.ClientAuthentication;
+import com.nimbusds.oauth2.sdk.auth.ClientAuthenticationMethod;
+import com.nimbusds.oauth2.sdk.auth.ClientSecretBasic;
+import com.nimbusds.oauth2.sdk.auth.ClientSecretPost;
+import com.nimbusds.oauth2.sdk.auth.Secret;
+import com.nimbusds.oauth2.sdk.id.ClientID;
+import com.nimbusds.oauth2.sdk.token.BearerAccessToken;
+import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.credentials.authenticator.Authenticator;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.jwt.JwtClaims;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+import org.pac4j.oidc.config.OidcConfiguration;
+import org.pac4j.oidc.http.OidcHttpTransport;
+import org.pac4j.oidc.profile.OidcProfile;
+import org.pac4j.oidc.profile.OidcProfileDefinition;
+import org.pac4j.oidc.util.DigestHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Date;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.pac4j.core.profile.AttributeLocation.PROFILE_ATTRIBUTE;
+
+/**
+ * Authenticator validating the (opaque) access tokens via the introspection endpoint of the OpenID Connect provider
+ * (RFC 7662), with the client authentication of the {@link OidcConfiguration}: <code>client_secret_basic</code> (the default),
+ * <code>client_secret_post</code> or <code>private_key_jwt</code>.
+ *
+ * The introspection responses are cached by token digest: the active ones until the expiration of the token
+ * (at most <code>maxTimeToLiveInSeconds</code>), the inactive ones for <code>inactiveTimeToLiveInSeconds</code>.
+ * Concurrent validations of the same token only send one introspection request. The cache is kept when the discovery document
+ * is refreshed.
+ *
+ * The identifier of the profile is the <code>sub</code> claim, or the <code>username</code> claim if there is no subject.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public class IntrospectionOidcAuthenticator extends InitializableObject implements Authenticator {
+
+    private static final Logger logger = LoggerFactory.getLogger(IntrospectionOidcAuthenticator.class);
+
+    private static final String ACTIVE = "active";
+
+    private OidcConfiguration configuration;
+
+    private URI introspectionEndpoint;
+
+    /* the configured introspection endpoint or the one of the provider metadata */
+    private volatile URI resolvedIntrospectionEndpoint;
+
+    private volatile OIDCProviderMetadata providerMetadata;
+
+    private int maxTimeToLiveInSeconds = 300;
+
+    private int inactiveTimeToLiveInSeconds = 10;
+
+    private int cacheSize = 10000;
+
+    private volatile ClientAuthentication clientAuthentication;
+
+    private volatile PrivateKeyJwtAssertionGenerator assertionGenerator;
+
+    private volatile Cache<String, IntrospectionResult> cache;
+
+    private final LongAdder introspectionCount = new LongAdder();
+
+    public IntrospectionOidcAuthenticator() {}
+
+    public IntrospectionOidcAuthenticator(final OidcConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotNull("configuration", configuration);
+        CommonHelper.assertTrue(maxTimeToLiveInSeconds > 0, "maxTimeToLiveInSeconds must be greater than 0");
+        CommonHelper.assertTrue(inactiveTimeToLiveInSeconds >= 0, "inactiveTimeToLiveInSeconds cannot be negative");
+
+        providerMetadata = null;
+        if (introspectionEndpoint != null) {
+            resolvedIntrospectionEndpoint = introspectionEndpoint;
+            buildClientAuthentication();
+        } else {
+            updateProviderMetadata(configuration.findProviderMetadata());
+        }
+        cache = CacheBuilder.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(Math.max(maxTimeToLiveInSeconds, inactiveTimeToLiveInSeconds), TimeUnit.SECONDS)
+            .build();
+    }
+
+    /**
+     * Update the introspection endpoint and the client authentication from the provider metadata, keeping the cache.
+     *
+     * @param metadata the provider metadata
+     */
+    protected synchronized void updateProviderMetadata(final OIDCProviderMetadata metadata) {
+        if (metadata != providerMetadata) {
+            final var endpoint = metadata.getIntrospectionEndpointURI();
+            CommonHelper.assertNotNull("introspectionEndpoint", endpoint);
+            resolvedIntrospectionEndpoint = endpoint;
+            buildClientAuthentication();
+            providerMetadata = metadata;
+        }
+    }
+
+    protected void buildClientAuthentication() {
+        final var clientId = new ClientID(configuration.getClientId());
+        var method = configuration.getClientAuthenticationMethod();
+        if (method == null) {
+            method = ClientAuthenticationMethod.getDefault();
+        }
+        if (ClientAuthenticationMethod.PRIVATE_KEY_JWT.equals(method)) {
+            assertionGenerator = new PrivateKeyJwtAssertionGenerator(clientId, resolvedIntrospectionEndpoint,
+                configuration.getPrivateKeyJWTClientAuthnMethodConfig());
+            clientAuthentication = null;
+        } else if (ClientAuthenticationMethod.CLIENT_SECRET_BASIC.equals(method)
+            || ClientAuthenticationMethod.CLIENT_SECRET_POST.equals(method)) {
+            CommonHelper.assertNotBlank("secret", configuration.getSecret());
+            final var secret = new Secret(configuration.getSecret());
+            clientAuthentication = ClientAuthenticationMethod.CLIENT_SECRET_POST.equals(method)
+                ? new ClientSecretPost(clientId, secret) : new ClientSecretBasic(clientId, secret);
+            assertionGenerator = null;
+        } else {
+            throw new TechnicalException("Unsupported client authentication method for the introspection: " + method
+                + " (client_secret_basic, client_secret_post or private_key_jwt expected)");
+        }
+    }
+
+    protected ClientAuthentication findClientAuthentication() {
+        return assertionGenerator != null ? assertionGenerator.next() : clientAuthentication;
+    }
+
+    @Override
+    public void validate(final Credentials cred, final WebContext context, final SessionStore sessionStore) {
+        init();
+        if (introspectionEndpoint == null) {
+            final var metadata = configuration.findProviderMetadata();
+            if (metadata != providerMetadata) {
+                // the discovery document has been refreshed
+                updateProviderMetadata(metadata);
+            }
+        }
+
+        final var token = ((TokenCredentials) cred).getToken();
+        final var result = findIntrospectionResult(token);
+        if (!result.isActive()) {
+            throw new CredentialsException("Inactive access token");
+        }
+
+        final var profileDefinition = new OidcProfileDefinition();
+        final var profile = (OidcProfile) profileDefinition.newProfile();
+        final var claims = result.getClaims();
+        final var username = claims.getClaim("username");
+        if (claims.getSubject() != null) {
+            profile.setId(claims.getSubject());
+        } else if (username != null) {
+            profile.setId(username.toString());
+        } else {
+            throw new CredentialsException("No subject nor username in the introspection response");
+        }
+        for (final var entry : claims.getClaims().entrySet()) {
+            final var name = entry.getKey();
+            if (!JwtClaims.SUBJECT.equals(name) && !ACTIVE.equals(name)) {
+                final var actualName = configuration.getMappedClaims().getOrDefault(name, name);
+                profileDefinition.convertAndAdd(profile, PROFILE_ATTRIBUTE, actualName, entry.getValue());
+            }
+        }
+        profile.addAttribute(OidcProfileDefinition.ACCESS_TOKEN, new BearerAccessToken(token));
+        if (claims.getExpirationTime() != null) {
+            profile.setExpiration(claims.getExpirationTime());
+        }
+        profile.setTokenExpirationAdvance(configuration.getTokenExpirationAdvance());
+
+        cred.setUserProfile(profile);
+    }
+
+    protected IntrospectionResult findIntrospectionResult(final String token) {
+        final var key = DigestHelper.sha256(token);
+        try {
+            var result = cache.get(key, () -> introspect(token));
+            if (result.isExpired()) {
+                cache.asMap().remove(key, result);
+                result = cache.get(key, () -> introspect(token));
+            }
+            return result;
+        } catch (final ExecutionException | UncheckedExecutionException e) {
+            final var cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new TechnicalException(cause);
+        }
+    }
+
+    protected IntrospectionResult introspect(final String token) {
+        final var httpRequest = new TokenIntrospectionRequest(resolvedIntrospectionEndpoint, findClientAuthentication(),
+            new BearerAccessToken(token)).toHTTPRequest();
+        configuration.configureHttpRequest(httpRequest);
+        introspectionCount.increment();
+        try {
+            final var httpResponse = configuration.findHttpTransport().send(httpRequest,
+                OidcHttpTransport.Endpoint.INTROSPECTION);
+            logger.debug("Introspection response: status={}", httpResponse.getStatusCode());
+            final var response = TokenIntrospectionResponse.parse(httpResponse);
+            if (response instanceof TokenIntrospectionErrorResponse) {
+                throw new TechnicalException("Bad introspection response, error="
+                    + ((TokenIntrospectionErrorResponse) response).getErrorObject().toJSONObject());
+            }
+            final var successResponse = (TokenIntrospectionSuccessResponse) response;
+            final var now = System.currentTimeMillis();
+            final var expirationTime = successResponse.getExpirationTime();
+            if (!successResponse.isActive() || expirationTime != null && expirationTime.getTime() <= now) {
+                return new IntrospectionResult(null, now + TimeUnit.SECONDS.toMillis(inactiveTimeToLiveInSeconds));
+            }
+            var expiresAt = now + TimeUnit.SECONDS.toMillis(maxTimeToLiveInSeconds);
+            if (expirationTime != null) {
+                expiresAt = Math.min(expiresAt, expirationTime.getTime());
+            }
+            return new IntrospectionResult(JWTClaimsSet.parse(successResponse.toJSONObject()), expiresAt);
+        } catch (final IOException | ParseException | java.text.ParseException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    /**
+     * A cached introspection result: the claims of an active token (<code>null</code> if inactive) and its expiration.
+     */
+    protected static final class IntrospectionResult {
+
+        private final JWTClaimsSet claims;
+
+        private final long expiresAt;
+
+        IntrospectionResult(final JWTClaimsSet claims, final long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+
+        public boolean isActive() {
+            return claims != null && !isExpired();
+        }
+
+        public boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+
+        public JWTClaimsSet getClaims() {
+            return claims;
+        }
+
+        public Date getExpiresAt() {
+            return new Date(expiresAt);
+        }
+    }
+
+    public long getIntrospectionCount() {
+        return introspectionCount.sum();
+    }
+
+    public void clearCache() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    public OidcConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    public void setConfiguration(final OidcConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    public URI getIntrospectionEndpoint() {
+        return introspectionEndpoint;
+    }
+
+    public void setIntrospectionEndpoint(final URI introspectionEndpoint) {
+        this.introspectionEndpoint = introspectionEndpoint;
+    }
+
+    public int getMaxTimeToLiveInSeconds() {
+        return maxTimeToLiveInSeconds;
+    }
+
+    public void setMaxTimeToLiveInSeconds(final int maxTimeToLiveInSeconds) {
+        this.maxTimeToLiveInSeconds = maxTimeToLiveInSeconds;
+    }
+
+    public int getInactiveTimeToLiveInSeconds() {
+        return inactiveTimeToLiveInSeconds;
+    }
+
+    public void setInactiveTimeToLiveInSeconds(final int inactiveTimeToLiveInSeconds) {
+        this.inactiveTimeToLiveInSeconds = inactiveTimeToLiveInSeconds;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(final int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "configuration", configuration, "introspectionEndpoint",
+            introspectionEndpoint, "maxTimeToLiveInSeconds", maxTimeToLiveInSeconds, "inactiveTimeToLiveInSeconds",
+            inactiveTimeToLiveInSeconds, "cacheSize", cacheSize);
+    }
+}
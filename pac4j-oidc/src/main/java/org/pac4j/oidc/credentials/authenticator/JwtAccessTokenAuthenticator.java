@@ -0,0 +1,335 @@
+package org.pac4j.oidc.credentials.authenticator;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.RemoteJWKSet;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.DefaultJOSEObjectTypeVerifier;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
+import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.nimbusds.oauth2.sdk.ParseException;
+import com.nimbusds.oauth2.sdk.token.BearerAccessToken;
+import com.nimbusds.openid.connect.sdk.UserInfoErrorResponse;
+import com.nimbusds.openid.connect.sdk.UserInfoRequest;
+import com.nimbusds.openid.connect.sdk.UserInfoResponse;
+import com.nimbusds.openid.connect.sdk.UserInfoSuccessResponse;
+import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.credentials.authenticator.Authenticator;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.jwt.JwtClaims;
+import org.pac4j.core.store.GuavaStore;
+import org.pac4j.core.store.Store;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+import org.pac4j.oidc.config.OidcConfiguration;
+import org.pac4j.oidc.http.OidcHttpTransport;
+import org.pac4j.oidc.profile.OidcProfile;
+import org.pac4j.oidc.profile.OidcProfileDefinition;
+import org.pac4j.oidc.util.DigestHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.pac4j.core.profile.AttributeLocation.PROFILE_ATTRIBUTE;
+
+/**
+ * Authenticator validating locally the JWT access tokens of an OpenID Connect provider: signature (against the JWK set
+ * of the provider), issuer, audience, expiration and scopes, without calling the provider for each request.
+ *
+ * Only the access tokens typed <code>at+jwt</code> (RFC 9068) are accepted, unless the <code>acceptUntypedTokens</code> is
+ * enabled for the legacy providers, and the tokens carrying a <code>nonce</code> or an <code>at_hash</code> claim are always
+ * rejected as they are ID tokens. The audiences must be defined: they are not defaulted to the client identifier, which is
+ * the audience of the ID tokens.
+ *
+ * The {@link OidcProfile} is built from the claims of the access token. The user info endpoint is only called if the
+ * <code>userInfoEnrichment</code> is enabled and its claims are cached by access token.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public class JwtAccessTokenAuthenticator extends InitializableObject implements Authenticator {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAccessTokenAuthenticator.class);
+
+    private static final Set<JOSEObjectType> ACCESS_TOKEN_TYPES = Set.of(new JOSEObjectType("at+jwt"),
+        new JOSEObjectType("application/at+jwt"));
+
+    private static final Set<String> ID_TOKEN_CLAIMS = Set.of("nonce", "at_hash");
+
+    private OidcConfiguration configuration;
+
+    private List<String> audiences;
+
+    private Set<String> requiredScopes;
+
+    private Set<JWSAlgorithm> jwsAlgorithms;
+
+    private boolean acceptUntypedTokens;
+
+    private boolean userInfoEnrichment;
+
+    private Store<String, Map<String, Object>> userInfoCache;
+
+    private volatile ConfigurableJWTProcessor<SecurityContext> jwtProcessor;
+
+    /* the provider metadata the JWT processor is built from */
+    private volatile OIDCProviderMetadata providerMetadata;
+
+    public JwtAccessTokenAuthenticator() {}
+
+    public JwtAccessTokenAuthenticator(final OidcConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotNull("configuration", configuration);
+
+        final var metadata = configuration.findProviderMetadata();
+        if (jwsAlgorithms == null) {
+            jwsAlgorithms = new HashSet<>();
+            final var metadataAlgorithms = metadata.getIDTokenJWSAlgs();
+            if (metadataAlgorithms != null) {
+                for (final var algorithm : metadataAlgorithms) {
+                    if (JWSAlgorithm.Family.RSA.contains(algorithm) || JWSAlgorithm.Family.EC.contains(algorithm)) {
+                        jwsAlgorithms.add(algorithm);
+                    }
+                }
+            }
+            if (jwsAlgorithms.isEmpty()) {
+                jwsAlgorithms.add(JWSAlgorithm.RS256);
+            }
+        }
+        CommonHelper.assertNotNull("audiences", audiences);
+        CommonHelper.assertTrue(!audiences.isEmpty(), "audiences cannot be empty");
+        if (userInfoEnrichment && userInfoCache == null) {
+            userInfoCache = new GuavaStore<>(10000, 5, TimeUnit.MINUTES);
+        }
+
+        final var processor = new DefaultJWTProcessor<>();
+        final Set<JOSEObjectType> acceptedTypes = new HashSet<>(ACCESS_TOKEN_TYPES);
+        if (acceptUntypedTokens) {
+            acceptedTypes.add(JOSEObjectType.JWT);
+            acceptedTypes.add(null);
+        }
+        processor.setJWSTypeVerifier(new DefaultJOSEObjectTypeVerifier<>(acceptedTypes));
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(jwsAlgorithms, buildJwkSource()));
+        final var claimsVerifier = new DefaultJWTClaimsVerifier<>(new HashSet<>(audiences),
+            new JWTClaimsSet.Builder().issuer(metadata.getIssuer().getValue()).build(),
+            new HashSet<>(Arrays.asList(JwtClaims.SUBJECT, JwtClaims.EXPIRATION_TIME)), ID_TOKEN_CLAIMS);
+        claimsVerifier.setMaxClockSkew(configuration.getMaxClockSkew());
+        processor.setJWTClaimsSetVerifier(claimsVerifier);
+        this.jwtProcessor = processor;
+        this.providerMetadata = metadata;
+    }
+
+    protected JWKSource<SecurityContext> buildJwkSource() {
+        final var jwkSetUri = configuration.findProviderMetadata().getJWKSetURI();
+        CommonHelper.assertNotNull("jwkSetUri", jwkSetUri);
+        final var jwksCacheRegistry = configuration.getJwksCacheRegistry();
+        if (jwksCacheRegistry != null) {
+            return jwksCacheRegistry.getOrCreate(jwkSetUri.toString(), configuration.findResourceRetriever());
+        }
+        try {
+            return new RemoteJWKSet<>(jwkSetUri.toURL(), configuration.findResourceRetriever());
+        } catch (final MalformedURLException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    @Override
+    public void validate(final Credentials cred, final WebContext context, final SessionStore sessionStore) {
+        init();
+        if (configuration.findProviderMetadata() != providerMetadata) {
+            // the discovery document has been refreshed
+            init(true);
+        }
+
+        final var token = ((TokenCredentials) cred).getToken();
+        final JWTClaimsSet claimsSet;
+        try {
+            claimsSet = jwtProcessor.process(token, null);
+        } catch (final KeySourceException e) {
+            throw new TechnicalException("Cannot get the keys to validate the access token", e);
+        } catch (final java.text.ParseException | BadJOSEException e) {
+            throw new CredentialsException("Invalid access token: " + e.getMessage(), e);
+        } catch (final JOSEException e) {
+            throw new TechnicalException(e);
+        }
+        checkScopes(claimsSet);
+
+        final var profileDefinition = new OidcProfileDefinition();
+        final var profile = (OidcProfile) profileDefinition.newProfile();
+        profile.setId(claimsSet.getSubject());
+        addClaims(profileDefinition, profile, claimsSet.getClaims());
+        if (userInfoEnrichment) {
+            final var userInfoClaims = findUserInfo(token);
+            if (!claimsSet.getSubject().equals(userInfoClaims.get(JwtClaims.SUBJECT))) {
+                throw new CredentialsException("The user info subject does not match the access token subject");
+            }
+            addClaims(profileDefinition, profile, userInfoClaims);
+        }
+        profile.addAttribute(OidcProfileDefinition.ACCESS_TOKEN, new BearerAccessToken(token));
+        profile.setExpiration(claimsSet.getExpirationTime());
+        profile.setTokenExpirationAdvance(configuration.getTokenExpirationAdvance());
+
+        cred.setUserProfile(profile);
+    }
+
+    protected void checkScopes(final JWTClaimsSet claimsSet) {
+        if (requiredScopes == null || requiredScopes.isEmpty()) {
+            return;
+        }
+        final Set<String> scopes = new HashSet<>();
+        for (final var claim : new String[] {"scope", "scp"}) {
+            final var value = claimsSet.getClaim(claim);
+            if (value instanceof String) {
+                scopes.addAll(Arrays.asList(((String) value).split(" ")));
+            } else if (value instanceof Collection) {
+                for (final var scope : (Collection<?>) value) {
+                    scopes.add(String.valueOf(scope));
+                }
+            }
+        }
+        if (!scopes.containsAll(requiredScopes)) {
+            throw new CredentialsException("Missing required scopes: " + requiredScopes + " in: " + scopes);
+        }
+    }
+
+    protected void addClaims(final OidcProfileDefinition profileDefinition, final OidcProfile profile,
+                             final Map<String, Object> claims) {
+        for (final var entry : claims.entrySet()) {
+            final var name = entry.getKey();
+            if (JwtClaims.SUBJECT.equals(name)) {
+                continue;
+            }
+            final var actualName = configuration.getMappedClaims().getOrDefault(name, name);
+            profileDefinition.convertAndAdd(profile, PROFILE_ATTRIBUTE, actualName, entry.getValue());
+        }
+    }
+
+    protected Map<String, Object> findUserInfo(final String token) {
+        final var key = DigestHelper.sha256(token);
+        final var cached = userInfoCache.get(key);
+        if (cached.isPresent()) {
+            logger.debug("User info found in cache");
+            return cached.get();
+        }
+        final var claims = fetchUserInfo(new BearerAccessToken(token));
+        userInfoCache.set(key, claims);
+        return claims;
+    }
+
+    protected Map<String, Object> fetchUserInfo(final BearerAccessToken accessToken) {
+        final var userInfoEndpoint = configuration.findProviderMetadata().getUserInfoEndpointURI();
+        CommonHelper.assertNotNull("userInfoEndpoint", userInfoEndpoint);
+        final var userInfoHttpRequest = new UserInfoRequest(userInfoEndpoint, accessToken).toHTTPRequest();
+        configuration.configureHttpRequest(userInfoHttpRequest);
+        try {
+            final var httpResponse = configuration.findHttpTransport().send(userInfoHttpRequest,
+                OidcHttpTransport.Endpoint.USERINFO);
+            logger.debug("User info response: status={}, content={}", httpResponse.getStatusCode(), httpResponse.getContent());
+            final var userInfoResponse = UserInfoResponse.parse(httpResponse);
+            if (userInfoResponse instanceof UserInfoErrorResponse) {
+                throw new TechnicalException("Bad User Info response, error="
+                    + ((UserInfoErrorResponse) userInfoResponse).getErrorObject().toJSONObject());
+            }
+            final var userInfoSuccessResponse = (UserInfoSuccessResponse) userInfoResponse;
+            final JWTClaimsSet userInfoClaimsSet;
+            if (userInfoSuccessResponse.getUserInfo() != null) {
+                userInfoClaimsSet = userInfoSuccessResponse.getUserInfo().toJWTClaimsSet();
+            } else {
+                userInfoClaimsSet = userInfoSuccessResponse.getUserInfoJWT().getJWTClaimsSet();
+            }
+            return new LinkedHashMap<>(userInfoClaimsSet.getClaims());
+        } catch (final IOException | ParseException | java.text.ParseException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    public OidcConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    public void setConfiguration(final OidcConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    public List<String> getAudiences() {
+        return audiences;
+    }
+
+    public void setAudiences(final List<String> audiences) {
+        this.audiences = audiences;
+    }
+
+    public Set<String> getRequiredScopes() {
+        return requiredScopes;
+    }
+
+    public void setRequiredScopes(final Set<String> requiredScopes) {
+        this.requiredScopes = requiredScopes;
+    }
+
+    public Set<JWSAlgorithm> getJwsAlgorithms() {
+        return jwsAlgorithms;
+    }
+
+    public void setJwsAlgorithms(final Set<JWSAlgorithm> jwsAlgorithms) {
+        this.jwsAlgorithms = jwsAlgorithms;
+    }
+
+    public boolean isAcceptUntypedTokens() {
+        return acceptUntypedTokens;
+    }
+
+    public void setAcceptUntypedTokens(final boolean acceptUntypedTokens) {
+        this.acceptUntypedTokens = acceptUntypedTokens;
+    }
+
+    public boolean isUserInfoEnrichment() {
+        return userInfoEnrichment;
+    }
+
+    public void setUserInfoEnrichment(final boolean userInfoEnrichment) {
+        this.userInfoEnrichment = userInfoEnrichment;
+    }
+
+    public Store<String, Map<String, Object>> getUserInfoCache() {
+        return userInfoCache;
+    }
+
+    public void setUserInfoCache(final Store<String, Map<String, Object>> userInfoCache) {
+        this.userInfoCache = userInfoCache;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "configuration", configuration, "audiences", audiences,
+            "requiredScopes", requiredScopes, "jwsAlgorithms", jwsAlgorithms,
+            "acceptUntypedTokens", acceptUntypedTokens, "userInfoEnrichment", userInfoEnrichment,
+            "userInfoCache", userInfoCache);
+    }
+}
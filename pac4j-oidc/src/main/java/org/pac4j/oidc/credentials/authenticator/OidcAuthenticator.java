@@ -1,6 +1,5 @@
 package org.pac4j.oidc.credentials.authenticator;
 
-import com.nimbusds.jose.JOSEException;
 import com.nimbusds.oauth2.sdk.*;
 import com.nimbusds.oauth2.sdk.auth.*;
 import com.nimbusds.oauth2.sdk.id.ClientID;
@@ -15,6 +14,7 @@ import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.oidc.client.OidcClient;
 import org.pac4j.oidc.config.OidcConfiguration;
 import org.pac4j.oidc.credentials.OidcCredentials;
+import org.pac4j.oidc.http.OidcHttpTransport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,6 +24,8 @@ import java.net.URISyntaxException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import static org.pac4j.core.util.CommonHelper.assertNotNull;
 import static org.pac4j.core.util.CommonHelper.isNotEmpty;
@@ -51,6 +53,14 @@ public class OidcAuthenticator implements Authenticator {
 
     private ClientAuthentication clientAuthentication;
 
+    private volatile PrivateKeyJwtAssertionGenerator assertionGenerator;
+
+    private final LongAdder refreshCount = new LongAdder();
+
+    private final LongAdder refreshFailureCount = new LongAdder();
+
+    private final LongAdder refreshTime = new LongAdder();
+
     public OidcAuthenticator(final OidcConfiguration configuration, final OidcClient client) {
         assertNotNull("configuration", configuration);
         assertNotNull("client", client);
@@ -92,19 +102,8 @@ public class OidcAuthenticator implements Authenticator {
                 final var _secret = new Secret(configuration.getSecret());
                 clientAuthentication = new ClientSecretBasic(_clientID, _secret);
             } else if (ClientAuthenticationMethod.PRIVATE_KEY_JWT.equals(chosenMethod)) {
-                final var privateKetJwtConfig = configuration.getPrivateKeyJWTClientAuthnMethodConfig();
-                assertNotNull("privateKetJwtConfig", privateKetJwtConfig);
-                final var jwsAlgo = privateKetJwtConfig.getJwsAlgorithm();
-                assertNotNull("privateKetJwtConfig.getJwsAlgorithm()", jwsAlgo);
-                final var privateKey = privateKetJwtConfig.getPrivateKey();
-                assertNotNull("privateKetJwtConfig.getPrivateKey()", privateKey);
-                final var keyID = privateKetJwtConfig.getKeyID();
-                try {
-                    clientAuthentication = new PrivateKeyJWT(_clientID, configuration.findProviderMetadata().getTokenEndpointURI(),
-                        jwsAlgo, privateKey, keyID, null);
-                } catch (final JOSEException e) {
-                    throw new TechnicalException("Cannot instantiate private key JWT client authentication method", e);
-                }
+                assertionGenerator = new PrivateKeyJwtAssertionGenerator(_clientID,
+                    configuration.findProviderMetadata().getTokenEndpointURI(), configuration.getPrivateKeyJWTClientAuthnMethodConfig());
             } else {
                 throw new TechnicalException("Unsupported client authentication method: " + chosenMethod);
             }
@@ -168,19 +167,29 @@ public class OidcAuthenticator implements Authenticator {
     public void refresh(final OidcCredentials credentials) {
         final var refreshToken = credentials.getRefreshToken();
         if (refreshToken != null) {
+            refreshCount.increment();
+            final var start = System.nanoTime();
+            var success = false;
             try {
                 final var request = createTokenRequest(new RefreshTokenGrant(refreshToken));
                 executeTokenRequest(request, credentials);
+                success = true;
             } catch (final IOException | ParseException e) {
                 throw new TechnicalException(e);
+            } finally {
+                refreshTime.add(System.nanoTime() - start);
+                if (!success) {
+                    refreshFailureCount.increment();
+                }
             }
         }
     }
 
     protected TokenRequest createTokenRequest(final AuthorizationGrant grant) {
-        if (clientAuthentication != null) {
+        final var authentication = findClientAuthentication();
+        if (authentication != null) {
             return new TokenRequest(configuration.findProviderMetadata().getTokenEndpointURI(),
-                this.clientAuthentication, grant);
+                authentication, grant);
         } else {
             return new TokenRequest(configuration.findProviderMetadata().getTokenEndpointURI(),
                 new ClientID(configuration.getClientId()), grant);
@@ -191,7 +200,7 @@ public class OidcAuthenticator implements Authenticator {
         var tokenHttpRequest = request.toHTTPRequest();
         configuration.configureHttpRequest(tokenHttpRequest);
 
-        final var httpResponse = tokenHttpRequest.send();
+        final var httpResponse = configuration.findHttpTransport().send(tokenHttpRequest, OidcHttpTransport.Endpoint.TOKEN);
         logger.debug("Token response: status={}, content={}", httpResponse.getStatusCode(),
             httpResponse.getContent());
 
@@ -212,6 +221,68 @@ public class OidcAuthenticator implements Authenticator {
         }
     }
 
+    /**
+     * The client authentication for a token request: a new client assertion for each request for the
+     * <code>private_key_jwt</code> method (unless a client authentication is explicitly defined).
+     *
+     * @return the client authentication
+     */
+    protected ClientAuthentication findClientAuthentication() {
+        if (clientAuthentication == null && assertionGenerator != null) {
+            return findAssertionGenerator().next();
+        }
+        return clientAuthentication;
+    }
+
+    /**
+     * The generator of the client assertions, rebuilt if the token endpoint (its audience) has changed after a refresh
+     * of the discovery document.
+     *
+     * @return the generator
+     */
+    protected PrivateKeyJwtAssertionGenerator findAssertionGenerator() {
+        final var tokenEndpoint = configuration.findProviderMetadata().getTokenEndpointURI();
+        var generator = assertionGenerator;
+        if (!tokenEndpoint.equals(generator.getEndpoint())) {
+            synchronized (this) {
+                generator = assertionGenerator;
+                if (!tokenEndpoint.equals(generator.getEndpoint())) {
+                    final var newGenerator = new PrivateKeyJwtAssertionGenerator(new ClientID(configuration.getClientId()),
+                        tokenEndpoint, configuration.getPrivateKeyJWTClientAuthnMethodConfig());
+                    newGenerator.setValidityInSeconds(generator.getValidityInSeconds());
+                    newGenerator.setMinRemainingValidityInSeconds(generator.getMinRemainingValidityInSeconds());
+                    newGenerator.setExecutor(generator.getExecutor());
+                    generator = newGenerator;
+                    assertionGenerator = generator;
+                }
+            }
+        }
+        return generator;
+    }
+
+    public long getRefreshCount() {
+        return refreshCount.sum();
+    }
+
+    public long getRefreshFailureCount() {
+        return refreshFailureCount.sum();
+    }
+
+    public long getTotalRefreshTimeInMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(refreshTime.sum());
+    }
+
+    public PrivateKeyJwtAssertionGenerator getAssertionGenerator() {
+        return assertionGenerator;
+    }
+
+    /**
+     * The explicitly defined or the secret based client authentication: it is <code>null</code> for the
+     * <code>private_key_jwt</code> method, whose assertions are generated for each request by the {@link #getAssertionGenerator()}
+     * (see {@link #findClientAuthentication()}).
+     *
+     * @return the client authentication
+     */
     public ClientAuthentication getClientAuthentication() {
         return clientAuthentication;
     }
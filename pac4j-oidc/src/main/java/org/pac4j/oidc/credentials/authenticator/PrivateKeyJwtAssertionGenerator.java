@@ -0,0 +1,210 @@
+package org.pac4j.oidc.credentials.authenticator;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.oauth2.sdk.auth.JWTAuthenticationClaimsSet;
+import com.nimbusds.oauth2.sdk.auth.PrivateKeyJWT;
+import com.nimbusds.oauth2.sdk.id.Audience;
+import com.nimbusds.oauth2.sdk.id.ClientID;
+import com.nimbusds.oauth2.sdk.id.JWTID;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.oidc.config.PrivateKeyJWTClientAuthnMethodConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.security.interfaces.ECPrivateKey;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generator of the <code>private_key_jwt</code> client assertions: the signer is built once and each assertion is used
+ * only once (unique <code>jti</code>).
+ *
+ * The next assertion is pre-generated in the background after each use, so that the requests do not wait for the
+ * signature. A pre-generated assertion is only used if it remains valid for at least
+ * <code>minRemainingValidityInSeconds</code>, otherwise a new one is generated synchronously.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public class PrivateKeyJwtAssertionGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrivateKeyJwtAssertionGenerator.class);
+
+    private final ClientID clientID;
+
+    private final URI endpoint;
+
+    private final JWSAlgorithm jwsAlgorithm;
+
+    private final String keyID;
+
+    private final JWSSigner signer;
+
+    private int validityInSeconds = 300;
+
+    private int minRemainingValidityInSeconds = 60;
+
+    private Executor executor = ForkJoinPool.commonPool();
+
+    private final AtomicReference<PrivateKeyJWT> nextAssertion = new AtomicReference<>();
+
+    private final AtomicBoolean generating = new AtomicBoolean();
+
+    private final LongAdder generatedCount = new LongAdder();
+
+    private final LongAdder pregeneratedHitCount = new LongAdder();
+
+    public PrivateKeyJwtAssertionGenerator(final ClientID clientID, final URI endpoint,
+                                           final PrivateKeyJWTClientAuthnMethodConfig config) {
+        CommonHelper.assertNotNull("clientID", clientID);
+        CommonHelper.assertNotNull("endpoint", endpoint);
+        CommonHelper.assertNotNull("privateKetJwtConfig", config);
+        CommonHelper.assertNotNull("privateKetJwtConfig.getJwsAlgorithm()", config.getJwsAlgorithm());
+        CommonHelper.assertNotNull("privateKetJwtConfig.getPrivateKey()", config.getPrivateKey());
+        this.clientID = clientID;
+        this.endpoint = endpoint;
+        this.jwsAlgorithm = config.getJwsAlgorithm();
+        this.keyID = config.getKeyID();
+        this.signer = buildSigner(config);
+    }
+
+    /**
+     * Build the signer from the family of the JWS algorithm (and not from the type of the private key), so that the opaque
+     * keys of a hardware security module are supported and a key not matching the algorithm is rejected at construction.
+     *
+     * @param config the private key JWT configuration
+     * @return the signer
+     */
+    protected JWSSigner buildSigner(final PrivateKeyJWTClientAuthnMethodConfig config) {
+        final var privateKey = config.getPrivateKey();
+        final var algorithm = config.getJwsAlgorithm();
+        try {
+            if (JWSAlgorithm.Family.RSA.contains(algorithm)) {
+                return new RSASSASigner(privateKey);
+            } else if (JWSAlgorithm.Family.EC.contains(algorithm)) {
+                final var curve = Curve.forJWSAlgorithm(algorithm).iterator().next();
+                if (privateKey instanceof ECPrivateKey
+                    && !curve.equals(Curve.forECParameterSpec(((ECPrivateKey) privateKey).getParams()))) {
+                    throw new TechnicalException("The private key does not match the curve: " + curve + " of the algorithm: "
+                        + algorithm);
+                }
+                return new ECDSASigner(privateKey, curve);
+            }
+        } catch (final JOSEException | IllegalArgumentException e) {
+            throw new TechnicalException("Cannot instantiate private key JWT client authentication method", e);
+        }
+        throw new TechnicalException("Unsupported algorithm for the private key JWT client authentication method: " + algorithm);
+    }
+
+    /**
+     * Return a client assertion never used before, pre-generated if possible, and pre-generate the next one.
+     *
+     * @return the client authentication
+     */
+    public PrivateKeyJWT next() {
+        var assertion = nextAssertion.getAndSet(null);
+        if (assertion != null && isUsable(assertion)) {
+            pregeneratedHitCount.increment();
+        } else {
+            assertion = generate();
+        }
+        pregenerate();
+        return assertion;
+    }
+
+    protected boolean isUsable(final PrivateKeyJWT assertion) {
+        final var expirationTime = assertion.getJWTAuthenticationClaimsSet().getExpirationTime();
+        return expirationTime.getTime() - System.currentTimeMillis() >= TimeUnit.SECONDS.toMillis(minRemainingValidityInSeconds);
+    }
+
+    protected void pregenerate() {
+        if (nextAssertion.get() == null && generating.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        nextAssertion.compareAndSet(null, generate());
+                    } catch (final RuntimeException e) {
+                        LOGGER.warn("Cannot pre-generate the client assertion", e);
+                    } finally {
+                        generating.set(false);
+                    }
+                });
+            } catch (final RuntimeException e) {
+                generating.set(false);
+                LOGGER.warn("Cannot schedule the pre-generation of the client assertion", e);
+            }
+        }
+    }
+
+    protected PrivateKeyJWT generate() {
+        final var now = System.currentTimeMillis();
+        final var claimsSet = new JWTAuthenticationClaimsSet(clientID, List.of(new Audience(endpoint)),
+            new Date(now + TimeUnit.SECONDS.toMillis(validityInSeconds)), null, new Date(now), new JWTID());
+        try {
+            final var jwt = new SignedJWT(new JWSHeader.Builder(jwsAlgorithm).keyID(keyID).build(), claimsSet.toJWTClaimsSet());
+            jwt.sign(signer);
+            generatedCount.increment();
+            return new PrivateKeyJWT(jwt);
+        } catch (final JOSEException e) {
+            throw new TechnicalException("Cannot sign the client assertion", e);
+        }
+    }
+
+    public long getGeneratedCount() {
+        return generatedCount.sum();
+    }
+
+    public long getPregeneratedHitCount() {
+        return pregeneratedHitCount.sum();
+    }
+
+    public URI getEndpoint() {
+        return endpoint;
+    }
+
+    public int getValidityInSeconds() {
+        return validityInSeconds;
+    }
+
+    public void setValidityInSeconds(final int validityInSeconds) {
+        this.validityInSeconds = validityInSeconds;
+    }
+
+    public int getMinRemainingValidityInSeconds() {
+        return minRemainingValidityInSeconds;
+    }
+
+    public void setMinRemainingValidityInSeconds(final int minRemainingValidityInSeconds) {
+        this.minRemainingValidityInSeconds = minRemainingValidityInSeconds;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(final Executor executor) {
+        CommonHelper.assertNotNull("executor", executor);
+        this.executor = executor;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "clientID", clientID, "endpoint", endpoint, "jwsAlgorithm", jwsAlgorithm,
+            "keyID", keyID, "validityInSeconds", validityInSeconds, "minRemainingValidityInSeconds", minRemainingValidityInSeconds);
+    }
+}
@@ -16,6 +16,7 @@ import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.InitializableObject;
 import org.pac4j.oidc.config.OidcConfiguration;
+import org.pac4j.oidc.http.OidcHttpTransport;
 import org.pac4j.oidc.profile.OidcProfile;
 import org.pac4j.oidc.profile.OidcProfileDefinition;
 import org.slf4j.Logger;
@@ -89,7 +90,8 @@ public class UserInfoOidcAuthenticator extends InitializableObject implements Au
         final var userInfoHttpRequest = userInfoRequest.toHTTPRequest();
         configuration.configureHttpRequest(userInfoHttpRequest);
         try {
-            final var httpResponse = userInfoHttpRequest.send();
+            final var httpResponse = configuration.findHttpTransport().send(userInfoHttpRequest,
+                OidcHttpTransport.Endpoint.USERINFO);
             logger.debug("Token response: status={}, content={}", httpResponse.getStatusCode(),
                 httpResponse.getContent());
             final var userInfoResponse = UserInfoResponse.parse(httpResponse);
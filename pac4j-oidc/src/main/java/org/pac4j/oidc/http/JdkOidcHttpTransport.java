@@ -0,0 +1,264 @@
+package org.pac4j.oidc.http;
+
+import com.nimbusds.oauth2.sdk.ParseException;
+import com.nimbusds.oauth2.sdk.http.HTTPRequest;
+import com.nimbusds.oauth2.sdk.http.HTTPResponse;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.util.CommonHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP transport based on a shared JDK {@link HttpClient}: the connections to the provider are kept alive and reused,
+ * the number of concurrent requests per host is bounded and the read timeout can be defined per endpoint (otherwise,
+ * the read timeout of the request is used). HTTP/1.1 is used by default (see {@link #setVersion(HttpClient.Version)}).
+ *
+ * The TLS settings come from the <code>sslContext</code> (the default <code>SSLContext</code> otherwise), not from
+ * the <code>HttpsURLConnection</code> defaults. The requests defining their own SSL socket factory or hostname verifier
+ * (like for mutual TLS) are sent via the Nimbus SDK.
+ *
+ * The requests, failures and time spent are counted per endpoint.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public class JdkOidcHttpTransport implements OidcHttpTransport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JdkOidcHttpTransport.class);
+
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private int connectTimeout = HttpConstants.DEFAULT_CONNECT_TIMEOUT;
+
+    private Map<Endpoint, Integer> readTimeouts = new EnumMap<>(Endpoint.class);
+
+    private int maxConcurrentRequestsPerHost = 64;
+
+    private HttpClient.Version version = HttpClient.Version.HTTP_1_1;
+
+    private volatile SSLContext sslContext;
+
+    private volatile HttpClient httpClient;
+
+    private final Map<String, Semaphore> semaphores = new ConcurrentHashMap<>();
+
+    private final Map<Endpoint, LongAdder> requests = new EnumMap<>(Endpoint.class);
+
+    private final Map<Endpoint, LongAdder> failures = new EnumMap<>(Endpoint.class);
+
+    private final Map<Endpoint, LongAdder> times = new EnumMap<>(Endpoint.class);
+
+    public JdkOidcHttpTransport() {
+        for (final var endpoint : Endpoint.values()) {
+            requests.put(endpoint, new LongAdder());
+            failures.put(endpoint, new LongAdder());
+            times.put(endpoint, new LongAdder());
+        }
+    }
+
+    public JdkOidcHttpTransport(final int connectTimeout) {
+        this();
+        this.connectTimeout = connectTimeout;
+    }
+
+    @Override
+    public HTTPResponse send(final HTTPRequest request, final Endpoint endpoint) throws IOException {
+        if (request.getSSLSocketFactory() != null || request.getHostnameVerifier() != null) {
+            LOGGER.debug("{} request with specific SSL settings: sent via the Nimbus SDK", endpoint);
+            return OidcHttpTransport.NIMBUS.send(request, endpoint);
+        }
+        final var uri = request.getURI();
+        final var semaphore = semaphores.computeIfAbsent(uri.getHost() + ":" + uri.getPort(),
+            key -> new Semaphore(maxConcurrentRequestsPerHost));
+        final var readTimeout = findReadTimeout(request, endpoint);
+        requests.get(endpoint).increment();
+        final var start = System.nanoTime();
+        try {
+            if (readTimeout > 0) {
+                if (!semaphore.tryAcquire(readTimeout, TimeUnit.MILLISECONDS)) {
+                    throw new IOException("Too many concurrent requests to: " + uri.getHost());
+                }
+            } else {
+                semaphore.acquire();
+            }
+            try {
+                final var response = findHttpClient().send(toHttpRequest(request, readTimeout),
+                    HttpResponse.BodyHandlers.ofString());
+                LOGGER.debug("{} request to: {} -> {} ({})", endpoint, uri, response.statusCode(), response.version());
+                return toHTTPResponse(response);
+            } finally {
+                semaphore.release();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures.get(endpoint).increment();
+            throw new IOException(e);
+        } catch (final IOException | RuntimeException e) {
+            failures.get(endpoint).increment();
+            throw e;
+        } finally {
+            times.get(endpoint).add(System.nanoTime() - start);
+        }
+    }
+
+    protected int findReadTimeout(final HTTPRequest request, final Endpoint endpoint) {
+        final var readTimeout = readTimeouts.get(endpoint);
+        return readTimeout != null ? readTimeout : request.getReadTimeout();
+    }
+
+    protected HttpClient findHttpClient() {
+        var client = httpClient;
+        if (client == null) {
+            synchronized (this) {
+                client = httpClient;
+                if (client == null) {
+                    final var builder = HttpClient.newBuilder()
+                        .version(version)
+                        .followRedirects(HttpClient.Redirect.NORMAL);
+                    if (connectTimeout > 0) {
+                        builder.connectTimeout(Duration.ofMillis(connectTimeout));
+                    }
+                    if (sslContext != null) {
+                        builder.sslContext(sslContext);
+                    }
+                    client = builder.build();
+                    httpClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    protected HttpRequest toHttpRequest(final HTTPRequest request, final int readTimeout) {
+        final var method = request.getMethod();
+        final var query = request.getQuery();
+        final var withQueryInUrl = method == HTTPRequest.Method.GET || method == HTTPRequest.Method.DELETE;
+        var uri = request.getURI();
+        if (query != null && withQueryInUrl) {
+            uri = URI.create(uri + "?" + query);
+        }
+
+        final var builder = HttpRequest.newBuilder(uri)
+            .method(method.name(), query != null && !withQueryInUrl ? HttpRequest.BodyPublishers.ofString(query)
+                : HttpRequest.BodyPublishers.noBody());
+        if (readTimeout > 0) {
+            builder.timeout(Duration.ofMillis(readTimeout));
+        }
+        @SuppressWarnings("unchecked")
+        final Map<String, List<String>> headers = request.getHeaderMap();
+        for (final var header : headers.entrySet()) {
+            if (!RESTRICTED_HEADERS.contains(header.getKey().toLowerCase())) {
+                for (final var value : header.getValue()) {
+                    builder.header(header.getKey(), value);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    protected HTTPResponse toHTTPResponse(final HttpResponse<String> response) {
+        final var httpResponse = new HTTPResponse(response.statusCode());
+        for (final var header : response.headers().map().entrySet()) {
+            if (!header.getKey().startsWith(":")) {
+                httpResponse.setHeader(header.getKey(), header.getValue().toArray(new String[0]));
+            }
+        }
+        final var contentType = response.headers().firstValue(HttpConstants.CONTENT_TYPE_HEADER);
+        if (contentType.isPresent()) {
+            try {
+                httpResponse.setContentType(contentType.get());
+            } catch (final ParseException e) {
+                LOGGER.debug("Invalid content type: {}", contentType.get());
+            }
+        }
+        httpResponse.setContent(response.body());
+        return httpResponse;
+    }
+
+    public long getRequestCount(final Endpoint endpoint) {
+        return requests.get(endpoint).sum();
+    }
+
+    public long getFailureCount(final Endpoint endpoint) {
+        return failures.get(endpoint).sum();
+    }
+
+    public long getTotalTimeInMillis(final Endpoint endpoint) {
+        return TimeUnit.NANOSECONDS.toMillis(times.get(endpoint).sum());
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(final int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Map<Endpoint, Integer> getReadTimeouts() {
+        return readTimeouts;
+    }
+
+    public void setReadTimeouts(final Map<Endpoint, Integer> readTimeouts) {
+        CommonHelper.assertNotNull("readTimeouts", readTimeouts);
+        this.readTimeouts = readTimeouts;
+    }
+
+    public void setReadTimeout(final Endpoint endpoint, final int readTimeout) {
+        this.readTimeouts.put(endpoint, readTimeout);
+    }
+
+    public int getMaxConcurrentRequestsPerHost() {
+        return maxConcurrentRequestsPerHost;
+    }
+
+    public void setMaxConcurrentRequestsPerHost(final int maxConcurrentRequestsPerHost) {
+        this.maxConcurrentRequestsPerHost = maxConcurrentRequestsPerHost;
+    }
+
+    public HttpClient.Version getVersion() {
+        return version;
+    }
+
+    public void setVersion(final HttpClient.Version version) {
+        this.version = version;
+    }
+
+    public SSLContext getSslContext() {
+        return sslContext;
+    }
+
+    public void setSslContext(final SSLContext sslContext) {
+        this.sslContext = sslContext;
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public void setHttpClient(final HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "connectTimeout", connectTimeout, "readTimeouts", readTimeouts,
+            "maxConcurrentRequestsPerHost", maxConcurrentRequestsPerHost, "version", version);
+    }
+}
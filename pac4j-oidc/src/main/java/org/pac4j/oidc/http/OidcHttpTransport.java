@@ -0,0 +1,38 @@
+package org.pac4j.oidc.http;
+
+import com.nimbusds.oauth2.sdk.http.HTTPRequest;
+import com.nimbusds.oauth2.sdk.http.HTTPResponse;
+
+import java.io.IOException;
+
+/**
+ * The HTTP transport used to call the endpoints of the OpenID Connect provider.
+ *
+ * By default, the requests are sent via the Nimbus SDK ({@link #NIMBUS}). The {@link JdkOidcHttpTransport} can be used instead.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+@FunctionalInterface
+public interface OidcHttpTransport {
+
+    /**
+     * The called endpoints.
+     */
+    enum Endpoint { TOKEN, USERINFO, INTROSPECTION }
+
+    /**
+     * Send the requests via the Nimbus SDK (<code>HttpURLConnection</code>).
+     */
+    OidcHttpTransport NIMBUS = (request, endpoint) -> request.send();
+
+    /**
+     * Send the HTTP request.
+     *
+     * @param request the HTTP request
+     * @param endpoint the called endpoint
+     * @return the HTTP response
+     * @throws IOException if the request cannot be sent
+     */
+    HTTPResponse send(HTTPRequest request, Endpoint endpoint) throws IOException;
+}
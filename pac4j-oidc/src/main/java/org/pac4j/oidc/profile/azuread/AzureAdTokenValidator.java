@@ -2,6 +2,7 @@ package org.pac4j.oidc.profile.azuread;
 
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.oauth2.sdk.id.ClientID;
+import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
 import com.nimbusds.openid.connect.sdk.validators.IDTokenValidator;
 import org.pac4j.oidc.client.azuread.AzureAdIdTokenValidator;
 import org.pac4j.oidc.config.OidcConfiguration;
@@ -20,8 +21,8 @@ public class AzureAdTokenValidator extends TokenValidator {
     }
 
     @Override
-    protected IDTokenValidator createRSATokenValidator(final OidcConfiguration configuration,
+    protected IDTokenValidator createRSATokenValidator(final OidcConfiguration configuration, final OIDCProviderMetadata metadata,
                                                        final JWSAlgorithm jwsAlgorithm, final ClientID clientID) {
-        return new AzureAdIdTokenValidator(super.createRSATokenValidator(configuration, jwsAlgorithm, clientID));
+        return new AzureAdIdTokenValidator(super.createRSATokenValidator(configuration, metadata, jwsAlgorithm, clientID));
     }
 }
@@ -22,12 +22,16 @@ import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.oidc.client.OidcClient;
 import org.pac4j.oidc.config.OidcConfiguration;
 import org.pac4j.oidc.credentials.OidcCredentials;
+import org.pac4j.oidc.http.OidcHttpTransport;
 import org.pac4j.oidc.profile.OidcProfile;
 import org.pac4j.oidc.profile.OidcProfileDefinition;
+import org.pac4j.oidc.util.DigestHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.pac4j.core.profile.AttributeLocation.PROFILE_ATTRIBUTE;
@@ -115,29 +119,12 @@ public class OidcProfileCreator extends ProfileDefinitionAware implements Profil
 
             // User Info request
             if (configuration.findProviderMetadata().getUserInfoEndpointURI() != null && accessToken != null) {
-                final var userInfoRequest = new UserInfoRequest(configuration.findProviderMetadata().getUserInfoEndpointURI(), accessToken);
-                final var userInfoHttpRequest = userInfoRequest.toHTTPRequest();
-                configuration.configureHttpRequest(userInfoHttpRequest);
-                final var httpResponse = userInfoHttpRequest.send();
-                logger.debug("User info response: status={}, content={}", httpResponse.getStatusCode(),
-                    httpResponse.getContent());
-
-                final var userInfoResponse = UserInfoResponse.parse(httpResponse);
-                if (userInfoResponse instanceof UserInfoErrorResponse) {
-                    logger.error("Bad User Info response, error={}",
-                        ((UserInfoErrorResponse) userInfoResponse).getErrorObject());
+                if (oidcCredentials != null && hasUserInfoRequiredClaims(oidcCredentials.getIdToken().getJWTClaimsSet())) {
+                    logger.debug("All the required claims are in the ID token, skipping the user info request");
                 } else {
-                    final var userInfoSuccessResponse = (UserInfoSuccessResponse) userInfoResponse;
-                    final JWTClaimsSet userInfoClaimsSet;
-                    if (userInfoSuccessResponse.getUserInfo() != null) {
-                        userInfoClaimsSet = userInfoSuccessResponse.getUserInfo().toJWTClaimsSet();
-                    } else {
-                        userInfoClaimsSet = userInfoSuccessResponse.getUserInfoJWT().getJWTClaimsSet();
-                    }
-                    if (userInfoClaimsSet != null) {
-                        getProfileDefinition().convertAndAdd(profile, userInfoClaimsSet.getClaims(), null);
-                    } else {
-                        logger.warn("Cannot retrieve claims from user info");
+                    final var userInfoClaims = findUserInfoClaims(profile.getId(), accessToken);
+                    if (userInfoClaims != null) {
+                        getProfileDefinition().convertAndAdd(profile, userInfoClaims, null);
                     }
                 }
             }
@@ -167,6 +154,68 @@ public class OidcProfileCreator extends ProfileDefinitionAware implements Profil
         }
     }
 
+    protected boolean hasUserInfoRequiredClaims(final JWTClaimsSet idTokenClaims) {
+        final var requiredClaims = configuration.getUserInfoRequiredClaims();
+        if (requiredClaims == null || requiredClaims.isEmpty()) {
+            return false;
+        }
+        for (final var claim : requiredClaims) {
+            if (idTokenClaims.getClaim(claim) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected Map<String, Object> findUserInfoClaims(final String subject, final AccessToken accessToken)
+        throws IOException, ParseException, java.text.ParseException {
+        final var userInfoCache = configuration.getUserInfoCache();
+        if (userInfoCache == null) {
+            return fetchUserInfoClaims(accessToken);
+        }
+        final var key = (subject != null ? subject + ":" : "") + DigestHelper.sha256(accessToken.getValue());
+        final var cachedClaims = userInfoCache.get(key);
+        if (cachedClaims.isPresent()) {
+            logger.debug("User info claims found in cache");
+            return cachedClaims.get();
+        }
+        final var userInfoClaims = fetchUserInfoClaims(accessToken);
+        if (userInfoClaims != null) {
+            userInfoCache.set(key, userInfoClaims);
+        }
+        return userInfoClaims;
+    }
+
+    protected Map<String, Object> fetchUserInfoClaims(final AccessToken accessToken)
+        throws IOException, ParseException, java.text.ParseException {
+        final var userInfoRequest = new UserInfoRequest(configuration.findProviderMetadata().getUserInfoEndpointURI(), accessToken);
+        final var userInfoHttpRequest = userInfoRequest.toHTTPRequest();
+        configuration.configureHttpRequest(userInfoHttpRequest);
+        final var httpResponse = configuration.findHttpTransport().send(userInfoHttpRequest,
+            OidcHttpTransport.Endpoint.USERINFO);
+        logger.debug("User info response: status={}, content={}", httpResponse.getStatusCode(),
+            httpResponse.getContent());
+
+        final var userInfoResponse = UserInfoResponse.parse(httpResponse);
+        if (userInfoResponse instanceof UserInfoErrorResponse) {
+            logger.error("Bad User Info response, error={}",
+                ((UserInfoErrorResponse) userInfoResponse).getErrorObject());
+            return null;
+        }
+        final var userInfoSuccessResponse = (UserInfoSuccessResponse) userInfoResponse;
+        final JWTClaimsSet userInfoClaimsSet;
+        if (userInfoSuccessResponse.getUserInfo() != null) {
+            userInfoClaimsSet = userInfoSuccessResponse.getUserInfo().toJWTClaimsSet();
+        } else {
+            userInfoClaimsSet = userInfoSuccessResponse.getUserInfoJWT().getJWTClaimsSet();
+        }
+        if (userInfoClaimsSet == null) {
+            logger.warn("Cannot retrieve claims from user info");
+            return null;
+        }
+        return new LinkedHashMap<>(userInfoClaimsSet.getClaims());
+    }
+
     private void collectClaimsFromAccessTokenIfAny(final OidcCredentials credentials,
                                                    final Nonce nonce, OidcProfile profile) {
         try {
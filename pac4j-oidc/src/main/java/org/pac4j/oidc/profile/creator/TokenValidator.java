@@ -3,12 +3,14 @@ package org.pac4j.oidc.profile.creator;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
 import com.nimbusds.jwt.JWT;
 import com.nimbusds.oauth2.sdk.auth.Secret;
 import com.nimbusds.oauth2.sdk.id.ClientID;
 import com.nimbusds.openid.connect.sdk.Nonce;
 import com.nimbusds.openid.connect.sdk.OIDCResponseTypeValue;
 import com.nimbusds.openid.connect.sdk.claims.IDTokenClaimsSet;
+import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
 import com.nimbusds.openid.connect.sdk.validators.IDTokenValidator;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.CommonHelper;
@@ -18,11 +20,16 @@ import org.slf4j.LoggerFactory;
 
 import java.net.MalformedURLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * ID Token validator.
  *
+ * The token is dispatched to the validator of the algorithm of its header (the key is then selected by its <code>kid</code>
+ * in the JWK set of the provider). All validators are only tried if there is no validator for this algorithm.
+ *
  * @author Jerome Leleu
  * @since 3.4.0
  */
@@ -30,15 +37,41 @@ public class TokenValidator {
 
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
-    private final List<IDTokenValidator> idTokenValidators;
-
     protected final OidcConfiguration configuration;
 
+    private volatile Validators validators;
+
     public TokenValidator(final OidcConfiguration configuration) {
         CommonHelper.assertNotNull("configuration", configuration);
+        this.configuration = configuration;
+        this.validators = buildValidators(configuration, configuration.findProviderMetadata());
+    }
+
+    /**
+     * The ID token validators, rebuilt when the provider metadata of the configuration have changed
+     * (after a refresh of the discovery document).
+     *
+     * @return the ID token validators
+     */
+    protected Validators findValidators() {
+        final var metadata = configuration.findProviderMetadata();
+        var current = validators;
+        if (current.metadata != metadata) {
+            synchronized (this) {
+                current = validators;
+                if (current.metadata != metadata) {
+                    logger.debug("Provider metadata changed: rebuilding the ID token validators");
+                    current = buildValidators(configuration, metadata);
+                    validators = current;
+                }
+            }
+        }
+        return current;
+    }
 
+    protected Validators buildValidators(final OidcConfiguration configuration, final OIDCProviderMetadata metadata) {
         // check algorithms
-        final var metadataAlgorithms = configuration.findProviderMetadata().getIDTokenJWSAlgs();
+        final var metadataAlgorithms = metadata.getIDTokenJWSAlgs();
         CommonHelper.assertTrue(CommonHelper.isNotEmpty(metadataAlgorithms),
             "There must at least one JWS algorithm supported on the OpenID Connect provider side");
         List<JWSAlgorithm> jwsAlgorithms = new ArrayList<>();
@@ -51,7 +84,8 @@ public class TokenValidator {
                 preferredAlgorithm, metadataAlgorithms);
         }
 
-        idTokenValidators = new ArrayList<>();
+        final List<IDTokenValidator> idTokenValidators = new ArrayList<>();
+        final Map<String, IDTokenValidator> idTokenValidatorsByAlgorithm = new HashMap<>();
         final var _clientID = new ClientID(configuration.getClientId());
 
         for (var jwsAlgorithm : jwsAlgorithms) {
@@ -67,43 +101,56 @@ public class TokenValidator {
                         "the response_type used must return no ID Token from the authorization endpoint");
                 }
                 logger.warn("Allowing unsigned ID tokens");
-                idTokenValidator = new IDTokenValidator(configuration.findProviderMetadata().getIssuer(), _clientID);
+                idTokenValidator = new IDTokenValidator(metadata.getIssuer(), _clientID);
             } else if (CommonHelper.isNotBlank(configuration.getSecret()) && (JWSAlgorithm.HS256.equals(jwsAlgorithm) ||
                 JWSAlgorithm.HS384.equals(jwsAlgorithm) || JWSAlgorithm.HS512.equals(jwsAlgorithm))) {
                 final var _secret = new Secret(configuration.getSecret());
-                idTokenValidator = createHMACTokenValidator(configuration, jwsAlgorithm, _clientID, _secret);
+                idTokenValidator = createHMACTokenValidator(configuration, metadata, jwsAlgorithm, _clientID, _secret);
             } else {
-                idTokenValidator = createRSATokenValidator(configuration, jwsAlgorithm, _clientID);
+                idTokenValidator = createRSATokenValidator(configuration, metadata, jwsAlgorithm, _clientID);
             }
             idTokenValidator.setMaxClockSkew(configuration.getMaxClockSkew());
 
             idTokenValidators.add(idTokenValidator);
+            idTokenValidatorsByAlgorithm.put(jwsAlgorithm.getName(), idTokenValidator);
         }
-
-        this.configuration = configuration;
+        return new Validators(metadata, idTokenValidators, idTokenValidatorsByAlgorithm);
     }
 
-    protected IDTokenValidator createRSATokenValidator(final OidcConfiguration configuration,
+    protected IDTokenValidator createRSATokenValidator(final OidcConfiguration configuration, final OIDCProviderMetadata metadata,
                                                        final JWSAlgorithm jwsAlgorithm, final ClientID clientID) {
         try {
-            return new IDTokenValidator(configuration.findProviderMetadata().getIssuer(), clientID, jwsAlgorithm,
-                configuration.findProviderMetadata().getJWKSetURI().toURL(), configuration.findResourceRetriever());
+            final var jwksCacheRegistry = configuration.getJwksCacheRegistry();
+            if (jwksCacheRegistry != null) {
+                final var jwksCache = jwksCacheRegistry.getOrCreate(metadata.getJWKSetURI().toString(),
+                    configuration.findResourceRetriever());
+                return new IDTokenValidator(metadata.getIssuer(), clientID,
+                    new JWSVerificationKeySelector<>(jwsAlgorithm, jwksCache), null);
+            }
+            return new IDTokenValidator(metadata.getIssuer(), clientID, jwsAlgorithm,
+                metadata.getJWKSetURI().toURL(), configuration.findResourceRetriever());
         } catch (final MalformedURLException e) {
             throw new TechnicalException(e);
         }
     }
 
-    protected IDTokenValidator createHMACTokenValidator(final OidcConfiguration configuration, final JWSAlgorithm jwsAlgorithm,
-                                                        final ClientID clientID, final Secret secret) {
-        return new IDTokenValidator(configuration.findProviderMetadata().getIssuer(), clientID, jwsAlgorithm, secret);
+    protected IDTokenValidator createHMACTokenValidator(final OidcConfiguration configuration, final OIDCProviderMetadata metadata,
+                                                        final JWSAlgorithm jwsAlgorithm, final ClientID clientID,
+                                                        final Secret secret) {
+        return new IDTokenValidator(metadata.getIssuer(), clientID, jwsAlgorithm, secret);
     }
 
     public IDTokenClaimsSet validate(final JWT idToken, final Nonce expectedNonce)
         throws BadJOSEException, JOSEException {
 
+        final var validator = findIdTokenValidator(idToken);
+        if (validator != null) {
+            return validator.validate(idToken, expectedNonce);
+        }
+
         BadJOSEException badJOSEException = null;
         JOSEException joseException = null;
-        for (final var idTokenValidator : idTokenValidators) {
+        for (final var idTokenValidator : findValidators().list) {
             try {
                 return idTokenValidator.validate(idToken, expectedNonce);
             } catch (final BadJOSEException e1) {
@@ -124,8 +171,40 @@ public class TokenValidator {
         }
     }
 
+    protected IDTokenValidator findIdTokenValidator(final JWT idToken) {
+        final var header = idToken.getHeader();
+        final var algorithm = header != null ? header.getAlgorithm() : null;
+        if (algorithm == null) {
+            return null;
+        }
+        final var idTokenValidator = findValidators().byAlgorithm.get(algorithm.getName());
+        logger.debug("ID token validator for algorithm: {} -> {}", algorithm, idTokenValidator);
+        return idTokenValidator;
+    }
+
     // for tests
     List<IDTokenValidator> getIdTokenValidators() {
-        return idTokenValidators;
+        return findValidators().list;
+    }
+
+    protected static final class Validators {
+
+        private final OIDCProviderMetadata metadata;
+
+        private final List<IDTokenValidator> list;
+
+        private final Map<String, IDTokenValidator> byAlgorithm;
+
+        private Validators(final OIDCProviderMetadata metadata, final List<IDTokenValidator> list,
+                           final Map<String, IDTokenValidator> byAlgorithm) {
+            this.metadata = metadata;
+            this.list = list;
+            this.byAlgorithm = byAlgorithm;
+        }
+
+        // for tests
+        List<IDTokenValidator> getList() {
+            return list;
+        }
     }
 }
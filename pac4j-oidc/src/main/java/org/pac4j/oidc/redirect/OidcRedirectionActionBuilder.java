@@ -92,7 +92,7 @@ public class OidcRedirectionActionBuilder implements RedirectionActionBuilder {
 
         // Init nonce for replay attack mitigation
         if (client.getConfiguration().isUseNonce()) {
-            final var nonce = new Nonce();
+            final var nonce = new Nonce(client.getConfiguration().getNonceGenerator().generateValue(context, sessionStore));
             params.put(OidcConfiguration.NONCE, nonce.getValue());
             sessionStore.set(context, client.getNonceSessionAttributeName(), nonce.getValue());
         }
@@ -0,0 +1,34 @@
+package org.pac4j.oidc.util;
+
+import org.pac4j.core.exception.TechnicalException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Helper to compute the digests used as cache keys (to never keep the tokens themselves as keys).
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class DigestHelper {
+
+    private DigestHelper() {}
+
+    /**
+     * Compute the SHA-256 digest of a value, encoded in base64url (without padding).
+     *
+     * @param value the value
+     * @return the digest
+     */
+    public static String sha256(final String value) {
+        try {
+            final var hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new TechnicalException(e);
+        }
+    }
+}
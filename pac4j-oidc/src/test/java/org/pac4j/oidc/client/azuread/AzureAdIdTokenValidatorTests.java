@@ -0,0 +1,106 @@
+package org.pac4j.oidc.client.azuread;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.oauth2.sdk.auth.Secret;
+import com.nimbusds.oauth2.sdk.id.ClientID;
+import com.nimbusds.oauth2.sdk.id.Issuer;
+import com.nimbusds.openid.connect.sdk.validators.IDTokenValidator;
+import org.junit.Test;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link AzureAdIdTokenValidator}.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class AzureAdIdTokenValidatorTests implements TestsConstants {
+
+    private static final String ISSUER = "https://login.microsoftonline.com/%7Btenantid%7D/v2.0";
+
+    private final AzureAdIdTokenValidator validator = new AzureAdIdTokenValidator(
+        new IDTokenValidator(new Issuer(ISSUER), new ClientID(ID), JWSAlgorithm.HS256, new Secret(MAC_SECRET)), 10);
+
+    private static SignedJWT buildIdToken(final String tenantId, final String issuerTenantId) throws Exception {
+        final var claims = new JWTClaimsSet.Builder()
+            .issuer(ISSUER.replace("%7Btenantid%7D", issuerTenantId))
+            .subject(VALUE)
+            .audience(ID)
+            .issueTime(new Date())
+            .expirationTime(new Date(System.currentTimeMillis() + 60000));
+        if (tenantId != null) {
+            claims.claim("tid", tenantId);
+        }
+        final var jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims.build());
+        jwt.sign(new MACSigner(MAC_SECRET));
+        return jwt;
+    }
+
+    @Test
+    public void testTenantValidatorsCreatedOnce() throws Exception {
+        for (var i = 0; i < 3; i++) {
+            assertEquals(VALUE, validator.validate(buildIdToken("tenant1", "tenant1"), null).getSubject().getValue());
+            assertEquals(VALUE, validator.validate(buildIdToken("tenant2", "tenant2"), null).getSubject().getValue());
+        }
+        assertEquals(2, validator.getNbTenants());
+        assertSame(validator.findTenantValidator("tenant1"), validator.findTenantValidator("tenant1"));
+    }
+
+    @Test
+    public void testBadTenant() throws Exception {
+        final var mismatch = buildIdToken("tenant1", "tenant2");
+        assertTrue(TestsHelper.expectException(() -> validator.validate(mismatch, null)) instanceof BadJOSEException);
+        final var noTenant = buildIdToken(null, "tenant1");
+        TestsHelper.expectException(() -> validator.validate(noTenant, null), BadJOSEException.class,
+            "ID token does not contain the 'tid' claim");
+    }
+
+    @Test
+    public void testBoundedTenants() throws Exception {
+        for (var i = 0; i < 50; i++) {
+            validator.validate(buildIdToken("tenant" + i, "tenant" + i), null);
+        }
+        assertTrue(validator.getNbTenants() <= 10);
+    }
+
+    @Test
+    public void testMaxClockSkewPropagated() throws Exception {
+        validator.validate(buildIdToken("tenant1", "tenant1"), null);
+        validator.setMaxClockSkew(120);
+        assertEquals(120, validator.findTenantValidator("tenant1").getMaxClockSkew());
+        assertEquals(120, validator.findTenantValidator("tenant2").getMaxClockSkew());
+    }
+
+    @Test
+    public void testConcurrentTenants() throws Exception {
+        final List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (var i = 0; i < 20; i++) {
+            final var tenantId = "tenant" + (i % 2);
+            final var idToken = buildIdToken(tenantId, tenantId);
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return validator.validate(idToken, null).getIssuer().getValue();
+                } catch (final Exception e) {
+                    return e.getMessage();
+                }
+            }));
+        }
+        for (var i = 0; i < futures.size(); i++) {
+            assertEquals(ISSUER.replace("%7Btenantid%7D", "tenant" + (i % 2)), futures.get(i).get());
+        }
+        assertEquals(2, validator.getNbTenants());
+    }
+}
@@ -0,0 +1,211 @@
+package org.pac4j.oidc.client.direct;
+
+import com.nimbusds.common.contenttype.ContentType;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.oauth2.sdk.http.HTTPResponse;
+import com.nimbusds.oauth2.sdk.id.Issuer;
+import com.nimbusds.openid.connect.sdk.SubjectType;
+import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.oidc.config.JwksCacheRegistry;
+import org.pac4j.oidc.config.OidcConfiguration;
+import org.pac4j.oidc.credentials.authenticator.JwtAccessTokenAuthenticator;
+import org.pac4j.oidc.profile.OidcProfile;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link DirectBearerOidcClient} and {@link JwtAccessTokenAuthenticator}.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class DirectBearerOidcClientTests implements TestsConstants {
+
+    private RSAKey rsaKey;
+
+    private OidcConfiguration configuration;
+
+    private final AtomicInteger nbUserInfoCalls = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        rsaKey = new RSAKeyGenerator(2048).keyID(KEY).generate();
+        final var metadata = new OIDCProviderMetadata(new Issuer(PAC4J_URL), List.of(SubjectType.PUBLIC),
+            new URI(PAC4J_BASE_URL + "jwks"));
+        metadata.setIDTokenJWSAlgs(List.of(JWSAlgorithm.RS256));
+        metadata.setUserInfoEndpointURI(new URI(PAC4J_BASE_URL + "userinfo"));
+        configuration = new OidcConfiguration();
+        configuration.setClientId(ID);
+        configuration.setSecret(SECRET);
+        configuration.setProviderMetadata(metadata);
+        configuration.setJwksCacheRegistry(new JwksCacheRegistry());
+        configuration.setResourceRetriever(url -> new Resource(new JWKSet(rsaKey).toString(), "application/json"));
+        configuration.setHttpTransport((request, endpoint) -> {
+            nbUserInfoCalls.incrementAndGet();
+            final var response = new HTTPResponse(200);
+            response.setEntityContentType(ContentType.APPLICATION_JSON);
+            response.setContent("{\"sub\":\"" + VALUE + "\",\"email\":\"" + EMAIL + "\"}");
+            return response;
+        });
+    }
+
+    private String sign(final JOSEObjectType type, final JWTClaimsSet claims) throws Exception {
+        final var jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(KEY).type(type).build(), claims);
+        jwt.sign(new RSASSASigner(rsaKey));
+        return jwt.serialize();
+    }
+
+    private String buildAccessToken(final String issuer, final String audience, final Date expiration) throws Exception {
+        return sign(new JOSEObjectType("at+jwt"), new JWTClaimsSet.Builder().issuer(issuer).subject(VALUE).audience(audience)
+            .expirationTime(expiration).claim("scope", "read write").claim(FIRSTNAME, FIRSTNAME_VALUE).build());
+    }
+
+    private String buildIdToken(final JOSEObjectType type) throws Exception {
+        return sign(type, new JWTClaimsSet.Builder().issuer(PAC4J_URL).subject(VALUE).audience(ID)
+            .expirationTime(new Date(System.currentTimeMillis() + 60000)).claim("nonce", VALUE).build());
+    }
+
+    private JwtAccessTokenAuthenticator newAuthenticator() {
+        final var authenticator = new JwtAccessTokenAuthenticator(configuration);
+        authenticator.setAudiences(List.of(ID));
+        return authenticator;
+    }
+
+    private String buildAccessToken() throws Exception {
+        return buildAccessToken(PAC4J_URL, ID, new Date(System.currentTimeMillis() + 60000));
+    }
+
+    private void assertInvalid(final JwtAccessTokenAuthenticator authenticator, final String token) {
+        assertTrue(TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(token), null, null))
+            instanceof CredentialsException);
+    }
+
+    @Test
+    public void testClient() throws Exception {
+        final var client = new DirectBearerOidcClient(configuration);
+        client.setAuthenticator(newAuthenticator());
+        final var context = MockWebContext.create()
+            .addRequestHeader(HttpConstants.AUTHORIZATION_HEADER, HttpConstants.BEARER_HEADER_PREFIX + buildAccessToken());
+        final var sessionStore = new MockSessionStore();
+
+        final var credentials = client.getCredentials(context, sessionStore).get();
+        final var profile = (OidcProfile) client.getUserProfile(credentials, context, sessionStore).get();
+        assertEquals(VALUE, profile.getId());
+        assertEquals(FIRSTNAME_VALUE, profile.getAttribute(FIRSTNAME));
+        assertNotNull(profile.getAccessToken());
+        assertNotNull(profile.getExpiration());
+        assertTrue(!profile.isExpired());
+        assertEquals(0, nbUserInfoCalls.get());
+    }
+
+    @Test
+    public void testClientWithDefaultAuthenticator() throws Exception {
+        final var client = new DirectBearerOidcClient(configuration);
+        client.setAudiences(List.of(ID));
+        final var context = MockWebContext.create()
+            .addRequestHeader(HttpConstants.AUTHORIZATION_HEADER, HttpConstants.BEARER_HEADER_PREFIX + buildAccessToken());
+        final var sessionStore = new MockSessionStore();
+
+        final var credentials = client.getCredentials(context, sessionStore).get();
+        assertEquals(VALUE, client.getUserProfile(credentials, context, sessionStore).get().getId());
+        assertEquals(List.of(ID), ((JwtAccessTokenAuthenticator) client.getAuthenticator()).getAudiences());
+    }
+
+    @Test
+    public void testClientAudiencesRequired() {
+        TestsHelper.expectException(() -> new DirectBearerOidcClient(configuration).init(), TechnicalException.class,
+            "audiences must be defined on the client or an authenticator with audiences must be set on the client");
+    }
+
+    @Test
+    public void testInvalidTokens() throws Exception {
+        final var authenticator = newAuthenticator();
+        assertInvalid(authenticator, "notAJwt");
+        assertInvalid(authenticator, buildAccessToken(PAC4J_BASE_URL, ID, new Date(System.currentTimeMillis() + 60000)));
+        assertInvalid(authenticator, buildAccessToken(PAC4J_URL, KEY, new Date(System.currentTimeMillis() + 60000)));
+        assertInvalid(authenticator, buildAccessToken(PAC4J_URL, ID, new Date(System.currentTimeMillis() - 60000)));
+    }
+
+    @Test
+    public void testAudiencesRequired() {
+        TestsHelper.expectException(() -> new JwtAccessTokenAuthenticator(configuration).init(), TechnicalException.class,
+            "audiences cannot be null");
+    }
+
+    @Test
+    public void testIdTokenRejected() throws Exception {
+        final var authenticator = newAuthenticator();
+        assertInvalid(authenticator, buildIdToken(JOSEObjectType.JWT));
+        assertInvalid(authenticator, buildIdToken(null));
+
+        authenticator.setAcceptUntypedTokens(true);
+        authenticator.init(true);
+        assertInvalid(authenticator, buildIdToken(JOSEObjectType.JWT));
+        assertInvalid(authenticator, buildIdToken(null));
+    }
+
+    @Test
+    public void testUntypedTokens() throws Exception {
+        final var authenticator = newAuthenticator();
+        final var token = sign(JOSEObjectType.JWT, new JWTClaimsSet.Builder().issuer(PAC4J_URL).subject(VALUE).audience(ID)
+            .expirationTime(new Date(System.currentTimeMillis() + 60000)).build());
+        assertInvalid(authenticator, token);
+
+        authenticator.setAcceptUntypedTokens(true);
+        authenticator.init(true);
+        final var credentials = new TokenCredentials(token);
+        authenticator.validate(credentials, null, null);
+        assertEquals(VALUE, credentials.getUserProfile().getId());
+    }
+
+    @Test
+    public void testScopes() throws Exception {
+        final var authenticator = newAuthenticator();
+        authenticator.setRequiredScopes(Set.of("read"));
+        final var credentials = new TokenCredentials(buildAccessToken());
+        authenticator.validate(credentials, null, null);
+        assertNotNull(credentials.getUserProfile());
+
+        authenticator.setRequiredScopes(Set.of("admin"));
+        TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(buildAccessToken()), null, null),
+            CredentialsException.class, "Missing required scopes: [admin] in: [read, write]");
+    }
+
+    @Test
+    public void testUserInfoEnrichment() throws Exception {
+        final var authenticator = newAuthenticator();
+        authenticator.setUserInfoEnrichment(true);
+        final var token = buildAccessToken();
+        for (var i = 0; i < 3; i++) {
+            final var credentials = new TokenCredentials(token);
+            authenticator.validate(credentials, null, null);
+            assertEquals(EMAIL, credentials.getUserProfile().getAttribute("email"));
+        }
+        assertEquals(1, nbUserInfoCalls.get());
+    }
+}
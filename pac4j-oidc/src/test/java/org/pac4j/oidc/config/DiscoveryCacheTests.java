@@ -0,0 +1,199 @@
+package org.pac4j.oidc.config;
+
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import com.nimbusds.oauth2.sdk.id.Issuer;
+import com.nimbusds.openid.connect.sdk.SubjectType;
+import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pac4j.core.util.TestsConstants;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link DiscoveryCache}.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class DiscoveryCacheTests implements TestsConstants {
+
+    private static final String DISCOVERY_URI = PAC4J_BASE_URL + ".well-known/openid-configuration";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger nbCalls = new AtomicInteger();
+
+    private volatile String issuer = PAC4J_URL;
+
+    private volatile boolean failure;
+
+    private final ResourceRetriever resourceRetriever = url -> {
+        nbCalls.incrementAndGet();
+        if (failure) {
+            throw new IOException("unavailable");
+        }
+        return new Resource(new OIDCProviderMetadata(new Issuer(issuer), List.of(SubjectType.PUBLIC),
+            java.net.URI.create(PAC4J_BASE_URL + "jwks")).toJSONObject().toString(), "application/json");
+    };
+
+    private DiscoveryCache cache;
+
+    @Before
+    public void setUp() {
+        cache = buildCache();
+    }
+
+    private DiscoveryCache buildCache() {
+        final var discoveryCache = new DiscoveryCache(folder.getRoot().getAbsolutePath());
+        discoveryCache.setExecutor(Runnable::run);
+        return discoveryCache;
+    }
+
+    private OidcConfiguration buildConfiguration() {
+        final var configuration = new OidcConfiguration();
+        configuration.setClientId(ID);
+        configuration.setSecret(SECRET);
+        configuration.setDiscoveryURI(DISCOVERY_URI);
+        configuration.setResourceRetriever(resourceRetriever);
+        configuration.setDiscoveryCache(cache);
+        return configuration;
+    }
+
+    @Test
+    public void testFetchAndPersist() {
+        final var metadata = cache.get(DISCOVERY_URI, resourceRetriever, null);
+        assertEquals(PAC4J_URL, metadata.getIssuer().getValue());
+        assertSame(metadata, cache.get(DISCOVERY_URI, resourceRetriever, null));
+        assertEquals(1, nbCalls.get());
+        assertEquals(1, folder.getRoot().listFiles().length);
+    }
+
+    @Test
+    public void testStartupFromPersistedDocument() {
+        cache.get(DISCOVERY_URI, resourceRetriever, null);
+
+        failure = true;
+        final var restartedCache = buildCache();
+        final var metadata = restartedCache.get(DISCOVERY_URI, resourceRetriever, null);
+        assertEquals(PAC4J_URL, metadata.getIssuer().getValue());
+        // failed background refresh
+        assertEquals(2, nbCalls.get());
+
+        failure = false;
+        issuer = PAC4J_BASE_URL;
+        final var refreshed = new AtomicReference<OIDCProviderMetadata>();
+        assertSame(metadata, restartedCache.get(DISCOVERY_URI, resourceRetriever, refreshed::set));
+        assertEquals(3, nbCalls.get());
+        assertEquals(PAC4J_BASE_URL, refreshed.get().getIssuer().getValue());
+        assertEquals(PAC4J_BASE_URL, restartedCache.get(DISCOVERY_URI, resourceRetriever, null).getIssuer().getValue());
+    }
+
+    @Test
+    public void testParallelPrefetch() {
+        final List<OidcConfiguration> configurations = new ArrayList<>();
+        for (var i = 0; i < 5; i++) {
+            configurations.add(buildConfiguration());
+        }
+        cache.setExecutor(null);
+        cache.prefetch(configurations).join();
+        for (final var configuration : configurations) {
+            assertEquals(PAC4J_URL, configuration.getProviderMetadata().getIssuer().getValue());
+        }
+        assertEquals(1, nbCalls.get());
+    }
+
+    @Test
+    public void testConfigurationUpdatedAfterRefresh() {
+        cache.get(DISCOVERY_URI, resourceRetriever, null);
+        cache = buildCache();
+        issuer = PAC4J_BASE_URL;
+        final var configuration = buildConfiguration();
+        assertEquals(PAC4J_BASE_URL, configuration.findProviderMetadata().getIssuer().getValue());
+        assertEquals(2, nbCalls.get());
+    }
+
+    @Test
+    public void testRunningConfigurationUpdated() {
+        final var configuration = buildConfiguration();
+        final var metadata = configuration.findProviderMetadata();
+        assertSame(metadata, configuration.findProviderMetadata());
+        assertEquals(1, nbCalls.get());
+
+        issuer = PAC4J_BASE_URL;
+        cache.setRefreshIntervalInSeconds(0);
+        assertEquals(PAC4J_BASE_URL, configuration.findProviderMetadata().getIssuer().getValue());
+        assertEquals(2, nbCalls.get());
+    }
+
+    @Test
+    public void testListenerRegisteredOnce() {
+        final var nbNotifications = new AtomicInteger();
+        final Consumer<OIDCProviderMetadata> listener = metadata -> nbNotifications.incrementAndGet();
+        for (var i = 0; i < 3; i++) {
+            cache.get(DISCOVERY_URI, resourceRetriever, listener);
+        }
+        assertEquals(3, nbNotifications.get());
+
+        cache.setRefreshIntervalInSeconds(0);
+        cache.get(DISCOVERY_URI, resourceRetriever, null);
+        assertEquals(2, nbCalls.get());
+        assertEquals(4, nbNotifications.get());
+    }
+
+    @Test
+    public void testConcurrentFirstLoads() throws Exception {
+        final var fetching = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final ResourceRetriever blockingRetriever = url -> {
+            fetching.countDown();
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return resourceRetriever.retrieveResource(url);
+        };
+        final var executor = Executors.newFixedThreadPool(2);
+        try {
+            final var first = executor.submit(() -> cache.get(DISCOVERY_URI, blockingRetriever, null));
+            fetching.await();
+            final var second = executor.submit(() -> cache.get(DISCOVERY_URI, blockingRetriever, null));
+            // a load for another URI is not blocked by the pending one
+            assertEquals(PAC4J_URL, cache.get(PAC4J_BASE_URL, resourceRetriever, null).getIssuer().getValue());
+            release.countDown();
+            assertSame(first.get(), second.get());
+            assertEquals(2, nbCalls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConfigurationReinitAfterRefresh() {
+        final var configuration = buildConfiguration();
+        final var metadata = configuration.findProviderMetadata();
+        configuration.reinit();
+        configuration.reinit();
+
+        issuer = PAC4J_BASE_URL;
+        cache.setRefreshIntervalInSeconds(0);
+        cache.get(DISCOVERY_URI, resourceRetriever, null);
+        assertNotSame(metadata, configuration.getProviderMetadata());
+        assertEquals(PAC4J_BASE_URL, configuration.getProviderMetadata().getIssuer().getValue());
+        assertEquals(2, nbCalls.get());
+    }
+}
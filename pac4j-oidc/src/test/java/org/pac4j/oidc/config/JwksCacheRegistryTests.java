@@ -0,0 +1,212 @@
+package org.pac4j.oidc.config;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link JwksCacheRegistry} and {@link JwksCache}.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class JwksCacheRegistryTests implements TestsConstants {
+
+    private static final String JWKS_URI = "https://www.pac4j.org/jwks";
+
+    private final AtomicInteger nbCalls = new AtomicInteger();
+
+    private volatile String jwks;
+
+    private volatile boolean failure;
+
+    private final ResourceRetriever resourceRetriever = url -> {
+        nbCalls.incrementAndGet();
+        if (failure) {
+            throw new IOException("unavailable");
+        }
+        return new Resource(jwks, "application/json");
+    };
+
+    private JwksCacheRegistry registry;
+
+    @Before
+    public void setUp() throws Exception {
+        jwks = buildJwks("k1");
+        registry = new JwksCacheRegistry();
+        registry.setExecutor(Runnable::run);
+    }
+
+    private static String buildJwks(final String keyId) throws Exception {
+        return new JWKSet(new RSAKeyGenerator(2048).keyID(keyId).generate()).toString();
+    }
+
+    private static JWKSelector selector(final String keyId) {
+        return new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build());
+    }
+
+    @Test
+    public void testSharedCache() {
+        final var cache = registry.getOrCreate(JWKS_URI, resourceRetriever);
+        assertSame(cache, registry.getOrCreate(JWKS_URI, resourceRetriever));
+        assertTrue(cache != registry.getOrCreate(PAC4J_URL, resourceRetriever));
+        assertEquals(2, registry.getCaches().size());
+        assertSame(JwksCacheRegistry.getDefault(), JwksCacheRegistry.getDefault());
+        assertNull(new OidcConfiguration().getJwksCacheRegistry());
+    }
+
+    @Test
+    public void testCachedJwkSet() throws Exception {
+        final var cache = registry.getOrCreate(JWKS_URI, resourceRetriever);
+        for (var i = 0; i < 10; i++) {
+            assertEquals(1, cache.get(selector("k1"), null).size());
+        }
+        assertEquals(1, nbCalls.get());
+        assertEquals(10, cache.getHitCount());
+        assertEquals(1, cache.getFetchCount());
+    }
+
+    @Test
+    public void testRateLimitedRefetchOnUnknownKeyId() throws Exception {
+        final var cache = registry.getOrCreate(JWKS_URI, resourceRetriever);
+        assertEquals(1, cache.get(selector("k1"), null).size());
+        jwks = buildJwks("k2");
+        assertTrue(cache.get(selector("k2"), null).isEmpty());
+        assertEquals(1, nbCalls.get());
+        assertEquals(1, cache.getUnknownKeyIdCount());
+    }
+
+    @Test
+    public void testRefetchOnUnknownKeyId() throws Exception {
+        registry.setMinRefetchIntervalInSeconds(0);
+        final var cache = registry.getOrCreate(JWKS_URI, resourceRetriever);
+        assertEquals(1, cache.get(selector("k1"), null).size());
+        jwks = buildJwks("k2");
+        assertEquals(1, cache.get(selector("k2"), null).size());
+        assertEquals(2, nbCalls.get());
+        assertTrue(cache.get(selector("k1"), null).isEmpty());
+    }
+
+    @Test
+    public void testNoRefetchWhileRefreshing() throws Exception {
+        final List<Runnable> tasks = new ArrayList<>();
+        registry.setExecutor(tasks::add);
+        registry.setTimeToLiveInSeconds(1);
+        registry.setRefreshAheadInSeconds(1);
+        registry.setMinRefetchIntervalInSeconds(0);
+        final var cache = registry.getOrCreate(JWKS_URI, resourceRetriever);
+        assertEquals(1, cache.get(selector("k1"), null).size());
+        jwks = buildJwks("k2");
+        assertTrue(cache.get(selector("k2"), null).isEmpty());
+        assertEquals(1, tasks.size());
+        assertEquals(1, nbCalls.get());
+
+        tasks.get(0).run();
+        assertEquals(2, nbCalls.get());
+        assertEquals(1, cache.getJwkSet().getKeys().size());
+        assertEquals("k2", cache.getJwkSet().getKeys().get(0).getKeyID());
+    }
+
+    @Test
+    public void testRefreshAheadKeepsStaleJwkSet() throws Exception {
+        registry.setTimeToLiveInSeconds(1);
+        registry.setRefreshAheadInSeconds(1);
+        registry.setMinRefetchIntervalInSeconds(0);
+        final var cache = registry.getOrCreate(JWKS_URI, resourceRetriever);
+        final var initial = cache.get(selector("k1"), null);
+        assertEquals(1, initial.size());
+
+        failure = true;
+        assertEquals(initial, cache.get(selector("k1"), null));
+        assertEquals(2, nbCalls.get());
+        assertEquals(1, cache.getFetchFailureCount());
+
+        failure = false;
+        jwks = buildJwks("k1");
+        cache.get(selector("k1"), null);
+        assertEquals(3, nbCalls.get());
+        assertTrue(!initial.equals(cache.get(selector("k1"), null)));
+    }
+
+    @Test
+    public void testNoRefreshAfterFailureBeforeMinRefetchInterval() throws Exception {
+        registry.setTimeToLiveInSeconds(1);
+        registry.setRefreshAheadInSeconds(1);
+        final var cache = registry.getOrCreate(JWKS_URI, resourceRetriever);
+        final var initial = cache.get(selector("k1"), null);
+
+        failure = true;
+        for (var i = 0; i < 10; i++) {
+            assertEquals(initial, cache.get(selector("k1"), null));
+        }
+        assertEquals(2, nbCalls.get());
+        assertEquals(1, cache.getFetchFailureCount());
+    }
+
+    @Test
+    public void testNoLoadAfterFailureBeforeMinRefetchInterval() {
+        failure = true;
+        final var cache = registry.getOrCreate(JWKS_URI, resourceRetriever);
+        for (var i = 0; i < 10; i++) {
+            TestsHelper.expectException(() -> cache.get(selector("k1"), null), KeySourceException.class,
+                i == 0 ? "Cannot load the JWK set from: " + JWKS_URI
+                    : "Cannot load the JWK set from: " + JWKS_URI + " (last attempt failed less than 30000 ms ago)");
+        }
+        assertEquals(1, nbCalls.get());
+    }
+
+    @Test
+    public void testExpiredForTooLong() throws Exception {
+        final var cache = new JwksCache(JWKS_URI, resourceRetriever, 100L, 0L, 0L, 0L, Runnable::run);
+        assertEquals(1, cache.get(selector("k1"), null).size());
+        Thread.sleep(150L);
+        failure = true;
+        TestsHelper.expectException(() -> cache.get(selector("k1"), null), KeySourceException.class,
+            "The JWK set from: " + JWKS_URI + " has expired for too long and cannot be refreshed");
+
+        failure = false;
+        assertEquals(1, cache.get(selector("k1"), null).size());
+    }
+
+    @Test
+    public void testRejectedRefresh() throws Exception {
+        registry.setTimeToLiveInSeconds(1);
+        registry.setRefreshAheadInSeconds(1);
+        final var rejected = new AtomicInteger();
+        registry.setExecutor(task -> {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException();
+        });
+        final var cache = registry.getOrCreate(JWKS_URI, resourceRetriever);
+        for (var i = 0; i < 3; i++) {
+            assertEquals(1, cache.get(selector("k1"), null).size());
+        }
+        // the refresh is scheduled again after each rejection
+        assertEquals(2, rejected.get());
+        assertEquals(1, nbCalls.get());
+    }
+
+    @Test
+    public void testNoJwkSet() {
+        failure = true;
+        final var cache = registry.getOrCreate(JWKS_URI, resourceRetriever);
+        TestsHelper.expectException(() -> cache.get(selector("k1"), null), KeySourceException.class,
+            "Cannot load the JWK set from: " + JWKS_URI);
+    }
+}
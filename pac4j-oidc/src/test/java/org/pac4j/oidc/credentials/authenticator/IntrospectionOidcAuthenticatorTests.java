@@ -0,0 +1,213 @@
+package org.pac4j.oidc.credentials.authenticator;
+
+import com.nimbusds.oauth2.sdk.auth.ClientAuthenticationMethod;
+import com.nimbusds.oauth2.sdk.id.Issuer;
+import com.nimbusds.openid.connect.sdk.SubjectType;
+import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.oidc.config.OidcConfiguration;
+import org.pac4j.oidc.profile.OidcProfile;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link IntrospectionOidcAuthenticator}.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class IntrospectionOidcAuthenticatorTests implements TestsConstants {
+
+    private static final String ACTIVE_TOKEN = "activeToken";
+
+    private static final String INACTIVE_TOKEN = "inactiveToken";
+
+    private static final String EXPIRED_TOKEN = "expiredToken";
+
+    private static final String NO_SUBJECT_TOKEN = "noSubjectToken";
+
+    private static final String USERNAME_TOKEN = "usernameToken";
+
+    private final AtomicInteger nbCalls = new AtomicInteger();
+
+    private final Map<String, String> received = new ConcurrentHashMap<>();
+
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    private HttpServer server;
+
+    private OidcConfiguration configuration;
+
+    private IntrospectionOidcAuthenticator authenticator;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/introspect", exchange -> {
+            nbCalls.incrementAndGet();
+            received.put("authorization", String.valueOf(exchange.getRequestHeaders().getFirst("Authorization")));
+            final var body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            final String json;
+            final var now = System.currentTimeMillis() / 1000;
+            if (body.contains("token=" + ACTIVE_TOKEN)) {
+                json = "{\"active\":true,\"sub\":\"" + VALUE + "\",\"client_id\":\"" + ID + "\",\"scope\":\"read\",\"exp\":"
+                    + (now + 60) + "}";
+            } else if (body.contains("token=" + NO_SUBJECT_TOKEN)) {
+                json = "{\"active\":true,\"client_id\":\"" + ID + "\"}";
+            } else if (body.contains("token=" + USERNAME_TOKEN)) {
+                json = "{\"active\":true,\"username\":\"" + USERNAME + "\"}";
+            } else if (body.contains("token=" + EXPIRED_TOKEN)) {
+                json = "{\"active\":true,\"sub\":\"" + VALUE + "\",\"exp\":" + (now - 60) + "}";
+            } else {
+                json = "{\"active\":false}";
+            }
+            final var bytes = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        });
+        server.start();
+
+        final var metadata = new OIDCProviderMetadata(new Issuer(PAC4J_URL), List.of(SubjectType.PUBLIC),
+            new java.net.URI(PAC4J_BASE_URL + "jwks"));
+        metadata.setIntrospectionEndpointURI(new java.net.URI("http://localhost:" + server.getAddress().getPort() + "/introspect"));
+        configuration = new OidcConfiguration();
+        configuration.setClientId(ID);
+        configuration.setSecret(SECRET);
+        configuration.setProviderMetadata(metadata);
+        authenticator = new IntrospectionOidcAuthenticator(configuration);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testActiveToken() {
+        for (var i = 0; i < 3; i++) {
+            final var credentials = new TokenCredentials(ACTIVE_TOKEN);
+            authenticator.validate(credentials, null, null);
+            final var profile = (OidcProfile) credentials.getUserProfile();
+            assertEquals(VALUE, profile.getId());
+            assertEquals(ID, profile.getAttribute("client_id"));
+            assertEquals(ACTIVE_TOKEN, profile.getAccessToken().getValue());
+            assertFalse(profile.isExpired());
+        }
+        assertEquals(1, nbCalls.get());
+        assertEquals(1, authenticator.getIntrospectionCount());
+        assertTrue(received.get("authorization").startsWith("Basic "));
+    }
+
+    @Test
+    public void testInactiveToken() {
+        for (var i = 0; i < 2; i++) {
+            TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(INACTIVE_TOKEN), null, null),
+                CredentialsException.class, "Inactive access token");
+        }
+        assertEquals(1, nbCalls.get());
+
+        authenticator.clearCache();
+        TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(INACTIVE_TOKEN), null, null));
+        assertEquals(2, nbCalls.get());
+    }
+
+    @Test
+    public void testExpiredToken() {
+        for (var i = 0; i < 2; i++) {
+            TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(EXPIRED_TOKEN), null, null),
+                CredentialsException.class, "Inactive access token");
+        }
+        assertEquals(1, nbCalls.get());
+    }
+
+    @Test
+    public void testConcurrentLookupsCoalesced() throws Exception {
+        authenticator.init();
+        release = new CountDownLatch(1);
+        final List<CompletableFuture<Object>> futures = new ArrayList<>();
+        for (var i = 0; i < 10; i++) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                final var credentials = new TokenCredentials(ACTIVE_TOKEN);
+                authenticator.validate(credentials, null, null);
+                return credentials.getUserProfile().getId();
+            }, Executors.newSingleThreadExecutor()));
+        }
+        Thread.sleep(200);
+        release.countDown();
+        for (final var future : futures) {
+            assertEquals(VALUE, future.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, nbCalls.get());
+    }
+
+    @Test
+    public void testIdentifier() {
+        final var credentials = new TokenCredentials(USERNAME_TOKEN);
+        authenticator.validate(credentials, null, null);
+        assertEquals(USERNAME, credentials.getUserProfile().getId());
+
+        TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(NO_SUBJECT_TOKEN), null, null),
+            CredentialsException.class, "No subject nor username in the introspection response");
+    }
+
+    @Test
+    public void testClientAuthenticationMethods() {
+        configuration.setClientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_POST);
+        authenticator.validate(new TokenCredentials(ACTIVE_TOKEN), null, null);
+        assertEquals("null", received.get("authorization"));
+
+        for (final var method : List.of(ClientAuthenticationMethod.CLIENT_SECRET_JWT, ClientAuthenticationMethod.NONE)) {
+            configuration.setClientAuthenticationMethod(method);
+            TestsHelper.expectException(() -> authenticator.init(true), TechnicalException.class,
+                "Unsupported client authentication method for the introspection: " + method
+                    + " (client_secret_basic, client_secret_post or private_key_jwt expected)");
+        }
+    }
+
+    @Test
+    public void testCacheKeptAfterMetadataRefresh() throws Exception {
+        authenticator.validate(new TokenCredentials(ACTIVE_TOKEN), null, null);
+        final var metadata = configuration.getProviderMetadata();
+        final var newMetadata = new OIDCProviderMetadata(metadata.getIssuer(), metadata.getSubjectTypes(), metadata.getJWKSetURI());
+        newMetadata.setIntrospectionEndpointURI(metadata.getIntrospectionEndpointURI());
+        configuration.setProviderMetadata(newMetadata);
+
+        authenticator.validate(new TokenCredentials(ACTIVE_TOKEN), null, null);
+        assertEquals(1, nbCalls.get());
+    }
+
+    @Test
+    public void testServerDown() {
+        server.stop(0);
+        assertFalse(TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(ACTIVE_TOKEN), null, null))
+            instanceof CredentialsException);
+    }
+}
@@ -0,0 +1,98 @@
+package org.pac4j.oidc.credentials.authenticator;
+
+import com.nimbusds.common.contenttype.ContentType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.oauth2.sdk.auth.ClientAuthenticationMethod;
+import com.nimbusds.oauth2.sdk.http.HTTPResponse;
+import com.nimbusds.oauth2.sdk.id.Issuer;
+import com.nimbusds.oauth2.sdk.token.RefreshToken;
+import com.nimbusds.oauth2.sdk.util.URLUtils;
+import com.nimbusds.openid.connect.sdk.SubjectType;
+import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.oidc.client.OidcClient;
+import org.pac4j.oidc.config.OidcConfiguration;
+import org.pac4j.oidc.config.PrivateKeyJWTClientAuthnMethodConfig;
+import org.pac4j.oidc.credentials.OidcCredentials;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link OidcAuthenticator}.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class OidcAuthenticatorTests implements TestsConstants {
+
+    private final List<String> clientAssertions = new ArrayList<>();
+
+    private OidcConfiguration configuration;
+
+    private volatile int status = 200;
+
+    @Before
+    public void setUp() throws Exception {
+        final var metadata = new OIDCProviderMetadata(new Issuer(PAC4J_URL), List.of(SubjectType.PUBLIC),
+            new java.net.URI(PAC4J_BASE_URL + "jwks"));
+        metadata.setTokenEndpointURI(new java.net.URI(PAC4J_BASE_URL + "token"));
+        final var idToken = new PlainJWT(new JWTClaimsSet.Builder().subject(VALUE).build()).serialize();
+        configuration = new OidcConfiguration();
+        configuration.setClientId(ID);
+        configuration.setSecret(SECRET);
+        configuration.setProviderMetadata(metadata);
+        configuration.setClientAuthenticationMethod(ClientAuthenticationMethod.PRIVATE_KEY_JWT);
+        configuration.setPrivateKeyJWTClientAuthnMethodConfig(new PrivateKeyJWTClientAuthnMethodConfig(JWSAlgorithm.RS256,
+            new RSAKeyGenerator(2048).generate().toPrivateKey(), KEY));
+        configuration.setHttpTransport((request, endpoint) -> {
+            clientAssertions.add(URLUtils.parseParameters(request.getQuery()).get("client_assertion").get(0));
+            final var response = new HTTPResponse(status);
+            response.setEntityContentType(ContentType.APPLICATION_JSON);
+            response.setContent(status == 200
+                ? "{\"access_token\":\"" + TOKEN + "\",\"token_type\":\"Bearer\",\"id_token\":\"" + idToken + "\"}"
+                : "{\"error\":\"invalid_grant\"}");
+            return response;
+        });
+    }
+
+    @Test
+    public void testRefreshWithNewClientAssertions() throws Exception {
+        final var client = new OidcClient(configuration);
+        client.setCallbackUrl(CALLBACK_URL);
+        client.init();
+        final var authenticator = (OidcAuthenticator) client.getAuthenticator();
+
+        for (var i = 0; i < 3; i++) {
+            final var credentials = new OidcCredentials();
+            credentials.setRefreshToken(new RefreshToken(VALUE));
+            authenticator.refresh(credentials);
+            assertEquals(TOKEN, credentials.getAccessToken().getValue());
+        }
+        final var jtis = new HashSet<String>();
+        for (final var assertion : clientAssertions) {
+            jtis.add(SignedJWT.parse(assertion).getJWTClaimsSet().getJWTID());
+        }
+        assertEquals(3, jtis.size());
+        assertEquals(3, authenticator.getRefreshCount());
+        assertEquals(0, authenticator.getRefreshFailureCount());
+
+        status = 400;
+        final var credentials = new OidcCredentials();
+        credentials.setRefreshToken(new RefreshToken(VALUE));
+        assertTrue(TestsHelper.expectException(() -> authenticator.refresh(credentials)) instanceof TechnicalException);
+        assertEquals(4, authenticator.getRefreshCount());
+        assertEquals(1, authenticator.getRefreshFailureCount());
+    }
+}
@@ -0,0 +1,107 @@
+package org.pac4j.oidc.credentials.authenticator;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.oauth2.sdk.auth.PrivateKeyJWT;
+import com.nimbusds.oauth2.sdk.id.ClientID;
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.oidc.config.PrivateKeyJWTClientAuthnMethodConfig;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link PrivateKeyJwtAssertionGenerator}.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class PrivateKeyJwtAssertionGeneratorTests implements TestsConstants {
+
+    private RSAKey rsaKey;
+
+    private PrivateKeyJwtAssertionGenerator generator;
+
+    @Before
+    public void setUp() throws Exception {
+        rsaKey = new RSAKeyGenerator(2048).keyID(KEY).generate();
+        generator = new PrivateKeyJwtAssertionGenerator(new ClientID(ID), new java.net.URI(PAC4J_BASE_URL + "token"),
+            new PrivateKeyJWTClientAuthnMethodConfig(JWSAlgorithm.RS256, rsaKey.toPrivateKey(), KEY));
+        generator.setExecutor(Runnable::run);
+    }
+
+    @Test
+    public void testUniqueSignedAssertions() throws Exception {
+        final Set<String> jtis = new HashSet<>();
+        for (var i = 0; i < 5; i++) {
+            final PrivateKeyJWT assertion = generator.next();
+            final var jwt = assertion.getClientAssertion();
+            assertTrue(jwt.verify(new RSASSAVerifier(rsaKey)));
+            assertEquals(KEY, jwt.getHeader().getKeyID());
+            assertEquals(ID, assertion.getClientID().getValue());
+            assertEquals(PAC4J_BASE_URL + "token", assertion.getJWTAuthenticationClaimsSet().getAudience().get(0).getValue());
+            jtis.add(assertion.getJWTAuthenticationClaimsSet().getJWTID().getValue());
+        }
+        assertEquals(5, jtis.size());
+    }
+
+    @Test
+    public void testPregeneratedAssertions() {
+        generator.next();
+        assertEquals(2, generator.getGeneratedCount());
+        assertEquals(0, generator.getPregeneratedHitCount());
+        generator.next();
+        generator.next();
+        assertEquals(4, generator.getGeneratedCount());
+        assertEquals(2, generator.getPregeneratedHitCount());
+    }
+
+    @Test
+    public void testPregeneratedAssertionTooOld() {
+        generator.setMinRemainingValidityInSeconds(generator.getValidityInSeconds() + 1);
+        generator.next();
+        generator.next();
+        assertEquals(0, generator.getPregeneratedHitCount());
+        assertEquals(4, generator.getGeneratedCount());
+    }
+
+    @Test
+    public void testEcAssertions() throws Exception {
+        final var ecKey = new ECKeyGenerator(Curve.P_384).keyID(KEY).generate();
+        final var ecGenerator = new PrivateKeyJwtAssertionGenerator(new ClientID(ID), new java.net.URI(PAC4J_BASE_URL + "token"),
+            new PrivateKeyJWTClientAuthnMethodConfig(JWSAlgorithm.ES384, ecKey.toPrivateKey(), KEY));
+        ecGenerator.setExecutor(Runnable::run);
+        final var jwt = ecGenerator.next().getClientAssertion();
+        assertEquals(JWSAlgorithm.ES384, jwt.getHeader().getAlgorithm());
+        assertTrue(jwt.verify(new ECDSAVerifier(ecKey)));
+    }
+
+    @Test
+    public void testKeyNotMatchingAlgorithm() throws Exception {
+        final var uri = new java.net.URI(PAC4J_BASE_URL + "token");
+        final var ecKey = new ECKeyGenerator(Curve.P_256).generate();
+        TestsHelper.expectException(() -> new PrivateKeyJwtAssertionGenerator(new ClientID(ID), uri,
+            new PrivateKeyJWTClientAuthnMethodConfig(JWSAlgorithm.RS256, ecKey.toPrivateKey(), KEY)), TechnicalException.class,
+            "Cannot instantiate private key JWT client authentication method");
+        TestsHelper.expectException(() -> new PrivateKeyJwtAssertionGenerator(new ClientID(ID), uri,
+            new PrivateKeyJWTClientAuthnMethodConfig(JWSAlgorithm.ES256, rsaKey.toPrivateKey(), KEY)), TechnicalException.class,
+            "Cannot instantiate private key JWT client authentication method");
+        TestsHelper.expectException(() -> new PrivateKeyJwtAssertionGenerator(new ClientID(ID), uri,
+            new PrivateKeyJWTClientAuthnMethodConfig(JWSAlgorithm.ES384, ecKey.toPrivateKey(), KEY)), TechnicalException.class,
+            "The private key does not match the curve: P-384 of the algorithm: ES384");
+        TestsHelper.expectException(() -> new PrivateKeyJwtAssertionGenerator(new ClientID(ID), uri,
+            new PrivateKeyJWTClientAuthnMethodConfig(JWSAlgorithm.HS256, rsaKey.toPrivateKey(), KEY)), TechnicalException.class,
+            "Unsupported algorithm for the private key JWT client authentication method: HS256");
+    }
+}
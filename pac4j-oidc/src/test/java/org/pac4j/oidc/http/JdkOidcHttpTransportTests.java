@@ -0,0 +1,171 @@
+package org.pac4j.oidc.http;
+
+import com.nimbusds.oauth2.sdk.AuthorizationCode;
+import com.nimbusds.oauth2.sdk.AuthorizationCodeGrant;
+import com.nimbusds.oauth2.sdk.TokenRequest;
+import com.nimbusds.oauth2.sdk.TokenResponse;
+import com.nimbusds.oauth2.sdk.auth.ClientSecretBasic;
+import com.nimbusds.oauth2.sdk.auth.Secret;
+import com.nimbusds.oauth2.sdk.http.HTTPRequest;
+import com.nimbusds.oauth2.sdk.id.ClientID;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.oidc.config.OidcConfiguration;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link JdkOidcHttpTransport}.
+ *
+ * @author Jerome Leleu
+ * @since 5.7.1
+ */
+public final class JdkOidcHttpTransportTests implements TestsConstants {
+
+    private final Map<String, String> received = new ConcurrentHashMap<>();
+
+    private final CountDownLatch blockedRequest = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private HttpServer server;
+
+    private String baseUrl;
+
+    private final JdkOidcHttpTransport transport = new JdkOidcHttpTransport();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/token", exchange -> {
+            received.put("method", exchange.getRequestMethod());
+            received.put("authorization", exchange.getRequestHeaders().getFirst("Authorization"));
+            received.put("body", new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            final var body = ("{\"access_token\":\"" + VALUE + "\",\"token_type\":\"Bearer\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/userinfo", exchange -> {
+            received.put("query", String.valueOf(exchange.getRequestURI().getQuery()));
+            exchange.sendResponseHeaders(200, 2);
+            exchange.getResponseBody().write("{}".getBytes(StandardCharsets.UTF_8));
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            blockedRequest.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, 2);
+            exchange.getResponseBody().write("{}".getBytes(StandardCharsets.UTF_8));
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testTokenRequest() throws Exception {
+        final var request = new TokenRequest(new URI(baseUrl + "/token"), new ClientSecretBasic(new ClientID(ID),
+            new Secret(SECRET)), new AuthorizationCodeGrant(new AuthorizationCode(KEY), new URI(CALLBACK_URL)));
+
+        final var response = TokenResponse.parse(transport.send(request.toHTTPRequest(), OidcHttpTransport.Endpoint.TOKEN));
+        assertTrue(response.indicatesSuccess());
+        assertEquals(VALUE, response.toSuccessResponse().getTokens().getAccessToken().getValue());
+        assertEquals("POST", received.get("method"));
+        assertTrue(received.get("authorization").startsWith("Basic "));
+        assertTrue(received.get("body").contains("grant_type=authorization_code"));
+        assertEquals(1, transport.getRequestCount(OidcHttpTransport.Endpoint.TOKEN));
+        assertEquals(0, transport.getFailureCount(OidcHttpTransport.Endpoint.TOKEN));
+    }
+
+    @Test
+    public void testConnectionReuse() throws Exception {
+        for (var i = 0; i < 3; i++) {
+            final var request = new HTTPRequest(HTTPRequest.Method.GET, new URI(baseUrl + "/userinfo"));
+            request.setQuery("key=" + i);
+            assertEquals(200, transport.send(request, OidcHttpTransport.Endpoint.USERINFO).getStatusCode());
+            assertEquals("key=" + i, received.get("query"));
+        }
+        final var httpClient = transport.getHttpClient();
+        assertNotNull(httpClient);
+        transport.send(new HTTPRequest(HTTPRequest.Method.GET, new URI(baseUrl + "/userinfo")),
+            OidcHttpTransport.Endpoint.USERINFO);
+        assertSame(httpClient, transport.getHttpClient());
+        assertEquals(4, transport.getRequestCount(OidcHttpTransport.Endpoint.USERINFO));
+    }
+
+    @Test
+    public void testSpecificSslSettingsSentViaNimbus() throws Exception {
+        final var request = new HTTPRequest(HTTPRequest.Method.GET, new URI(baseUrl + "/userinfo"));
+        request.setQuery("key=nimbus");
+        request.setHostnameVerifier((hostname, session) -> true);
+        assertEquals(200, transport.send(request, OidcHttpTransport.Endpoint.USERINFO).getStatusCode());
+        assertEquals("key=nimbus", received.get("query"));
+        assertNull(transport.getHttpClient());
+        assertEquals(0, transport.getRequestCount(OidcHttpTransport.Endpoint.USERINFO));
+    }
+
+    @Test
+    public void testDefaults() {
+        assertEquals(HttpClient.Version.HTTP_1_1, transport.getVersion());
+        assertSame(OidcHttpTransport.NIMBUS, new OidcConfiguration().findHttpTransport());
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        server.stop(0);
+        final var request = new HTTPRequest(HTTPRequest.Method.GET, new URI(baseUrl + "/userinfo"));
+        assertTrue(TestsHelper.expectException(() -> transport.send(request, OidcHttpTransport.Endpoint.USERINFO))
+            instanceof IOException);
+        assertEquals(1, transport.getFailureCount(OidcHttpTransport.Endpoint.USERINFO));
+    }
+
+    @Test
+    public void testBoundedConcurrency() throws Exception {
+        transport.setMaxConcurrentRequestsPerHost(1);
+        transport.setReadTimeout(OidcHttpTransport.Endpoint.USERINFO, 200);
+        final var slowRequest = new HTTPRequest(HTTPRequest.Method.GET, new URI(baseUrl + "/slow"));
+        final var future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return transport.send(slowRequest, OidcHttpTransport.Endpoint.TOKEN).getStatusCode();
+            } catch (final IOException e) {
+                return -1;
+            }
+        });
+        assertTrue(blockedRequest.await(5, TimeUnit.SECONDS));
+
+        final var request = new HTTPRequest(HTTPRequest.Method.GET, new URI(baseUrl + "/userinfo"));
+        TestsHelper.expectException(() -> transport.send(request, OidcHttpTransport.Endpoint.USERINFO), IOException.class,
+            "Too many concurrent requests to: localhost");
+        release.countDown();
+        assertEquals(200, (int) future.get(5, TimeUnit.SECONDS));
+        assertEquals(200, transport.send(request, OidcHttpTransport.Endpoint.USERINFO).getStatusCode());
+    }
+}
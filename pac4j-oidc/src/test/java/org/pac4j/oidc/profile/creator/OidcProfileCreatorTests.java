@@ -10,22 +10,28 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.pac4j.core.context.MockWebContext;
 import org.pac4j.core.context.session.MockSessionStore;
 import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.store.GuavaStore;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.oidc.client.OidcClient;
 import org.pac4j.oidc.config.OidcConfiguration;
 import org.pac4j.oidc.credentials.OidcCredentials;
 
+import com.nimbusds.common.contenttype.ContentType;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jwt.JWT;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.PlainJWT;
+import com.nimbusds.oauth2.sdk.http.HTTPResponse;
 import com.nimbusds.oauth2.sdk.id.Issuer;
 import com.nimbusds.oauth2.sdk.token.BearerAccessToken;
 import com.nimbusds.openid.connect.sdk.claims.IDTokenClaimsSet;
@@ -44,6 +50,10 @@ public class OidcProfileCreatorTests implements TestsConstants {
 
     private List<JWSAlgorithm> algorithms;
 
+    private OIDCProviderMetadata metadata;
+
+    private final AtomicInteger nbUserInfoCalls = new AtomicInteger();
+
     @Before
     public void setUp() throws Exception {
         this.idTokenClaims = new IDTokenClaimsSet(new JWTClaimsSet.Builder()
@@ -55,7 +65,7 @@ public class OidcProfileCreatorTests implements TestsConstants {
             .build());
 
         configuration = mock(OidcConfiguration.class);
-        var metadata = mock(OIDCProviderMetadata.class);
+        metadata = mock(OIDCProviderMetadata.class);
         when(metadata.getIssuer()).thenReturn(new Issuer(PAC4J_URL));
         when(metadata.getJWKSetURI()).thenReturn(new URI(PAC4J_BASE_URL));
         when(configuration.findProviderMetadata()).thenReturn(metadata);
@@ -117,4 +127,54 @@ public class OidcProfileCreatorTests implements TestsConstants {
         assertTrue(profile.isPresent());
         assertEquals("pac4j", profile.get().getAttribute("client"));
     }
+
+    private OidcProfileCreator prepareUserInfo() throws Exception {
+        when(metadata.getUserInfoEndpointURI()).thenReturn(new URI(PAC4J_BASE_URL + "userinfo"));
+        when(configuration.findHttpTransport()).thenReturn((request, endpoint) -> {
+            nbUserInfoCalls.incrementAndGet();
+            final var response = new HTTPResponse(200);
+            response.setEntityContentType(ContentType.APPLICATION_JSON);
+            response.setContent("{\"sub\":\"pac4j\",\"email\":\"" + EMAIL + "\"}");
+            return response;
+        });
+        return new OidcProfileCreator(configuration, new OidcClient(configuration));
+    }
+
+    private OidcCredentials newCredentials(final String accessToken) throws Exception {
+        final var credentials = new OidcCredentials();
+        credentials.setAccessToken(new BearerAccessToken(accessToken));
+        credentials.setIdToken(new PlainJWT(idTokenClaims.toJWTClaimsSet()));
+        return credentials;
+    }
+
+    @Test
+    public void testUserInfoCache() throws Exception {
+        when(configuration.getUserInfoCache()).thenReturn(new GuavaStore<>(100, 1, TimeUnit.MINUTES));
+        final var creator = prepareUserInfo();
+
+        for (var i = 0; i < 3; i++) {
+            final var profile = creator.create(newCredentials(VALUE), MockWebContext.create(), new MockSessionStore());
+            assertEquals(EMAIL, profile.get().getAttribute("email"));
+        }
+        assertEquals(1, nbUserInfoCalls.get());
+
+        creator.create(newCredentials(TOKEN), MockWebContext.create(), new MockSessionStore());
+        assertEquals(2, nbUserInfoCalls.get());
+    }
+
+    @Test
+    public void testSkipUserInfoWithRequiredClaimsInIdToken() throws Exception {
+        when(configuration.getUserInfoRequiredClaims()).thenReturn(Set.of("sub", "iss"));
+        final var creator = prepareUserInfo();
+
+        final var profile = creator.create(newCredentials(VALUE), MockWebContext.create(), new MockSessionStore());
+        assertEquals("pac4j", profile.get().getId());
+        assertNull(profile.get().getAttribute("email"));
+        assertEquals(0, nbUserInfoCalls.get());
+
+        when(configuration.getUserInfoRequiredClaims()).thenReturn(Set.of("sub", "email"));
+        final var profileWithUserInfo = creator.create(newCredentials(VALUE), MockWebContext.create(), new MockSessionStore());
+        assertEquals(EMAIL, profileWithUserInfo.get().getAttribute("email"));
+        assertEquals(1, nbUserInfoCalls.get());
+    }
 }
@@ -1,6 +1,13 @@
 package org.pac4j.oidc.profile.creator;
 
 import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.oauth2.sdk.id.Issuer;
 import com.nimbusds.openid.connect.sdk.Nonce;
@@ -14,11 +21,13 @@ import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
 import org.pac4j.jwt.config.signature.SecretSignatureConfiguration;
 import org.pac4j.jwt.profile.JwtGenerator;
+import org.pac4j.oidc.config.JwksCacheRegistry;
 import org.pac4j.oidc.config.OidcConfiguration;
 
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.mockito.Mockito.*;
 import static org.junit.Assert.*;
@@ -84,6 +93,42 @@ public final class TokenValidatorTests implements TestsConstants {
                 "the response_type used must return no ID Token from the authorization endpoint");
     }
 
+    @Test
+    public void testRebuiltAfterMetadataChange() throws URISyntaxException {
+        algorithms.add(JWSAlgorithm.RS256);
+        final TokenValidator validator = new TokenValidator(configuration);
+        final var validators = validator.getIdTokenValidators();
+        assertSame(validators, validator.getIdTokenValidators());
+        assertEquals(PAC4J_URL, validators.get(0).getExpectedIssuer().getValue());
+
+        final OIDCProviderMetadata newMetadata = mock(OIDCProviderMetadata.class);
+        when(newMetadata.getIssuer()).thenReturn(new Issuer(PAC4J_BASE_URL));
+        when(newMetadata.getJWKSetURI()).thenReturn(new URI(PAC4J_BASE_URL));
+        when(newMetadata.getIDTokenJWSAlgs()).thenReturn(algorithms);
+        when(configuration.findProviderMetadata()).thenReturn(newMetadata);
+        final var newValidators = validator.getIdTokenValidators();
+        assertNotSame(validators, newValidators);
+        assertEquals(PAC4J_BASE_URL, newValidators.get(0).getExpectedIssuer().getValue());
+    }
+
+    @Test
+    public void testBuiltFromPassedMetadata() throws URISyntaxException {
+        algorithms.add(JWSAlgorithm.HS256);
+        algorithms.add(JWSAlgorithm.RS256);
+        final TokenValidator validator = new TokenValidator(configuration);
+        final OIDCProviderMetadata otherMetadata = mock(OIDCProviderMetadata.class);
+        when(otherMetadata.getIssuer()).thenReturn(new Issuer(PAC4J_BASE_URL));
+        when(otherMetadata.getJWKSetURI()).thenReturn(new URI(PAC4J_BASE_URL));
+        when(otherMetadata.getIDTokenJWSAlgs()).thenReturn(algorithms);
+        clearInvocations(configuration);
+        final var validators = validator.buildValidators(configuration, otherMetadata);
+        verify(configuration, never()).findProviderMetadata();
+        assertEquals(2, validators.getList().size());
+        for (final var idTokenValidator : validators.getList()) {
+            assertEquals(PAC4J_BASE_URL, idTokenValidator.getExpectedIssuer().getValue());
+        }
+    }
+
     @Test
     public void testTwoAlgorithms() {
         algorithms.add(JWSAlgorithm.HS256);
@@ -128,4 +173,50 @@ public final class TokenValidatorTests implements TestsConstants {
         assertNotNull(claimsSet.getIssueTime());
         assertEquals(nonce, claimsSet.getNonce());
     }
+
+    @Test
+    public void testDispatchOnAlgorithm() throws Exception {
+        algorithms.add(JWSAlgorithm.RS256);
+        algorithms.add(JWSAlgorithm.HS256);
+        final TokenValidator validator = new TokenValidator(configuration);
+        final List<IDTokenValidator> validators = validator.getIdTokenValidators();
+        assertEquals(2, validators.size());
+
+        final long now = new Date().getTime() / 1000;
+        final Map<String, Object> claims = Map.of("iss", PAC4J_URL, "sub", KEY, "aud", ID, "exp", now + 1000, "iat", now);
+        final String idToken = new JwtGenerator(new SecretSignatureConfiguration(CLIENT_SECRET, JWSAlgorithm.HS256))
+            .generate(claims);
+        final SignedJWT jwt = SignedJWT.parse(idToken);
+        assertSame(validators.get(1), validator.findIdTokenValidator(jwt));
+        assertEquals(KEY, validator.validate(jwt, null).getSubject().toString());
+
+        final String hs512Token = new JwtGenerator(new SecretSignatureConfiguration(CLIENT_SECRET + CLIENT_SECRET, JWSAlgorithm.HS512))
+            .generate(claims);
+        assertNull(validator.findIdTokenValidator(SignedJWT.parse(hs512Token)));
+    }
+
+    @Test
+    public void testValidateWithSharedJwks() throws Exception {
+        algorithms.add(JWSAlgorithm.RS256);
+        final RSAKey rsaKey = new RSAKeyGenerator(2048).keyID(KEY).generate();
+        final AtomicInteger nbCalls = new AtomicInteger();
+        final JwksCacheRegistry registry = new JwksCacheRegistry();
+        when(configuration.getJwksCacheRegistry()).thenReturn(registry);
+        when(configuration.findResourceRetriever()).thenReturn(url -> {
+            nbCalls.incrementAndGet();
+            return new Resource(new JWKSet(rsaKey).toString(), "application/json");
+        });
+
+        final SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(KEY).build(),
+            new JWTClaimsSet.Builder().issuer(PAC4J_URL).subject(VALUE).audience(ID)
+                .expirationTime(new Date(System.currentTimeMillis() + 60000)).issueTime(new Date()).build());
+        jwt.sign(new RSASSASigner(rsaKey));
+
+        for (int i = 0; i < 2; i++) {
+            final IDTokenClaimsSet claimsSet = new TokenValidator(configuration).validate(jwt, null);
+            assertEquals(VALUE, claimsSet.getSubject().toString());
+        }
+        assertEquals(1, nbCalls.get());
+        assertEquals(1, registry.getCaches().size());
+    }
 }
@@ -15,7 +15,7 @@ import org.opensaml.saml.metadata.resolver.ChainingMetadataResolver;
 import org.opensaml.saml.metadata.resolver.MetadataResolver;
 import org.pac4j.core.context.HttpConstants;
 import org.pac4j.core.exception.TechnicalException;
-import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.generator.SecureRandomTokenGenerator;
 import org.pac4j.saml.metadata.SAML2MetadataResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,7 +40,7 @@ public final class SAML2Utils implements HttpConstants {
     }
 
     public static String generateID() {
-        return "_".concat(CommonHelper.randomString(39)).toLowerCase();
+        return "_".concat(SecureRandomTokenGenerator.INSTANCE.generate(39));
     }
 
     /**